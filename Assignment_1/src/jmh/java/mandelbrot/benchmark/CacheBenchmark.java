@@ -0,0 +1,83 @@
+package mandelbrot.benchmark;
+
+import mandelbrot.CacheManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.FractalImage;
+import utils.ImageColourProperties;
+import utils.ImageProperties;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times looking images up in the CacheManager
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+
+    static final int IMAGES = 64;
+    static final int SIZE = 128;
+
+    private CacheManager cache;
+    private ImageProperties[] properties;
+    private ImageColourProperties colourProperties;
+    private ImageProperties missing;
+    private int next;
+
+    @Setup
+    public void setup() {
+        this.cache = new CacheManager();
+        this.properties = new ImageProperties[IMAGES];
+        this.colourProperties = new ImageColourProperties();
+        for (int i = 0; i < IMAGES; i++) {
+            this.properties[i] = new ImageProperties(SIZE, SIZE, 100, Math.pow(2, i), -0.5, 0);
+            FractalImage image = new FractalImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+            image.setProperties(this.properties[i]);
+            image.setColourProperties(this.colourProperties);
+            this.cache.cacheImage(image);
+        }
+        this.missing = new ImageProperties(SIZE, SIZE, 100, 3, -0.5, 0);
+    }
+
+    private ImageProperties nextProperties() {
+        this.next = (this.next + 1) % IMAGES;
+        return this.properties[this.next];
+    }
+
+    @Benchmark
+    public FractalImage hit() {
+        return this.cache.getImage(this.nextProperties(), this.colourProperties);
+    }
+
+    @Benchmark
+    public FractalImage hitAnyColour() {
+        return this.cache.findRecolourSource(this.nextProperties());
+    }
+
+    @Benchmark
+    public FractalImage miss() {
+        return this.cache.getImage(this.missing, this.colourProperties);
+    }
+
+    @Benchmark
+    public boolean isCached() {
+        return this.cache.isCached(this.nextProperties(), this.colourProperties);
+    }
+}
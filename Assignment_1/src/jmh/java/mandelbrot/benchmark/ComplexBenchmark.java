@@ -0,0 +1,77 @@
+package mandelbrot.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.Complex;
+import utils.DoubleDouble;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times iterating z = z^2 + c with the Complex and DoubleDouble classes, against plain doubles
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComplexBenchmark {
+
+    static final int ITERATIONS = 1000;
+
+    /**
+     * Inside the main cardioid, so the orbit never escapes
+     */
+    public double real = -0.1;
+    public double imaginary = 0.1;
+
+    @Benchmark
+    public double complex() {
+        Complex c = new Complex(this.real, this.imaginary);
+        Complex z = c.clone();
+        for (int i = 0; i < ITERATIONS; i++) {
+            z = z.square();
+            z.add(c);
+        }
+        return z.modulusSquared();
+    }
+
+    @Benchmark
+    public double doubles() {
+        double zReal = this.real;
+        double zImaginary = this.imaginary;
+        double abi;
+        for (int i = 0; i < ITERATIONS; i++) {
+            abi = zReal * zImaginary;
+            zReal = zReal * zReal - zImaginary * zImaginary + this.real;
+            zImaginary = abi + abi + this.imaginary;
+        }
+        return zReal * zReal + zImaginary * zImaginary;
+    }
+
+    @Benchmark
+    public double doubleDouble() {
+        DoubleDouble cReal = DoubleDouble.valueOf(this.real);
+        DoubleDouble cImaginary = DoubleDouble.valueOf(this.imaginary);
+        DoubleDouble zReal = cReal;
+        DoubleDouble zImaginary = cImaginary;
+        DoubleDouble newReal;
+        for (int i = 0; i < ITERATIONS; i++) {
+            newReal = zReal.square().subtract(zImaginary.square()).add(cReal);
+            zImaginary = zReal.multiply(zImaginary).multiplyPowerOf2(2).add(cImaginary);
+            zReal = newReal;
+        }
+        return zReal.doubleValue();
+    }
+}
@@ -0,0 +1,66 @@
+package mandelbrot.benchmark;
+
+import mandelbrot.formula.Formula;
+import mandelbrot.render.FormulaTask;
+import mandelbrot.render.Fractal;
+import mandelbrot.render.MandelbrotTask;
+import mandelbrot.render.Precision;
+import mandelbrot.render.RenderView;
+import mandelbrot.render.ViewContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.ImageSegment;
+
+import java.awt.geom.Rectangle2D;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the compiled z^2 + c formula against the hand written Mandelbrot kernel, rendering a single tile on one thread.
+ * The bulb and periodicity checks are turned off, as formulas don't use them, so both do the same work.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormulaBenchmark {
+
+    private ViewContext context;
+    private Rectangle2D bounds;
+    private Formula formula;
+
+    @Setup
+    public void setup() {
+        this.context = new ViewContext(new RenderView(Fractal.MANDELBROT, KernelBenchmark.SIZE, KernelBenchmark.SIZE, 1000, 1, -0.5, 0)
+                .withPrecision(Precision.DOUBLE)
+                .withBulbCheck(false)
+                .withPeriodicityCheck(false));
+        this.bounds = new Rectangle2D.Double(0, 0, KernelBenchmark.SIZE, KernelBenchmark.SIZE);
+
+        // Compile outside of the benchmark, tasks reuse the compiled formula
+        this.formula = Formula.parse("z^2 + c");
+        this.formula.compile();
+    }
+
+    @Benchmark
+    public ImageSegment mandelbrot() throws Exception {
+        return new MandelbrotTask(this.context, this.bounds).call();
+    }
+
+    @Benchmark
+    public ImageSegment formula() throws Exception {
+        return new FormulaTask(this.context, this.bounds, this.formula).call();
+    }
+}
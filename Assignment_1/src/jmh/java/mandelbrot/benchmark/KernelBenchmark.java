@@ -0,0 +1,84 @@
+package mandelbrot.benchmark;
+
+import mandelbrot.render.Fractal;
+import mandelbrot.render.RenderView;
+import mandelbrot.render.ViewContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.Complex;
+import utils.ImageSegment;
+
+import java.awt.geom.Rectangle2D;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the CPU kernels rendering a single tile, on one thread.
+ * Each view has a fixed position and iteration count, so results can be compared between releases.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KernelBenchmark {
+
+    static final int SIZE = 256;
+
+    /**
+     * Constant used for the Julia set, in the "Douady rabbit"
+     */
+    static final Complex JULIA_CONSTANT = new Complex(-0.123, 0.745);
+
+    /**
+     * Fractal and view, as fractal:scale:x shift:y shift:iterations
+     */
+    @Param({
+            "mandelbrot:1:-0.5:0:1000",
+            "mandelbrot:50:-0.7436:0.1318:2000",
+            "mandelbrot:1e9:-0.743643887037151:0.13182590420533:5000",
+            "julia:1:0:0:1000",
+            "burningship:1:-0.5:-0.5:1000",
+            "burningship:20:-1.75:-0.03:2000"
+    })
+    public String view;
+
+    @Param({"true", "false"})
+    public boolean checks;
+
+    @Param({"false", "true"})
+    public boolean laneKernel;
+
+    private Fractal fractal;
+    private ViewContext context;
+    private Rectangle2D bounds;
+
+    @Setup
+    public void setup() {
+        String[] parts = this.view.split(":");
+        this.fractal = Fractal.fromName(parts[0]);
+        this.context = new ViewContext(new RenderView(this.fractal, SIZE, SIZE, Integer.parseInt(parts[4]),
+                Double.parseDouble(parts[1]), Double.parseDouble(parts[2]), Double.parseDouble(parts[3]))
+                .withBulbCheck(this.checks)
+                .withPeriodicityCheck(this.checks)
+                .withLaneKernel(this.laneKernel));
+        this.bounds = new Rectangle2D.Double(0, 0, SIZE, SIZE);
+    }
+
+    @Benchmark
+    public ImageSegment render() throws Exception {
+        return this.fractal.createTask(this.context, this.bounds, JULIA_CONSTANT).call();
+    }
+}
@@ -0,0 +1,70 @@
+package mandelbrot.benchmark;
+
+import mandelbrot.render.Fractal;
+import mandelbrot.render.MandelbrotTask;
+import mandelbrot.render.Precision;
+import mandelbrot.render.RenderView;
+import mandelbrot.render.ViewContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.ImageSegment;
+
+import java.awt.geom.Rectangle2D;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times each precision rendering a single tile of the Mandelbrot set, on one thread, at increasing zoom depths
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrecisionBenchmark {
+
+    /**
+     * View, as scale:x shift:y shift
+     */
+    @Param({
+            "1:-0.5:0",
+            "1e4:-0.743643887037151:0.13182590420533",
+            "1e9:-0.743643887037151:0.13182590420533",
+            "1e14:-0.7436438870371587047521915:0.1318259042053119704931320",
+            "1e20:-0.7436438870371587047521915061147:0.1318259042053119704931320563851"
+    })
+    public String view;
+
+    @Param({"DOUBLE_DOUBLE", "DOUBLE", "FLOAT"})
+    public Precision precision;
+
+    private ViewContext context;
+    private Rectangle2D bounds;
+
+    @Setup
+    public void setup() {
+        String[] parts = this.view.split(":");
+        this.context = new ViewContext(new RenderView(Fractal.MANDELBROT, KernelBenchmark.SIZE, KernelBenchmark.SIZE, 2000,
+                Double.parseDouble(parts[0]), new BigDecimal(parts[1]), new BigDecimal(parts[2]))
+                .withPrecision(this.precision));
+        this.bounds = new Rectangle2D.Double(0, 0, KernelBenchmark.SIZE, KernelBenchmark.SIZE);
+    }
+
+    @Benchmark
+    public ImageSegment render() throws Exception {
+        return new MandelbrotTask(this.context, this.bounds).call();
+    }
+}
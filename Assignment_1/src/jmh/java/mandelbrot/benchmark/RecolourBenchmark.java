@@ -0,0 +1,52 @@
+package mandelbrot.benchmark;
+
+import mandelbrot.render.Fractal;
+import mandelbrot.render.MandelbrotTask;
+import mandelbrot.render.RecolourTask;
+import mandelbrot.render.RenderView;
+import mandelbrot.render.ViewContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.ImageSegment;
+
+import java.awt.geom.Rectangle2D;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times recolouring a rendered tile, which only looks up the palette
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecolourBenchmark {
+
+    private ViewContext context;
+    private Rectangle2D bounds;
+    private float[] smoothIterations;
+
+    @Setup
+    public void setup() throws Exception {
+        this.context = new ViewContext(new RenderView(Fractal.MANDELBROT, KernelBenchmark.SIZE, KernelBenchmark.SIZE, 1000, 1, -0.5, 0));
+        this.bounds = new Rectangle2D.Double(0, 0, KernelBenchmark.SIZE, KernelBenchmark.SIZE);
+        this.smoothIterations = new MandelbrotTask(this.context, this.bounds).call().getSmoothIterations();
+    }
+
+    @Benchmark
+    public ImageSegment recolour() throws Exception {
+        return new RecolourTask(this.context, this.bounds, this.smoothIterations).call();
+    }
+}
@@ -0,0 +1,69 @@
+package mandelbrot.benchmark;
+
+import mandelbrot.management.TileScheduler;
+import mandelbrot.render.Fractal;
+import mandelbrot.render.MandelbrotTask;
+import mandelbrot.render.RenderView;
+import mandelbrot.render.ViewContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.ImageSegment;
+
+import java.awt.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times rendering a whole image through the TileScheduler, on every core, with each way of splitting it into tiles.
+ * The seahorse valley view has expensive and cheap areas next to each other, so poor load balancing shows up.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchedulerBenchmark {
+
+    static final int WIDTH = 1024;
+    static final int HEIGHT = 768;
+
+    /**
+     * Tile size in pixels, 0 is adaptive tiling
+     */
+    @Param({"0", "32", "64", "256"})
+    public int tileSize;
+
+    @Param({"1:-0.5:0:500", "50:-0.7436:0.1318:2000"})
+    public String view;
+
+    private TileScheduler scheduler;
+    private ViewContext context;
+    private Rectangle region;
+
+    @Setup
+    public void setup() {
+        String[] parts = this.view.split(":");
+        this.context = new ViewContext(new RenderView(Fractal.MANDELBROT, WIDTH, HEIGHT, Integer.parseInt(parts[3]),
+                Double.parseDouble(parts[0]), Double.parseDouble(parts[1]), Double.parseDouble(parts[2])));
+        this.scheduler = new TileScheduler(Runtime.getRuntime().availableProcessors());
+        this.region = new Rectangle(0, 0, WIDTH, HEIGHT);
+    }
+
+    @Benchmark
+    public List<ImageSegment> render() {
+        return this.scheduler.render(this.region, this.tileSize, bounds -> new MandelbrotTask(this.context, bounds));
+    }
+}
@@ -0,0 +1,109 @@
+import mandelbrot.AnimationRenderer;
+import mandelbrot.management.RenderEngine;
+import mandelbrot.render.Fractal;
+import mandelbrot.render.RenderView;
+import utils.Log;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders a zoom animation to a numbered sequence of PNGs from the command line, without a window.
+ * Takes the same options as Poster for the start view, and end options for the end view.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public class Animation {
+
+    private static final String USAGE = "Usage: Animation [options] <output directory>\n"
+            + "  Start view options are the same as Poster, with a default size of 1920x1080\n"
+            + "  --endScale <factor>      Zoom at the end (default the start zoom)\n"
+            + "  --endXShift <real>       Real part of the centre at the end (default the start centre)\n"
+            + "  --endYShift <imaginary>  Imaginary part of the centre at the end (default the start centre)\n"
+            + "  --endComplex <real,imag> Julia set constant at the end (default the start constant)\n"
+            + "  --endIterations <n>      Maximum iterations at the end (default the start iterations)\n"
+            + "  --endBookmark <name>     Bookmark to end at, instead of the end centre or constant\n"
+            + "  --path <name,name,...>   Bookmarks to pass through in order, instead of a start and end\n"
+            + "  --frames <n>             Frames between each view (default 120)\n"
+            + "  --inFlight <n>           Frames to render at once (default the number of threads)\n"
+            + "  --threads <n>            Threads to render with (default all cores)";
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        String output = Poster.parseOptions(args, options, USAGE);
+        options.putIfAbsent("width", "1920");
+        options.putIfAbsent("height", "1080");
+
+        RenderEngine engine = null;
+        try {
+            int threads = Integer.parseInt(options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+            AnimationRenderer renderer = new AnimationRenderer(createKeyFrames(options),
+                    Integer.parseInt(options.getOrDefault("frames", "120")),
+                    new File(output),
+                    Integer.parseInt(options.getOrDefault("inFlight", String.valueOf(threads))));
+            engine = new RenderEngine(threads);
+            renderer.render(engine);
+        } catch (IllegalArgumentException e) {
+            Poster.exit(e.getMessage(), USAGE);
+        } catch (Exception e) {
+            Log.Error("Failed to render animation: " + e.getMessage());
+            System.exit(2);
+        } finally {
+            if (engine != null) engine.shutdown();
+        }
+    }
+
+    /**
+     * Creates the key frames from the options, either a start and end view, or a bookmark path
+     *
+     * @param options Map of option name to value
+     * @return List of key frames
+     * @throws Exception if a bookmark couldn't be read
+     */
+    private static List<RenderView> createKeyFrames(Map<String, String> options) throws Exception {
+        List<RenderView> keyFrames = new ArrayList<>();
+
+        if (options.containsKey("path")) {
+            // Each bookmark is a key frame, and the zoom changes from the start to the end scale along the path
+            String[] names = options.get("path").split(",");
+            if (names.length < 2) throw new IllegalArgumentException("A path needs at least two bookmarks.");
+            double startScale = Double.parseDouble(options.getOrDefault("scale", "1"));
+            double endScale = Double.parseDouble(options.getOrDefault("endScale", String.valueOf(startScale)));
+            boolean julia = Fractal.fromName(options.getOrDefault("fractal", Fractal.MANDELBROT.toString())) == Fractal.JULIA;
+            for (int i = 0; i < names.length; i++) {
+                Map<String, String> keyFrame = new HashMap<>(options);
+                if (!julia) {
+                    keyFrame.remove("xShift");
+                    keyFrame.remove("yShift");
+                }
+                keyFrame.put("bookmark", names[i]);
+                keyFrame.put("scale", String.valueOf(startScale * Math.pow(endScale / startScale, i / (names.length - 1d))));
+                keyFrames.add(Poster.createView(keyFrame));
+            }
+            return keyFrames;
+        }
+
+        RenderView start = Poster.createView(options);
+        Map<String, String> end = new HashMap<>(options);
+        end.remove("bookmark");
+        end.put("xShift", options.getOrDefault("endXShift", start.getShiftX().toString()));
+        end.put("yShift", options.getOrDefault("endYShift", start.getShiftY().toString()));
+        end.put("complex", options.getOrDefault("endComplex", start.getComplex().getReal() + "," + start.getComplex().getImaginary()));
+        end.put("scale", options.getOrDefault("endScale", String.valueOf(start.getScale())));
+        end.put("iterations", options.getOrDefault("endIterations", String.valueOf(start.getIterations())));
+        if (options.containsKey("endBookmark")) {
+            end.put("bookmark", options.get("endBookmark"));
+            if (start.getFractal() != Fractal.JULIA) {
+                end.remove("xShift");
+                end.remove("yShift");
+            }
+        }
+        keyFrames.add(start);
+        keyFrames.add(Poster.createView(end));
+        return keyFrames;
+    }
+}
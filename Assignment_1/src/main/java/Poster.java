@@ -0,0 +1,151 @@
+import mandelbrot.BookmarkManager;
+import mandelbrot.PosterRenderer;
+import mandelbrot.management.RenderEngine;
+import mandelbrot.render.Fractal;
+import mandelbrot.render.RenderView;
+import utils.Bookmark;
+import utils.Complex;
+import utils.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Renders a fractal to a PNG from the command line, without a window.
+ * Big images are rendered in bands, and carry on from where they were stopped if run again.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public class Poster {
+
+    private static final String USAGE = "Usage: Poster [options] <output.png>\n"
+            + "  --fractal <name>         Mandelbrot, Julia or BurningShip (default Mandelbrot)\n"
+            + "  --width <pixels>         Width of the image (default 16384)\n"
+            + "  --height <pixels>        Height of the image (default 16384)\n"
+            + "  --iterations <n>         Maximum iterations (default 100)\n"
+            + "  --scale <factor>         Zoom (default 1)\n"
+            + "  --xShift <real>          Real part of the centre (default 0)\n"
+            + "  --yShift <imaginary>     Imaginary part of the centre (default 0)\n"
+            + "  --complex <real,imag>    Julia set constant\n"
+            + "  --bookmark <name>        Use a bookmark as the Julia set constant, or the centre for other fractals\n"
+            + "  --bookmarks <file>       JSON file to find bookmarks in (default the built in bookmarks)\n"
+            + "  --hue <0-1>              Hue shift (default 0)\n"
+            + "  --saturation <0-1>       Saturation (default 1)\n"
+            + "  --brightness <0-1>       Brightness (default 1)\n"
+            + "  --threads <n>            Threads to render with (default all cores)";
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        String output = parseOptions(args, options, USAGE);
+
+        RenderEngine engine = null;
+        try {
+            RenderView view = createView(options);
+            engine = new RenderEngine(Integer.parseInt(options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors()))));
+            new PosterRenderer(view, new File(output)).render(engine);
+        } catch (IllegalArgumentException e) {
+            exit(e.getMessage(), USAGE);
+        } catch (Exception e) {
+            Log.Error("Failed to render poster: " + e.getMessage());
+            System.exit(2);
+        } finally {
+            if (engine != null) engine.shutdown();
+        }
+    }
+
+    /**
+     * Reads --name value options, and the output
+     *
+     * @param args    Command line arguments
+     * @param options Map to put option name to value in
+     * @param usage   Usage to print if the arguments are wrong
+     * @return String, the output
+     */
+    static String parseOptions(String[] args, Map<String, String> options, String usage) {
+        String output = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith("--") && i + 1 < args.length) {
+                options.put(args[i].substring(2), args[++i]);
+            } else if (!args[i].startsWith("--") && output == null) {
+                output = args[i];
+            } else {
+                exit("Unexpected argument: " + args[i], usage);
+            }
+        }
+        if (output == null) exit("No output given.", usage);
+        return output;
+    }
+
+    /**
+     * Creates the view to render from the options
+     *
+     * @param options Map of option name to value
+     * @return RenderView
+     * @throws Exception if a bookmark couldn't be read
+     */
+    static RenderView createView(Map<String, String> options) throws Exception {
+        Fractal fractal = Fractal.fromName(options.getOrDefault("fractal", Fractal.MANDELBROT.toString()));
+        if (fractal == null) throw new IllegalArgumentException("Unknown fractal: " + options.get("fractal"));
+
+        BigDecimal shiftX = new BigDecimal(options.getOrDefault("xShift", "0"));
+        BigDecimal shiftY = new BigDecimal(options.getOrDefault("yShift", "0"));
+        Complex complex = null;
+        if (options.containsKey("complex")) {
+            String[] parts = options.get("complex").split(",");
+            if (parts.length != 2) throw new IllegalArgumentException("Complex should be <real>,<imaginary>.");
+            complex = new Complex(Double.parseDouble(parts[0]), Double.parseDouble(parts[1]));
+        }
+
+        if (options.containsKey("bookmark")) {
+            Bookmark bookmark = readBookmarks(options.get("bookmarks")).get(options.get("bookmark"));
+            if (bookmark == null) throw new IllegalArgumentException("Unknown bookmark: " + options.get("bookmark"));
+            if (fractal == Fractal.JULIA) {
+                complex = bookmark.getComplex();
+            } else if (!options.containsKey("xShift") && !options.containsKey("yShift")) {
+                shiftX = BigDecimal.valueOf(bookmark.getReal());
+                shiftY = BigDecimal.valueOf(bookmark.getImaginary());
+            }
+        }
+
+        RenderView view = new RenderView(fractal,
+                Integer.parseInt(options.getOrDefault("width", "16384")),
+                Integer.parseInt(options.getOrDefault("height", "16384")),
+                Integer.parseInt(options.getOrDefault("iterations", "100")),
+                Double.parseDouble(options.getOrDefault("scale", "1")),
+                shiftX, shiftY)
+                .withColour(
+                        Float.parseFloat(options.getOrDefault("hue", "0")),
+                        Float.parseFloat(options.getOrDefault("saturation", "1")),
+                        Float.parseFloat(options.getOrDefault("brightness", "1")));
+        if (complex != null) view = view.withComplex(complex);
+        return view;
+    }
+
+    /**
+     * Reads bookmarks from a JSON file
+     *
+     * @param file File to read, or null for the built in bookmarks
+     * @return Map of bookmark name to bookmark
+     * @throws Exception if the bookmarks couldn't be read
+     */
+    static Map<String, Bookmark> readBookmarks(String file) throws Exception {
+        InputStream inputStream = file == null ? Poster.class.getResourceAsStream("/mandelbrot/bookmarks.json") : new FileInputStream(file);
+        if (inputStream == null) throw new IllegalArgumentException("Failed to find bookmarks.json!");
+        try (Reader reader = new InputStreamReader(inputStream)) {
+            return BookmarkManager.readBookmarks(reader);
+        }
+    }
+
+    static void exit(String message, String usage) {
+        System.err.println(message);
+        System.err.println(usage);
+        System.exit(1);
+    }
+}
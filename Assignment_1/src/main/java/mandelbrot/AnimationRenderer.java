@@ -0,0 +1,305 @@
+package mandelbrot;
+
+import mandelbrot.management.RenderEngine;
+import mandelbrot.render.RenderView;
+import mandelbrot.render.ViewContext;
+import utils.Complex;
+import utils.FractalImage;
+import utils.Log;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders an animation between key frames to a numbered sequence of PNGs, frame-0000.png, frame-0001.png, ...
+ * <p>
+ * Scale is interpolated exponentially, so the zoom looks the same speed all the way in, and the centre moves so the
+ * end point stays still on screen. Several frames are rendered at once so the workers aren't left idle at the end
+ * of each frame, and a frame that is the previous frame moved by whole pixels only renders the pixels that are new.
+ * Frames that already exist are skipped, so a stopped animation carries on where it was.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public class AnimationRenderer {
+
+    private final List<RenderView> keyFrames;
+    private final int framesPerKeyFrame;
+    private final File directory;
+    private final int inFlight;
+
+    /**
+     * Creates an animation renderer
+     *
+     * @param keyFrames         Views to animate between, at least two, all the same size
+     * @param framesPerKeyFrame Frames between each key frame
+     * @param directory         Directory to write the frames to
+     * @param inFlight          Most frames to render at once
+     */
+    public AnimationRenderer(List<RenderView> keyFrames, int framesPerKeyFrame, File directory, int inFlight) {
+        if (keyFrames.size() < 2) {
+            throw new IllegalArgumentException("An animation needs at least two key frames.");
+        }
+        if (framesPerKeyFrame < 1 || inFlight < 1) {
+            throw new IllegalArgumentException("Frames per key frame and frames in flight must be at least 1.");
+        }
+        for (RenderView view : keyFrames) {
+            if (view.getWidth() != keyFrames.get(0).getWidth() || view.getHeight() != keyFrames.get(0).getHeight()) {
+                throw new IllegalArgumentException("Key frames must all be the same size.");
+            }
+        }
+        this.keyFrames = new ArrayList<>(keyFrames);
+        this.framesPerKeyFrame = framesPerKeyFrame;
+        this.directory = directory;
+        this.inFlight = inFlight;
+    }
+
+    /**
+     * Gets the number of frames in the animation
+     *
+     * @return int, number of frames
+     */
+    public int getFrameCount() {
+        return (this.keyFrames.size() - 1) * this.framesPerKeyFrame + 1;
+    }
+
+    /**
+     * Gets the view of a frame
+     *
+     * @param frame Frame number
+     * @return RenderView
+     */
+    public RenderView getFrame(int frame) {
+        int keyFrame = Math.min(frame / this.framesPerKeyFrame, this.keyFrames.size() - 2);
+        double t = (frame - keyFrame * this.framesPerKeyFrame) / (double) this.framesPerKeyFrame;
+        return interpolate(this.keyFrames.get(keyFrame), this.keyFrames.get(keyFrame + 1), t);
+    }
+
+    /**
+     * Renders the frames that haven't been rendered yet
+     *
+     * @param engine Engine to render with
+     * @throws IOException          if the directory couldn't be made, or a frame couldn't be written
+     * @throws ExecutionException   if a frame failed to render
+     * @throws InterruptedException if interrupted whilst waiting for a frame
+     */
+    public void render(RenderEngine engine) throws IOException, ExecutionException, InterruptedException {
+        if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+            throw new IOException("Failed to create '" + this.directory + "'.");
+        }
+        int frameCount = this.getFrameCount();
+        Log.Information("Rendering " + frameCount + " frames to " + this.directory + ", " + this.inFlight + " at a time.");
+
+        // Frames wait on the frame before them, which is always ahead in the queue, so there are enough threads
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService frames = Executors.newFixedThreadPool(this.inFlight, r -> {
+            Thread t = new Thread(r, "Animation_Frame_" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        ArrayDeque<Future<FractalImage>> pending = new ArrayDeque<>();
+        ArrayDeque<Integer> pendingFrames = new ArrayDeque<>();
+
+        long startTime = System.nanoTime();
+        int toRender = 0;
+        for (int frame = 0; frame < frameCount; frame++) {
+            if (!this.getFile(frame).exists()) toRender++;
+        }
+        if (toRender != frameCount) {
+            Log.Information("Resuming, " + (frameCount - toRender) + " frame(s) were already rendered.");
+        }
+
+        try {
+            int rendered = 0;
+            int reused = 0;
+            RenderView previousView = null;
+            Future<FractalImage> previous = null;
+            for (int frame = 0; frame <= frameCount; frame++) {
+                // Wait for the oldest frame when there are too many in flight, or at the end
+                while (!pending.isEmpty() && (pending.size() >= this.inFlight || frame == frameCount)) {
+                    pending.poll().get();
+                    rendered++;
+                    long elapsed = System.nanoTime() - startTime;
+                    long eta = elapsed / rendered * (toRender - rendered);
+                    Log.Information(String.format("Frame %d of %d done, %.0fs elapsed, about %.0fs left.", pendingFrames.poll() + 1, frameCount, elapsed / 1e9, eta / 1e9));
+                }
+                if (frame == frameCount) break;
+
+                File file = this.getFile(frame);
+                if (file.exists()) {
+                    previousView = null;
+                    previous = null;
+                    continue;
+                }
+
+                RenderView view = this.getFrame(frame);
+                Point offset = previousView == null ? null : getPixelOffset(previousView, view);
+                Future<FractalImage> source = previous;
+                if (offset != null) reused++;
+
+                previous = frames.submit(() -> {
+                    FractalImage image = offset == null ? engine.render(view).get() : shift(engine, view, source.get(), offset);
+                    write(image, file);
+                    return image;
+                });
+                previousView = view;
+                pending.add(previous);
+                pendingFrames.add(frame);
+            }
+            Log.Information("Rendered " + toRender + " frame(s), " + reused + " of them were moved from the frame before.");
+        } finally {
+            for (Future<FractalImage> future : pending) {
+                future.cancel(true);
+            }
+            frames.shutdownNow();
+        }
+    }
+
+    private File getFile(int frame) {
+        return new File(this.directory, String.format("frame-%04d.png", frame));
+    }
+
+    /**
+     * Writes a frame to a temporary file first, so a frame file is only ever complete
+     */
+    private static void write(BufferedImage image, File file) throws IOException {
+        File temporary = new File(file.getPath() + ".tmp");
+        if (!ImageIO.write(image, "png", temporary)) {
+            throw new IOException("No PNG writer found.");
+        }
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Interpolates between two views.
+     * Scale is interpolated exponentially, and the centre moves so the end view's centre stays still on screen.
+     * If the scale doesn't change, the centre moves in whole pixels so frames can be made from the frame before.
+     *
+     * @param start View at t = 0
+     * @param end   View at t = 1
+     * @param t     How far between the views, 0 to 1
+     * @return RenderView
+     */
+    public static RenderView interpolate(RenderView start, RenderView end, double t) {
+        if (t <= 0) return start;
+        if (t >= 1) return end;
+
+        double scale = start.getScale() * Math.pow(end.getScale() / start.getScale(), t);
+
+        // How far the centre has moved. The width of the view is 1/scale, so this moves the centre at the same rate
+        // the view shrinks, and the end view's centre stays in the same place on screen
+        double position = t;
+        if (start.getScale() != end.getScale()) {
+            position = (1 / scale - 1 / start.getScale()) / (1 / end.getScale() - 1 / start.getScale());
+        }
+        BigDecimal shiftX = interpolate(start.getShiftX(), end.getShiftX(), position);
+        BigDecimal shiftY = interpolate(start.getShiftY(), end.getShiftY(), position);
+
+        if (start.getScale() == end.getScale()) {
+            BigDecimal pixelSize = BigDecimal.valueOf(new ViewContext(start).getPixelSize());
+            shiftX = snap(start.getShiftX(), shiftX, pixelSize);
+            shiftY = snap(start.getShiftY(), shiftY, pixelSize);
+        }
+
+        Complex startComplex = start.getComplex();
+        Complex endComplex = end.getComplex();
+        return start.withScale(scale)
+                .withShift(shiftX, shiftY)
+                .withIterations((int) Math.round(start.getIterations() + (end.getIterations() - start.getIterations()) * t))
+                .withComplex(new Complex(
+                        startComplex.getReal() + (endComplex.getReal() - startComplex.getReal()) * t,
+                        startComplex.getImaginary() + (endComplex.getImaginary() - startComplex.getImaginary()) * t))
+                .withColour(
+                        start.getHue() + (end.getHue() - start.getHue()) * (float) t,
+                        start.getSaturation() + (end.getSaturation() - start.getSaturation()) * (float) t,
+                        start.getBrightness() + (end.getBrightness() - start.getBrightness()) * (float) t);
+    }
+
+    private static BigDecimal interpolate(BigDecimal start, BigDecimal end, double t) {
+        return start.add(end.subtract(start).multiply(BigDecimal.valueOf(t), MathContext.DECIMAL128));
+    }
+
+    /**
+     * Rounds a shift to a whole number of pixels from the start
+     */
+    private static BigDecimal snap(BigDecimal start, BigDecimal shift, BigDecimal pixelSize) {
+        BigDecimal pixels = shift.subtract(start).divide(pixelSize, 0, RoundingMode.HALF_EVEN);
+        return start.add(pixels.multiply(pixelSize));
+    }
+
+    /**
+     * Works out if a view is another view moved by a whole number of pixels, with some of the image still on screen
+     *
+     * @param previous View of the previous frame
+     * @param view     View of the frame
+     * @return Point, pixel (x, y) of the frame is pixel (x + offset.x, y + offset.y) of the previous frame, or null
+     */
+    static Point getPixelOffset(RenderView previous, RenderView view) {
+        if (!previous.withShift(view.getShiftX(), view.getShiftY()).equals(view)) return null;
+
+        BigDecimal pixelSize = BigDecimal.valueOf(new ViewContext(view).getPixelSize());
+        BigDecimal x = view.getShiftX().subtract(previous.getShiftX()).divide(pixelSize, MathContext.DECIMAL64);
+        BigDecimal y = view.getShiftY().subtract(previous.getShiftY()).divide(pixelSize, MathContext.DECIMAL64);
+        if (x.signum() != 0 && x.stripTrailingZeros().scale() > 0) return null;
+        if (y.signum() != 0 && y.stripTrailingZeros().scale() > 0) return null;
+
+        Point offset = new Point(x.intValue(), y.intValue());
+        if (Math.abs(offset.x) >= view.getWidth() || Math.abs(offset.y) >= view.getHeight()) return null;
+        return offset;
+    }
+
+    /**
+     * Makes a frame by moving the previous frame, and rendering the pixels that were off screen
+     *
+     * @param engine   Engine to render the new pixels with
+     * @param view     View of the frame
+     * @param previous Previous frame
+     * @param offset   Pixel (x, y) of the frame is pixel (x + offset.x, y + offset.y) of the previous frame
+     * @return FractalImage
+     */
+    private static FractalImage shift(RenderEngine engine, RenderView view, FractalImage previous, Point offset) {
+        int width = view.getWidth();
+        int height = view.getHeight();
+        FractalImage image = new FractalImage(width, height, BufferedImage.TYPE_INT_RGB);
+        image.setProperties(view.getImageProperties());
+        image.setColourProperties(view.getColourProperties());
+
+        // Copy the part of the previous frame that is still on screen
+        int left = Math.max(0, -offset.x);
+        int right = Math.min(width, width - offset.x);
+        int top = Math.max(0, -offset.y);
+        int bottom = Math.min(height, height - offset.y);
+        float[] source = previous.getSmoothIterations();
+        float[] destination = image.getSmoothIterations();
+        int[] sourcePixels = previous.getPixels();
+        int[] destinationPixels = image.getPixels();
+        for (int y = top; y < bottom; y++) {
+            System.arraycopy(source, (y + offset.y) * width + left + offset.x, destination, y * width + left, right - left);
+            System.arraycopy(sourcePixels, (y + offset.y) * width + left + offset.x, destinationPixels, y * width + left, right - left);
+        }
+
+        // Render the rows, then the columns, that came on screen, straight into the frame
+        ViewContext context = new ViewContext(view, image);
+        if (top > 0) engine.renderTiles(context, new Rectangle(0, 0, width, top));
+        if (bottom < height) engine.renderTiles(context, new Rectangle(0, bottom, width, height - bottom));
+        if (left > 0) engine.renderTiles(context, new Rectangle(0, top, left, bottom - top));
+        if (right < width) engine.renderTiles(context, new Rectangle(right, top, width - right, bottom - top));
+        return image;
+    }
+}
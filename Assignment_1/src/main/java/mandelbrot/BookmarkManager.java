@@ -136,28 +136,8 @@ public class BookmarkManager {
             Log.Warning("Failed to find bookmarks.json!");
             return;
         }
-        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
-        JSONParser parser = new JSONParser();
-
         try {
-            // Parse JSON file
-            JSONObject root = (JSONObject) parser.parse(reader);
-            JSONArray bookmarkArray = (JSONArray) root.get("bookmarks");
-
-            Iterator jsonIterator = bookmarkArray.iterator();
-            JSONObject bookmark;
-
-            // Loop over bookmarks and create their Bookmark object
-            // Then add then to the HashMap
-            while (jsonIterator.hasNext()) {
-                bookmark = (JSONObject) jsonIterator.next();
-                String name = (String) bookmark.get("name");
-                double real = Double.parseDouble(bookmark.get("real").toString());
-                double imaginary = Double.parseDouble(bookmark.get("imaginary").toString());
-
-                this.bookmarks.put(name, new Bookmark(name, real, imaginary));
-            }
-
+            this.bookmarks.putAll(readBookmarks(new BufferedReader(new InputStreamReader(inputStream))));
         } catch (IOException e) {
             Log.Error(e.getMessage());
         } catch (ParseException e) {
@@ -165,6 +145,38 @@ public class BookmarkManager {
         }
     }
 
+    /**
+     * Reads bookmarks from JSON, in the same format as bookmarks.json
+     *
+     * @param reader Reader to read JSON from
+     * @return Map of bookmark name to bookmark
+     * @throws IOException    if the JSON couldn't be read
+     * @throws ParseException if the JSON isn't valid
+     */
+    public static Map<String, Bookmark> readBookmarks(Reader reader) throws IOException, ParseException {
+        HashMap<String, Bookmark> bookmarks = new HashMap<>();
+        JSONParser parser = new JSONParser();
+
+        // Parse JSON file
+        JSONObject root = (JSONObject) parser.parse(reader);
+        JSONArray bookmarkArray = (JSONArray) root.get("bookmarks");
+
+        Iterator jsonIterator = bookmarkArray.iterator();
+        JSONObject bookmark;
+
+        // Loop over bookmarks and create their Bookmark object
+        // Then add then to the HashMap
+        while (jsonIterator.hasNext()) {
+            bookmark = (JSONObject) jsonIterator.next();
+            String name = (String) bookmark.get("name");
+            double real = Double.parseDouble(bookmark.get("real").toString());
+            double imaginary = Double.parseDouble(bookmark.get("imaginary").toString());
+
+            bookmarks.put(name, new Bookmark(name, real, imaginary));
+        }
+        return bookmarks;
+    }
+
     /**
      * Saves the bookmarks from memory to file
      */
@@ -5,31 +5,89 @@ import utils.ImageColourProperties;
 import utils.ImageProperties;
 import utils.Log;
 
+import java.awt.image.DataBuffer;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 
 /**
- * Manages the Image Cache
+ * Manages the Image Cache.
+ * Images are kept until the cache goes over its size, then the least recently used images are evicted.
+ * Evicted images can optionally be kept as soft references, so they are only lost if the heap runs low.
  *
  * @author Huw Jones
  * @since 03/03/2016
  */
 public class CacheManager {
 
-    private LinkedHashMap<ImageProperties, LinkedHashMap<ImageColourProperties, FractalImage>> imageCache;
+    /**
+     * Default size of the cache, in bytes
+     */
+    public static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+
+    /**
+     * Images in least recently used order
+     */
+    private final LinkedHashMap<CacheKey, FractalImage> imageCache;
+
+    /**
+     * Colours each set of image properties is cached with, so we can find an image to recolour
+     */
+    private final HashMap<ImageProperties, LinkedHashSet<ImageColourProperties>> colourCache;
+
+    /**
+     * Images that have been evicted, but haven't been garbage collected
+     */
+    private final HashMap<CacheKey, SoftImage> spillCache;
+    private final ReferenceQueue<FractalImage> spillQueue;
+
+    private long maxSize;
+    private boolean softSpill = false;
+
+    private long residentSize = 0;
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
 
     public CacheManager(){
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a cache manager
+     *
+     * @param maxSize Maximum size of the cache, in bytes
+     */
+    public CacheManager(long maxSize){
         Log.Information("Loading cache manager...");
-        this.imageCache = new LinkedHashMap<>();
+        this.maxSize = maxSize;
+        this.imageCache = new LinkedHashMap<>(16, 0.75f, true);
+        this.colourCache = new HashMap<>();
+        this.spillCache = new HashMap<>();
+        this.spillQueue = new ReferenceQueue<>();
     }
 
-    public void cacheImage(FractalImage image){
-        if(this.imageCache.containsKey(image.getProperties())){
-            this.imageCache.get(image.getProperties()).put(image.getColourProperties(), image);
-        } else {
-            LinkedHashMap<ImageColourProperties, FractalImage> newImageCache = new LinkedHashMap<>();
-            newImageCache.put(image.getColourProperties(), image);
-            this.imageCache.put(image.getProperties(), newImageCache);
+    public synchronized void cacheImage(FractalImage image){
+        CacheKey key = new CacheKey(image.getProperties(), image.getColourProperties());
+
+        FractalImage previous = this.imageCache.put(key, image);
+        if (previous != null) {
+            this.residentSize -= getSize(previous);
+        }
+        this.spillCache.remove(key);
+        this.residentSize += getSize(image);
+
+        if (!this.colourCache.containsKey(key.properties)) {
+            this.colourCache.put(key.properties, new LinkedHashSet<>());
         }
+        this.colourCache.get(key.properties).add(key.colourProperties);
+
+        this.evict();
     }
 
     /**
@@ -38,9 +96,9 @@ public class CacheManager {
      * @param properties Properties of image to check
      * @return True if image is cached
      */
-    public boolean isCached(ImageProperties properties){
-        //return false;
-        return this.imageCache.containsKey(properties);
+    public synchronized boolean isCached(ImageProperties properties){
+        this.expungeSpill();
+        return this.colourCache.containsKey(properties);
     }
 
     /**
@@ -49,19 +107,298 @@ public class CacheManager {
      * @param properties Properties of image to check
      * @return True if image is cached
      */
-    public boolean isCached(ImageProperties properties, ImageColourProperties colourProperties){
-        //return false;
+    public synchronized boolean isCached(ImageProperties properties, ImageColourProperties colourProperties){
+        this.expungeSpill();
         if(!this.isCached(properties)){
             return false;
         }
-        return this.imageCache.get(properties).containsKey(colourProperties);
+        return this.colourCache.get(properties).contains(colourProperties);
+    }
+
+    /**
+     * Finds an image with the properties, in any colour, to recolour.
+     * This is only tried after the exact lookup has missed, and that has already counted the render, so it isn't
+     * counted as a hit or a miss.
+     *
+     * @param properties Properties of image
+     * @return FractalImage, or null if the image isn't cached
+     */
+    public synchronized FractalImage findRecolourSource(ImageProperties properties){
+        this.expungeSpill();
+        if (this.colourCache.containsKey(properties)) {
+            // Copy the colours, as looking them up can remove them
+            for (ImageColourProperties colourProperties : new ArrayList<>(this.colourCache.get(properties))) {
+                FractalImage image = this.lookup(new CacheKey(properties, colourProperties));
+                if (image != null) {
+                    return image;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets an image with the properties and colour properties
+     *
+     * @param properties       Properties of image
+     * @param colourProperties Colour properties of image
+     * @return FractalImage, or null if the image isn't cached
+     */
+    public synchronized FractalImage getImage(ImageProperties properties, ImageColourProperties colourProperties){
+        this.expungeSpill();
+        FractalImage image = this.lookup(new CacheKey(properties, colourProperties));
+        if (image != null) {
+            this.hitCount++;
+        } else {
+            this.missCount++;
+        }
+        return image;
+    }
+
+    /**
+     * Returns whether an image is held by the cache, either resident or spilled, so it mustn't be changed
+     *
+     * @param image Image to check
+     * @return true if the cache holds this image
+     */
+    public synchronized boolean contains(FractalImage image) {
+        for (FractalImage cached : this.imageCache.values()) {
+            if (cached == image) return true;
+        }
+        for (SoftImage softImage : this.spillCache.values()) {
+            if (softImage.get() == image) return true;
+        }
+        return false;
     }
 
-    public FractalImage getImage(ImageProperties properties){
-        return this.imageCache.get(properties).entrySet().iterator().next().getValue();
+    /**
+     * Looks up an image, bringing it back from the spill cache if it was evicted
+     *
+     * @param key Key of image
+     * @return FractalImage, or null if the image isn't cached
+     */
+    private FractalImage lookup(CacheKey key) {
+        FractalImage image = this.imageCache.get(key);
+        if (image != null) return image;
+
+        SoftImage softImage = this.spillCache.remove(key);
+        if (softImage == null) return null;
+
+        image = softImage.get();
+        if (image == null) {
+            this.removeColour(key);
+            return null;
+        }
+
+        // Image is being used again, so make it resident
+        this.imageCache.put(key, image);
+        this.residentSize += getSize(image);
+        this.evict();
+
+        // It may have been evicted straight away if it's bigger than the cache, but we still have it
+        return image;
     }
 
-    public FractalImage getImage(ImageProperties properties, ImageColourProperties colourProperties){
-        return this.imageCache.get(properties).get(colourProperties);
+    /**
+     * Evicts the least recently used images until the cache is within its size
+     */
+    private void evict() {
+        Iterator<Map.Entry<CacheKey, FractalImage>> iterator = this.imageCache.entrySet().iterator();
+        int evicted = 0;
+
+        while (this.residentSize > this.maxSize && iterator.hasNext()) {
+            Map.Entry<CacheKey, FractalImage> entry = iterator.next();
+            iterator.remove();
+            this.residentSize -= getSize(entry.getValue());
+            this.evictionCount++;
+            evicted++;
+
+            if (this.softSpill) {
+                this.spillCache.put(entry.getKey(), new SoftImage(entry.getKey(), entry.getValue(), this.spillQueue));
+            } else {
+                this.removeColour(entry.getKey());
+            }
+        }
+
+        if (evicted != 0) {
+            Log.Information("Evicted " + evicted + " image(s) from cache. " + this.toString());
+        }
+    }
+
+    /**
+     * Removes spilled images that have been garbage collected
+     */
+    private void expungeSpill() {
+        SoftImage softImage;
+        while ((softImage = (SoftImage) this.spillQueue.poll()) != null) {
+            if (this.spillCache.get(softImage.key) == softImage) {
+                this.spillCache.remove(softImage.key);
+                this.removeColour(softImage.key);
+            }
+        }
+    }
+
+    /**
+     * Removes a colour from the colours an image is cached with
+     *
+     * @param key Key of image
+     */
+    private void removeColour(CacheKey key) {
+        LinkedHashSet<ImageColourProperties> colours = this.colourCache.get(key.properties);
+        if (colours == null) return;
+        colours.remove(key.colourProperties);
+        if (colours.isEmpty()) {
+            this.colourCache.remove(key.properties);
+        }
+    }
+
+    /**
+     * Gets the number of bytes an image takes up
+     *
+     * @param image Image to size
+     * @return long, size in bytes
+     */
+    private static long getSize(FractalImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        long rasterSize = (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+        return rasterSize + (long) image.getSmoothIterations().length * Float.BYTES;
+    }
+
+    //region Get/Set Methods
+
+    /**
+     * Sets the maximum size of the cache, evicting images if it is now over
+     *
+     * @param maxSize Maximum size, in bytes
+     */
+    public synchronized void setMaxSize(long maxSize) {
+        if (this.maxSize == maxSize) return;
+        this.maxSize = maxSize;
+        this.evict();
+    }
+
+    /**
+     * Gets the maximum size of the cache
+     *
+     * @return long, maximum size in bytes
+     */
+    public synchronized long getMaxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * Sets whether evicted images are kept as soft references
+     *
+     * @param softSpill true to keep evicted images until the garbage collector needs the memory
+     */
+    public synchronized void setSoftSpill(boolean softSpill) {
+        if (this.softSpill == softSpill) return;
+        this.softSpill = softSpill;
+        if (!softSpill) {
+            for (CacheKey key : this.spillCache.keySet()) {
+                this.removeColour(key);
+            }
+            this.spillCache.clear();
+        }
+    }
+
+    /**
+     * Gets the number of bytes used by resident images (excludes spilled images)
+     *
+     * @return long, size in bytes
+     */
+    public synchronized long getResidentSize() {
+        return this.residentSize;
+    }
+
+    /**
+     * Gets the number of images resident in the cache
+     *
+     * @return int, number of images
+     */
+    public synchronized int getResidentCount() {
+        return this.imageCache.size();
+    }
+
+    /**
+     * Gets the number of evicted images that are still held by soft references
+     *
+     * @return int, number of images
+     */
+    public synchronized int getSpillCount() {
+        this.expungeSpill();
+        return this.spillCache.size();
+    }
+
+    /**
+     * Gets the number of lookups that found an image
+     *
+     * @return long, number of hits
+     */
+    public synchronized long getHitCount() {
+        return this.hitCount;
+    }
+
+    /**
+     * Gets the number of lookups that didn't find an image
+     *
+     * @return long, number of misses
+     */
+    public synchronized long getMissCount() {
+        return this.missCount;
+    }
+
+    /**
+     * Gets the number of images that have been evicted
+     *
+     * @return long, number of evictions
+     */
+    public synchronized long getEvictionCount() {
+        return this.evictionCount;
+    }
+    //endregion
+
+    @Override
+    public synchronized String toString() {
+        return "Cache: " + this.imageCache.size() + " image(s), " + (this.residentSize / 1024) + "/" + (this.maxSize / 1024) + " KiB"
+                + ", Spilled: " + this.spillCache.size()
+                + ", Hits: " + this.hitCount + ", Misses: " + this.missCount + ", Evictions: " + this.evictionCount;
+    }
+
+    /**
+     * Key of an image in the cache
+     */
+    private static class CacheKey {
+        private final ImageProperties properties;
+        private final ImageColourProperties colourProperties;
+
+        CacheKey(ImageProperties properties, ImageColourProperties colourProperties) {
+            this.properties = properties;
+            this.colourProperties = colourProperties;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.properties.hashCode() * 31 + this.colourProperties.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof CacheKey)) return false;
+            CacheKey k = (CacheKey) obj;
+            return this.properties.equals(k.properties) && this.colourProperties.equals(k.colourProperties);
+        }
+    }
+
+    /**
+     * Soft reference to an evicted image, that remembers its key so it can be removed once collected
+     */
+    private static class SoftImage extends SoftReference<FractalImage> {
+        private final CacheKey key;
+
+        SoftImage(CacheKey key, FractalImage image, ReferenceQueue<FractalImage> queue) {
+            super(image, queue);
+            this.key = key;
+        }
     }
 }
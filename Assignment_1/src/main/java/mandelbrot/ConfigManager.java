@@ -2,6 +2,9 @@ package mandelbrot;
 
 import mandelbrot.events.AdvancedChangeAdapter;
 import mandelbrot.events.ConfigChangeListener;
+import mandelbrot.formula.Formula;
+import mandelbrot.render.Fractal;
+import mandelbrot.render.Precision;
 import utils.Complex;
 import utils.JSliderAdvanced;
 import utils.Log;
@@ -15,7 +18,10 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
 
 /**
  * Manages Config
@@ -39,12 +45,19 @@ public class ConfigManager {
     private double rangeY = 4.0;
 
     private String fractal = "Mandelbrot";
+    private Formula formula = Formula.parse("z^3 + c");
     private double escapeRadiusSquared = 9;
     private int iterations = 100;
     private double scaleFactor = 1.0;
     private double xShift = 0;
     private double yShift = 0;
 
+    /**
+     * Exact shifts, the double shifts run out of precision when zoomed in far enough
+     */
+    private BigDecimal preciseShiftX = BigDecimal.ZERO;
+    private BigDecimal preciseShiftY = BigDecimal.ZERO;
+
     private float hue = 0f;
     private float saturation = 1f;
     private float brightness = 1f;
@@ -53,7 +66,22 @@ public class ConfigManager {
     private boolean useOpenCL = true;
     private boolean useOpenCLDouble = false;
     private boolean isCacheDisabled = true;
+    private int cacheSize = 256;
+    private boolean cacheSoftSpill = false;
+    private boolean useDiskCache = false;
+    private int diskCacheSize = 1024;
     private boolean zoomAnimationEnabled = false;
+    private int tileSize = 0;
+    private boolean progressiveRender = false;
+    private boolean deepZoom = true;
+    private Precision precision = null;
+    private boolean bulbCheck = true;
+    private boolean periodicityCheck = true;
+    private boolean subdivision = false;
+    private boolean verifySubdivision = false;
+    private final EnumSet<Fractal> laneKernels = EnumSet.noneOf(Fractal.class);
+    private boolean autoIterations = false;
+    private boolean showStatistics = false;
 
     Complex selectedPoint;
     //endregion
@@ -72,6 +100,9 @@ public class ConfigManager {
 
     private JLabel label_scale;
     private JSpinner spinner_scale;
+
+    private JLabel label_formula;
+    private JTextField text_formula;
     //endregion
     //region Colouring
     private JLabel label_hue;
@@ -99,9 +130,55 @@ public class ConfigManager {
     private JLabel label_disableCache;
     private JCheckBox check_disableCache;
 
+    private JLabel label_cacheSize;
+    private JSpinner spinner_cacheSize;
+
+    private JLabel label_cacheSoftSpill;
+    private JCheckBox check_cacheSoftSpill;
+
+    private JLabel label_diskCache;
+    private JCheckBox check_diskCache;
+
+    private JLabel label_diskCacheSize;
+    private JSpinner spinner_diskCacheSize;
+
     private JLabel label_zoomAnimation;
     private JCheckBox check_zoomAnimation;
 
+    private JLabel label_tileSize;
+    private JComboBox<String> combo_tileSize;
+
+    private JLabel label_progressive;
+    private JCheckBox check_progressive;
+
+    private JLabel label_deepZoom;
+    private JCheckBox check_deepZoom;
+
+    private JLabel label_precision;
+    private JComboBox<String> combo_precision;
+
+    private JLabel label_bulbCheck;
+    private JCheckBox check_bulbCheck;
+
+    private JLabel label_periodicityCheck;
+    private JCheckBox check_periodicityCheck;
+
+    private JLabel label_subdivision;
+    private JCheckBox check_subdivision;
+
+    private JLabel label_verifySubdivision;
+    private JCheckBox check_verifySubdivision;
+
+    private final EnumMap<Fractal, JCheckBox> check_laneKernels = new EnumMap<>(Fractal.class);
+
+    private JLabel label_autoIterations;
+    private JCheckBox check_autoIterations;
+    private JLabel label_chosenIterations;
+    private JTextField text_chosenIterations;
+
+    private JLabel label_showStatistics;
+    private JCheckBox check_showStatistics;
+
     //endregion
     //region Singlets
     private JButton btn_render;
@@ -167,7 +244,7 @@ public class ConfigManager {
         this.label_scale = new JLabel("Scale:", JLabel.TRAILING);
         this.panel_controls.add(this.label_scale);
 
-        this.spinner_scale = new JSpinner(new SpinnerNumberModel(1, 0, Integer.MAX_VALUE, 0.1d));
+        this.spinner_scale = new JSpinner(new SpinnerNumberModel(1, 0, Double.MAX_VALUE, 0.1d));
         this.spinner_scale.addChangeListener(new optionChangeHandler());
         this.panel_controls.add(this.spinner_scale);
 
@@ -187,7 +264,16 @@ public class ConfigManager {
         this.spinner_shiftY.addChangeListener(new optionChangeHandler());
         this.panel_controls.add(this.spinner_shiftY);
 
-        SpringUtilities.makeCompactGrid(this.panel_controls, 5, 2, 6, 6, 6, 6);
+        // Formula
+        this.label_formula = new JLabel("Formula:", JLabel.TRAILING);
+        this.panel_controls.add(this.label_formula);
+
+        this.text_formula = new JTextField(this.formula.toString());
+        this.text_formula.setToolTipText("Custom Formula, in z and c, e.g. z^3 + c");
+        this.text_formula.addActionListener(new formulaHandler());
+        this.panel_controls.add(this.text_formula);
+
+        SpringUtilities.makeCompactGrid(this.panel_controls, 6, 2, 6, 6, 6, 6);
         this.tabbedPane.addTab("Controls", this.panel_controls);
     }
 
@@ -275,6 +361,40 @@ public class ConfigManager {
         this.check_disableCache.addChangeListener(new checkChangeHanlder());
         this.panel_advanced.add(this.check_disableCache);
 
+        // Cache Size
+        this.label_cacheSize = new JLabel("Cache Size (MB):", JLabel.TRAILING);
+        this.panel_advanced.add(this.label_cacheSize);
+
+        this.spinner_cacheSize = new JSpinner(new SpinnerNumberModel(cacheSize, 16, 8192, 16));
+        this.spinner_cacheSize.addChangeListener(new optionChangeHandler());
+        this.panel_advanced.add(this.spinner_cacheSize);
+
+        // Keep evicted images as soft references
+        this.label_cacheSoftSpill = new JLabel("Soft Cache Overflow:", JLabel.TRAILING);
+        this.panel_advanced.add(this.label_cacheSoftSpill);
+
+        this.check_cacheSoftSpill = new JCheckBox();
+        this.check_cacheSoftSpill.setSelected(cacheSoftSpill);
+        this.check_cacheSoftSpill.addChangeListener(new checkChangeHanlder());
+        this.panel_advanced.add(this.check_cacheSoftSpill);
+
+        // Use Disk Cache
+        this.label_diskCache = new JLabel("Use Disk Cache:", JLabel.TRAILING);
+        this.panel_advanced.add(this.label_diskCache);
+
+        this.check_diskCache = new JCheckBox();
+        this.check_diskCache.setSelected(useDiskCache);
+        this.check_diskCache.addChangeListener(new checkChangeHanlder());
+        this.panel_advanced.add(this.check_diskCache);
+
+        // Disk Cache Size
+        this.label_diskCacheSize = new JLabel("Disk Cache Size (MB):", JLabel.TRAILING);
+        this.panel_advanced.add(this.label_diskCacheSize);
+
+        this.spinner_diskCacheSize = new JSpinner(new SpinnerNumberModel(diskCacheSize, 64, 65536, 64));
+        this.spinner_diskCacheSize.addChangeListener(new optionChangeHandler());
+        this.panel_advanced.add(this.spinner_diskCacheSize);
+
         // Enable Zoom Animations
         this.label_zoomAnimation = new JLabel("Enable Zoom Animation:", JLabel.TRAILING);
         this.panel_advanced.add(this.label_zoomAnimation);
@@ -284,10 +404,129 @@ public class ConfigManager {
         this.check_zoomAnimation.addChangeListener(new checkChangeHanlder());
         this.panel_advanced.add(this.check_zoomAnimation);
 
-        SpringUtilities.makeCompactGrid(this.panel_advanced, 6, 2, 6, 6, 6, 6);
+        // Tile Size
+        this.label_tileSize = new JLabel("Tile Size:", JLabel.TRAILING);
+        this.panel_advanced.add(this.label_tileSize);
+
+        this.combo_tileSize = new JComboBox<>(new String[]{"Auto", "16", "32", "64", "128", "256"});
+        this.combo_tileSize.addActionListener(new tileSizeHandler());
+        this.panel_advanced.add(this.combo_tileSize);
+
+        // Progressive Rendering
+        this.label_progressive = new JLabel("Progressive Render:", JLabel.TRAILING);
+        this.panel_advanced.add(this.label_progressive);
+
+        this.check_progressive = new JCheckBox();
+        this.check_progressive.setSelected(progressiveRender);
+        this.check_progressive.addChangeListener(new checkChangeHanlder());
+        this.panel_advanced.add(this.check_progressive);
+
+        // Deep Zoom
+        this.label_deepZoom = new JLabel("Deep Zoom (Perturbation):", JLabel.TRAILING);
+        this.panel_advanced.add(this.label_deepZoom);
+
+        this.check_deepZoom = new JCheckBox();
+        this.check_deepZoom.setSelected(deepZoom);
+        this.check_deepZoom.addChangeListener(new checkChangeHanlder());
+        this.panel_advanced.add(this.check_deepZoom);
+
+        // Precision
+        this.label_precision = new JLabel("Precision:", JLabel.TRAILING);
+        this.panel_advanced.add(this.label_precision);
+
+        this.combo_precision = new JComboBox<>(new String[]{"Auto", Precision.FLOAT.toString(), Precision.DOUBLE.toString(), Precision.DOUBLE_DOUBLE.toString()});
+        this.combo_precision.addActionListener(new precisionHandler());
+        this.panel_advanced.add(this.combo_precision);
+
+        // Cardioid/Bulb Check
+        this.label_bulbCheck = new JLabel("Skip Cardioid/Bulb:", JLabel.TRAILING);
+        this.panel_advanced.add(this.label_bulbCheck);
+
+        this.check_bulbCheck = new JCheckBox();
+        this.check_bulbCheck.setSelected(bulbCheck);
+        this.check_bulbCheck.addChangeListener(new checkChangeHanlder());
+        this.panel_advanced.add(this.check_bulbCheck);
+
+        // Periodicity Check
+        this.label_periodicityCheck = new JLabel("Periodicity Check:", JLabel.TRAILING);
+        this.panel_advanced.add(this.label_periodicityCheck);
+
+        this.check_periodicityCheck = new JCheckBox();
+        this.check_periodicityCheck.setSelected(periodicityCheck);
+        this.check_periodicityCheck.addChangeListener(new checkChangeHanlder());
+        this.panel_advanced.add(this.check_periodicityCheck);
+
+        // Subdivision Render
+        this.label_subdivision = new JLabel("Subdivision Render:", JLabel.TRAILING);
+        this.panel_advanced.add(this.label_subdivision);
+
+        this.check_subdivision = new JCheckBox();
+        this.check_subdivision.setSelected(subdivision);
+        this.check_subdivision.addChangeListener(new checkChangeHanlder());
+        this.panel_advanced.add(this.check_subdivision);
+
+        // Verify Subdivision
+        this.label_verifySubdivision = new JLabel("Verify Subdivision:", JLabel.TRAILING);
+        this.panel_advanced.add(this.label_verifySubdivision);
+
+        this.check_verifySubdivision = new JCheckBox();
+        this.check_verifySubdivision.setSelected(verifySubdivision);
+        this.check_verifySubdivision.addChangeListener(new checkChangeHanlder());
+        this.panel_advanced.add(this.check_verifySubdivision);
+
+        // Lane Kernels, each fractal's kernel is chosen separately
+        this.addLaneKernel(Fractal.MANDELBROT, "Mandelbrot Lane Kernel:");
+        this.addLaneKernel(Fractal.JULIA, "Julia Lane Kernel:");
+        this.addLaneKernel(Fractal.BURNING_SHIP, "Burning Ship Lane Kernel:");
+
+        // Auto Iterations
+        this.label_autoIterations = new JLabel("Auto Iterations:", JLabel.TRAILING);
+        this.panel_advanced.add(this.label_autoIterations);
+
+        this.check_autoIterations = new JCheckBox();
+        this.check_autoIterations.setSelected(autoIterations);
+        this.check_autoIterations.setToolTipText("Choose the number of iterations from a quick pre-pass of the image");
+        this.check_autoIterations.addChangeListener(new checkChangeHanlder());
+        this.panel_advanced.add(this.check_autoIterations);
+
+        // Chosen Iterations
+        this.label_chosenIterations = new JLabel("Chosen Iterations:", JLabel.TRAILING);
+        this.panel_advanced.add(this.label_chosenIterations);
+
+        this.text_chosenIterations = new JTextField("-");
+        this.text_chosenIterations.setEditable(false);
+        this.text_chosenIterations.setToolTipText("Number of iterations the last render was chosen to use");
+        this.panel_advanced.add(this.text_chosenIterations);
+
+        // Render Statistics
+        this.label_showStatistics = new JLabel("Render Statistics:", JLabel.TRAILING);
+        this.panel_advanced.add(this.label_showStatistics);
+
+        this.check_showStatistics = new JCheckBox();
+        this.check_showStatistics.setSelected(showStatistics);
+        this.check_showStatistics.addChangeListener(new checkChangeHanlder());
+        this.panel_advanced.add(this.check_showStatistics);
+
+        SpringUtilities.makeCompactGrid(this.panel_advanced, 24, 2, 6, 6, 6, 6);
         this.tabbedPane.addTab("Advanced", this.panel_advanced);
     }
 
+    /**
+     * Adds the lane kernel checkbox of a fractal to the advanced panel
+     *
+     * @param fractal Fractal the checkbox chooses the kernel of
+     * @param label   Text of the label
+     */
+    private void addLaneKernel (Fractal fractal, String label) {
+        this.panel_advanced.add(new JLabel(label, JLabel.TRAILING));
+
+        JCheckBox check = new JCheckBox();
+        check.setSelected(this.laneKernels.contains(fractal));
+        check.addChangeListener(new checkChangeHanlder());
+        this.check_laneKernels.put(fractal, check);
+        this.panel_advanced.add(check);
+    }
+
     private void initSingletComponents () {
         GridBagConstraints constraints = new GridBagConstraints();
         constraints.fill = GridBagConstraints.HORIZONTAL;
@@ -410,6 +649,23 @@ public class ConfigManager {
      */
     public String getFractal () { return this.fractal; }
 
+    /**
+     * Gets the formula the Custom Formula fractal renders
+     *
+     * @return Formula
+     */
+    public Formula getFormula () { return this.formula; }
+
+    /**
+     * Sets the formula the Custom Formula fractal renders
+     *
+     * @param formula Formula to render
+     */
+    public void setFormula (Formula formula) {
+        this.formula = formula;
+        this.text_formula.setText(formula.toString());
+    }
+
     /**
      * Gets the config panel
      *
@@ -436,6 +692,7 @@ public class ConfigManager {
      */
     public void setShiftX (double xShift, boolean triggerEvent) {
         this.xShift = xShift;
+        this.preciseShiftX = new BigDecimal(xShift);
         this.spinner_shiftX.setValue(xShift);
         if (triggerEvent) {
             this.xShiftChange();
@@ -459,12 +716,52 @@ public class ConfigManager {
      */
     public void setShiftY (double yShift, boolean triggerEvent) {
         this.yShift = yShift;
+        this.preciseShiftY = new BigDecimal(yShift);
         this.spinner_shiftY.setValue(yShift);
         if (triggerEvent) {
             this.yShiftChange();
         }
     }
 
+    /**
+     * Gets the exact shift in the x axis
+     *
+     * @return x shift
+     */
+    public BigDecimal getPreciseShiftX () {
+        return this.preciseShiftX;
+    }
+
+    /**
+     * Gets the exact shift in the y axis
+     *
+     * @return y shift
+     */
+    public BigDecimal getPreciseShiftY () {
+        return this.preciseShiftY;
+    }
+
+    /**
+     * Sets the exact shift, for deep zooms where a double isn't precise enough
+     *
+     * @param xShift       New x shift
+     * @param yShift       New y shift
+     * @param triggerEvent Trigger the xShiftChange and yShiftChange events
+     */
+    public void setShift (BigDecimal xShift, BigDecimal yShift, boolean triggerEvent) {
+        // Set the doubles first, so the spinners don't overwrite the exact shift
+        this.xShift = xShift.doubleValue();
+        this.yShift = yShift.doubleValue();
+        this.preciseShiftX = xShift;
+        this.preciseShiftY = yShift;
+        this.spinner_shiftX.setValue(this.xShift);
+        this.spinner_shiftY.setValue(this.yShift);
+        if (triggerEvent) {
+            this.xShiftChange();
+            this.yShiftChange();
+        }
+    }
+
     /**
      * Gets number of iterations
      *
@@ -474,6 +771,20 @@ public class ConfigManager {
         return this.iterations;
     }
 
+    /**
+     * Sets the number of iterations
+     *
+     * @param iterations   new number of iterations
+     * @param triggerEvent Trigger the iterationChange event
+     */
+    public void setIterations (int iterations, boolean triggerEvent) {
+        this.iterations = iterations;
+        this.spinner_iterations.setValue(iterations);
+        if (triggerEvent) {
+            this.iterationChange();
+        }
+    }
+
     /**
      * Gets the scale factor
      *
@@ -614,12 +925,243 @@ public class ConfigManager {
         return this.isCacheDisabled;
     }
 
+    /**
+     * Gets the maximum size of the image cache
+     *
+     * @return long, size in bytes
+     */
+    public long getCacheSize () {
+        return this.cacheSize * 1024L * 1024L;
+    }
+
+    /**
+     * Returns true if images evicted from the cache should be kept until memory runs low
+     *
+     * @return boolean
+     */
+    public boolean isCacheSoftSpill () {
+        return this.cacheSoftSpill;
+    }
+
+    /**
+     * Returns true if rendered images should be stored on disk
+     *
+     * @return boolean
+     */
+    public boolean useDiskCache () {
+        return this.useDiskCache;
+    }
+
+    /**
+     * Gets the maximum size of the disk cache
+     *
+     * @return long, size in bytes
+     */
+    public long getDiskCacheSize () {
+        return this.diskCacheSize * 1024L * 1024L;
+    }
+
     /**
      * Returns true if the zoom is to be animated
      *
      * @return boolean
      */
     public boolean isAnimateZoom () {return this.zoomAnimationEnabled; }
+
+    /**
+     * Returns true if renders should be displayed coarse to fine
+     *
+     * @return boolean
+     */
+    public boolean isProgressiveRender () { return this.progressiveRender; }
+
+    /**
+     * Returns true if deep zooms should be rendered using perturbation
+     *
+     * @return boolean
+     */
+    public boolean useDeepZoom () { return this.deepZoom; }
+
+    /**
+     * Sets whether deep zooms should be rendered using perturbation
+     *
+     * @param deepZoom true to use perturbation
+     */
+    public void setDeepZoom (boolean deepZoom) {
+        this.deepZoom = deepZoom;
+        this.check_deepZoom.setSelected(deepZoom);
+    }
+
+    /**
+     * Returns true if points in the main cardioid and period 2 bulb should be skipped
+     *
+     * @return boolean
+     */
+    public boolean useBulbCheck () { return this.bulbCheck; }
+
+    /**
+     * Sets whether points in the main cardioid and period 2 bulb should be skipped
+     *
+     * @param bulbCheck true to skip them
+     */
+    public void setBulbCheck (boolean bulbCheck) {
+        this.bulbCheck = bulbCheck;
+        this.check_bulbCheck.setSelected(bulbCheck);
+    }
+
+    /**
+     * Returns true if orbits should be checked for cycles
+     *
+     * @return boolean
+     */
+    public boolean usePeriodicityCheck () { return this.periodicityCheck; }
+
+    /**
+     * Sets whether orbits should be checked for cycles
+     *
+     * @param periodicityCheck true to check for cycles
+     */
+    public void setPeriodicityCheck (boolean periodicityCheck) {
+        this.periodicityCheck = periodicityCheck;
+        this.check_periodicityCheck.setSelected(periodicityCheck);
+    }
+
+    /**
+     * Returns true if tiles should be rendered by subdividing them, and filling areas with a uniform border
+     *
+     * @return boolean
+     */
+    public boolean useSubdivision () { return this.subdivision; }
+
+    /**
+     * Sets whether tiles should be rendered by subdividing them
+     *
+     * @param subdivision true to subdivide
+     */
+    public void setSubdivision (boolean subdivision) {
+        this.subdivision = subdivision;
+        this.check_subdivision.setSelected(subdivision);
+    }
+
+    /**
+     * Returns true if subdivided renders should be compared against a full render, and the differences logged
+     *
+     * @return boolean
+     */
+    public boolean verifySubdivision () { return this.verifySubdivision; }
+
+    /**
+     * Sets whether subdivided renders should be compared against a full render
+     *
+     * @param verifySubdivision true to verify
+     */
+    public void setVerifySubdivision (boolean verifySubdivision) {
+        this.verifySubdivision = verifySubdivision;
+        this.check_verifySubdivision.setSelected(verifySubdivision);
+    }
+
+    /**
+     * Returns true if the CPU should render a fractal with the lane kernel, which iterates several pixels at once
+     *
+     * @param fractal Fractal to render
+     * @return boolean
+     */
+    public boolean useLaneKernel (Fractal fractal) { return this.laneKernels.contains(fractal); }
+
+    /**
+     * Sets whether the CPU should render a fractal with the lane kernel
+     *
+     * @param fractal    Fractal to render
+     * @param laneKernel true to use the lane kernel
+     */
+    public void setLaneKernel (Fractal fractal, boolean laneKernel) {
+        if (laneKernel) {
+            this.laneKernels.add(fractal);
+        } else {
+            this.laneKernels.remove(fractal);
+        }
+        this.check_laneKernels.get(fractal).setSelected(laneKernel);
+    }
+
+    /**
+     * Returns true if the number of iterations should be chosen by a pre-pass, rather than the iterations spinner
+     *
+     * @return boolean
+     */
+    public boolean useAutoIterations () { return this.autoIterations; }
+
+    /**
+     * Sets whether the number of iterations should be chosen by a pre-pass.
+     * The iterations spinner is disabled whilst they are, but keeps its value, which is used if the pre-pass fails.
+     *
+     * @param autoIterations true to choose the number of iterations automatically
+     */
+    public void setAutoIterations (boolean autoIterations) {
+        this.autoIterations = autoIterations;
+        this.check_autoIterations.setSelected(autoIterations);
+        this.spinner_iterations.setEnabled(!autoIterations);
+        if (!autoIterations) this.setChosenIterations(-1);
+    }
+
+    /**
+     * Shows the number of iterations the pre-pass chose for the last render
+     *
+     * @param iterations Number of iterations, or -1 if none were chosen
+     */
+    public void setChosenIterations (int iterations) {
+        this.text_chosenIterations.setText(iterations == -1 ? "-" : Integer.toString(iterations));
+    }
+
+    /**
+     * Returns true if the statistics of the last render should be drawn over the image
+     *
+     * @return boolean
+     */
+    public boolean showStatistics () { return this.showStatistics; }
+
+    /**
+     * Sets whether the statistics of the last render should be drawn over the image
+     *
+     * @param showStatistics true to show statistics
+     */
+    public void setShowStatistics (boolean showStatistics) {
+        this.showStatistics = showStatistics;
+        this.check_showStatistics.setSelected(showStatistics);
+    }
+
+    /**
+     * Gets the precision to render at, null if it is selected from the zoom depth
+     *
+     * @return precision
+     */
+    public Precision getPrecision () { return this.precision; }
+
+    /**
+     * Sets the precision to render at, null to select it from the zoom depth
+     *
+     * @param precision new precision
+     */
+    public void setPrecision (Precision precision) {
+        this.precision = precision;
+        this.combo_precision.setSelectedItem(precision == null ? "Auto" : precision.toString());
+    }
+
+    /**
+     * Gets the size of render tiles in pixels, 0 if tiles are sized automatically
+     *
+     * @return tile size
+     */
+    public int getTileSize () { return this.tileSize; }
+
+    /**
+     * Sets the size of render tiles in pixels, 0 to size tiles automatically
+     *
+     * @param tileSize new tile size
+     */
+    public void setTileSize (int tileSize) {
+        this.tileSize = tileSize;
+        this.combo_tileSize.setSelectedItem(tileSize == 0 ? "Auto" : String.valueOf(tileSize));
+    }
     //endregion
 
     //region Event Handlers
@@ -636,6 +1178,29 @@ public class ConfigManager {
         }
     }
 
+    /**
+     * Invoked when tile size changes
+     */
+    private class tileSizeHandler implements ActionListener {
+
+        @Override
+        public void actionPerformed (ActionEvent e) {
+            String size = (String) ConfigManager.this.combo_tileSize.getSelectedItem();
+            ConfigManager.this.tileSize = "Auto".equals(size) ? 0 : Integer.parseInt(size);
+        }
+    }
+
+    /**
+     * Invoked when precision changes
+     */
+    private class precisionHandler implements ActionListener {
+
+        @Override
+        public void actionPerformed (ActionEvent e) {
+            ConfigManager.this.precision = Precision.fromName((String) ConfigManager.this.combo_precision.getSelectedItem());
+        }
+    }
+
     /**
      * Invoked when btn_render is activated
      */
@@ -648,6 +1213,35 @@ public class ConfigManager {
         }
     }
 
+    /**
+     * Invoked when the formula is entered, the formula isn't changed if it doesn't parse
+     */
+    private class formulaHandler implements ActionListener {
+
+        @Override
+        public void actionPerformed (ActionEvent e) {
+            JTextField text = ConfigManager.this.text_formula;
+            Formula formula;
+            try {
+                formula = Formula.parse(text.getText());
+            } catch (IllegalArgumentException ex) {
+                text.setForeground(Color.RED);
+                text.setToolTipText(ex.getMessage());
+                Log.Warning("Invalid formula: " + ex.getMessage());
+                return;
+            }
+            text.setForeground(UIManager.getColor("TextField.foreground"));
+            text.setToolTipText("Custom Formula, in z and c, e.g. z^3 + c");
+            text.setText(formula.toString());
+            if (formula.equals(ConfigManager.this.formula)) return;
+
+            ConfigManager.this.formula = formula;
+            if (ConfigManager.this.fractal.equals("Custom Formula")) {
+                ConfigManager.this.mainWindow.renderMainPanel();
+            }
+        }
+    }
+
     /**
      * Invoked when btn_reset is activated
      */
@@ -690,10 +1284,12 @@ public class ConfigManager {
             } else if (spinner == ConfigManager.this.spinner_shiftX) {
                 if (ConfigManager.this.xShift == (double) ConfigManager.this.spinner_shiftX.getValue()) return;
                 ConfigManager.this.xShift = (double) ConfigManager.this.spinner_shiftX.getValue();
+                ConfigManager.this.preciseShiftX = new BigDecimal(ConfigManager.this.xShift);
                 ConfigManager.this.xShiftChange();
             } else if (spinner == ConfigManager.this.spinner_shiftY) {
                 if (ConfigManager.this.yShift == (double) ConfigManager.this.spinner_shiftY.getValue()) return;
                 ConfigManager.this.yShift = (double) ConfigManager.this.spinner_shiftY.getValue();
+                ConfigManager.this.preciseShiftY = new BigDecimal(ConfigManager.this.yShift);
                 ConfigManager.this.yShiftChange();
             } else if (spinner == ConfigManager.this.spinner_escapeRadius) {
 
@@ -702,6 +1298,11 @@ public class ConfigManager {
                 if (ConfigManager.this.escapeRadiusSquared == escapeRadius * escapeRadius) return;
                 ConfigManager.this.escapeRadiusSquared = escapeRadius * escapeRadius;
                 ConfigManager.this.escapeRadiusChanged();
+            } else if (spinner == ConfigManager.this.spinner_cacheSize) {
+                ConfigManager.this.cacheSize = (int) ConfigManager.this.spinner_cacheSize.getValue();
+            } else if (spinner == ConfigManager.this.spinner_diskCacheSize) {
+                ConfigManager.this.diskCacheSize = (int) ConfigManager.this.spinner_diskCacheSize.getValue();
+                ConfigManager.this.mainWindow.getDiskCacheManager().setMaxSize(ConfigManager.this.getDiskCacheSize());
             }
         }
     }
@@ -735,6 +1336,38 @@ public class ConfigManager {
                 ConfigManager.this.displayJuliaMoveCursor = check.isSelected();
             } else if (check == ConfigManager.this.check_zoomAnimation) {
                 ConfigManager.this.zoomAnimationEnabled = check.isSelected();
+            } else if (check == ConfigManager.this.check_cacheSoftSpill) {
+                ConfigManager.this.cacheSoftSpill = check.isSelected();
+            } else if (check == ConfigManager.this.check_diskCache) {
+                ConfigManager.this.useDiskCache = check.isSelected();
+            } else if (check == ConfigManager.this.check_progressive) {
+                ConfigManager.this.progressiveRender = check.isSelected();
+            } else if (check == ConfigManager.this.check_deepZoom) {
+                ConfigManager.this.deepZoom = check.isSelected();
+            } else if (check == ConfigManager.this.check_bulbCheck) {
+                ConfigManager.this.bulbCheck = check.isSelected();
+            } else if (check == ConfigManager.this.check_periodicityCheck) {
+                ConfigManager.this.periodicityCheck = check.isSelected();
+            } else if (check == ConfigManager.this.check_subdivision) {
+                ConfigManager.this.subdivision = check.isSelected();
+            } else if (check == ConfigManager.this.check_verifySubdivision) {
+                ConfigManager.this.verifySubdivision = check.isSelected();
+            } else if (ConfigManager.this.check_laneKernels.containsValue(check)) {
+                for (Fractal fractal : ConfigManager.this.check_laneKernels.keySet()) {
+                    if (ConfigManager.this.check_laneKernels.get(fractal) != check) continue;
+                    if (check.isSelected()) {
+                        ConfigManager.this.laneKernels.add(fractal);
+                    } else {
+                        ConfigManager.this.laneKernels.remove(fractal);
+                    }
+                }
+            } else if (check == ConfigManager.this.check_autoIterations) {
+                ConfigManager.this.autoIterations = check.isSelected();
+                ConfigManager.this.spinner_iterations.setEnabled(!check.isSelected());
+                if (!check.isSelected()) ConfigManager.this.setChosenIterations(-1);
+            } else if (check == ConfigManager.this.check_showStatistics) {
+                ConfigManager.this.showStatistics = check.isSelected();
+                ConfigManager.this.mainWindow.updateStatistics();
             }
         }
     }
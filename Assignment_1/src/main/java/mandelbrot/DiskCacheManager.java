@@ -0,0 +1,413 @@
+package mandelbrot;
+
+import mandelbrot.render.Precision;
+import utils.Complex;
+import utils.FractalImage;
+import utils.ImageProperties;
+import utils.Log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Manages the on disk image cache.
+ * Images are stored as their smooth iteration counts, so they can be loaded in any colour.
+ * Files are named by a digest of everything that affects the render, and the least recently used files are
+ * deleted when the cache goes over its size.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public class DiskCacheManager {
+
+    /**
+     * "FRAC", so we don't load files that aren't ours
+     */
+    private static final int MAGIC = 0x46524143;
+
+    /**
+     * Increment if the file format, or the way images are rendered changes
+     */
+    private static final int VERSION = 2;
+
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+    private static final String EXTENSION = ".frac";
+
+    private final Path directory;
+
+    /**
+     * Files in the cache, in least recently used order, with their sizes
+     */
+    private final LinkedHashMap<String, Long> files;
+
+    private final ExecutorService writer;
+
+    /**
+     * Smooth iteration counts that are waiting to be written, by identity
+     */
+    private final Set<float[]> writing = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Names of files that are waiting to be written, guarded by files
+     */
+    private final Set<String> pending = new HashSet<>();
+
+    private long maxSize;
+    private long size = 0;
+    private boolean available = true;
+
+    /**
+     * Creates a disk cache manager
+     *
+     * @param directory Directory to store the cache in
+     * @param maxSize   Maximum size of the cache, in bytes
+     */
+    public DiskCacheManager(Path directory, long maxSize) {
+        Log.Information("Loading disk cache manager...");
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.files = new LinkedHashMap<>(16, 0.75f, true);
+
+        // Write files in the background, so rendering isn't held up by the disk
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "Disk_Cache_Writer");
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            Files.createDirectories(directory);
+            this.loadIndex();
+            Log.Information("Disk cache: " + this.files.size() + " image(s), " + (this.size / 1024) + " KiB in " + directory);
+        } catch (IOException e) {
+            Log.Warning("Disk cache unavailable, could not open " + directory + ".\n" + e.getMessage());
+            this.available = false;
+        }
+    }
+
+    /**
+     * Gets the default directory for the cache
+     *
+     * @return Path, ~/.fractal-explorer/cache
+     */
+    public static Path getDefaultDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".fractal-explorer", "cache");
+    }
+
+    /**
+     * Builds the index of files in the cache, oldest first
+     *
+     * @throws IOException if the directory couldn't be read
+     */
+    private void loadIndex() throws IOException {
+        // Remove any files that were being written when we last exited
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory, "*" + EXTENSION + ".tmp")) {
+            for (Path path : stream) {
+                Files.deleteIfExists(path);
+            }
+        }
+
+        ArrayList<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory, "*" + EXTENSION)) {
+            for (Path path : stream) {
+                paths.add(path);
+            }
+        }
+        paths.sort((a, b) -> Long.compare(a.toFile().lastModified(), b.toFile().lastModified()));
+
+        synchronized (this.files) {
+            for (Path path : paths) {
+                long fileSize = path.toFile().length();
+                this.files.put(path.getFileName().toString(), fileSize);
+                this.size += fileSize;
+            }
+        }
+    }
+
+    /**
+     * Gets the key of an image.
+     * This is a SHA-256 digest of the fractal and everything that changes how it renders.
+     *
+     * @param fractal             Name of fractal
+     * @param properties          Properties of image, including the Julia constant if there is one
+     * @param escapeRadiusSquared Escape radius squared
+     * @param precision           Precision the image is rendered at
+     * @return String, hex digest
+     */
+    public static String getKey(String fractal, ImageProperties properties, double escapeRadiusSquared, Precision precision) {
+        // Version, width, height, iterations and precision, the scale, shifts and escape radius, then the Julia constant
+        Complex complex = properties.getComplex();
+        int size = 5 * Integer.BYTES + 4 * Double.BYTES + (complex != null ? 2 * Double.BYTES : 0);
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(VERSION);
+        buffer.putInt(properties.getWidth());
+        buffer.putInt(properties.getHeight());
+        buffer.putInt(properties.getIterations());
+        buffer.putDouble(properties.getScale());
+        buffer.putDouble(properties.getxShift());
+        buffer.putDouble(properties.getyShift());
+        buffer.putDouble(escapeRadiusSquared);
+        buffer.putInt(precision.ordinal());
+        if (complex != null) {
+            buffer.putDouble(complex.getReal());
+            buffer.putDouble(complex.getImaginary());
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(fractal.getBytes(StandardCharsets.UTF_8));
+            digest.update(buffer.array(), 0, buffer.position());
+
+            // Deep images have the same double shift, so the exact shift has to be part of the key too
+            if (properties.getPreciseXShift() != null) {
+                digest.update(properties.getPreciseXShift().toString().getBytes(StandardCharsets.UTF_8));
+                digest.update(properties.getPreciseYShift().toString().getBytes(StandardCharsets.UTF_8));
+            }
+            if (properties.getFormula() != null) {
+                digest.update(properties.getFormula().getBytes(StandardCharsets.UTF_8));
+            }
+
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest()) {
+                key.append(String.format("%02x", b));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Loads the smooth iteration counts of an image from the cache
+     *
+     * @param key   Key of image
+     * @param image Image to load the smooth iteration counts into
+     * @return true if the image was in the cache
+     */
+    public boolean read(String key, FractalImage image) {
+        if (!this.available) return false;
+
+        String fileName = key + EXTENSION;
+        synchronized (this.files) {
+            if (this.files.get(fileName) == null) return false;
+        }
+
+        Path path = this.directory.resolve(fileName);
+        boolean valid;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            valid = read(channel, image);
+            if (valid) {
+                // Mark as recently used, so it survives restarts
+                Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            } else {
+                Log.Warning("Disk cache file " + fileName + " is invalid, deleting it.");
+            }
+        } catch (IOException e) {
+            Log.Warning("Failed to read " + fileName + " from disk cache.\n" + e.getMessage());
+            valid = false;
+        }
+
+        // Only delete once the file is closed and no longer mapped, Windows can't delete a mapped file
+        if (!valid) {
+            this.delete(fileName);
+        }
+        return valid;
+    }
+
+    /**
+     * Maps a cache file, and copies its smooth iteration counts into an image.
+     * The mapping goes out of scope when this returns, so the file can be deleted afterwards.
+     *
+     * @param channel Channel of the file
+     * @param image   Image to load the smooth iteration counts into
+     * @return true if the file is valid, and was the right size for the image
+     * @throws IOException if the file couldn't be mapped
+     */
+    private static boolean read(FileChannel channel, FractalImage image) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.remaining() < HEADER_SIZE
+                || buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                || buffer.getInt() != image.getWidth() || buffer.getInt() != image.getHeight()
+                || buffer.remaining() != image.getSmoothIterations().length * Float.BYTES) {
+            return false;
+        }
+        buffer.asFloatBuffer().get(image.getSmoothIterations());
+        return true;
+    }
+
+    /**
+     * Writes the smooth iteration counts of an image to the cache, in the background
+     *
+     * @param key   Key of image
+     * @param image Image to write
+     */
+    public void write(String key, FractalImage image) {
+        if (!this.available) return;
+
+        String fileName = key + EXTENSION;
+        synchronized (this.files) {
+            // Each file is only written, and added to the size, once
+            if (this.files.containsKey(fileName) || !this.pending.add(fileName)) return;
+        }
+
+        int width = image.getWidth();
+        int height = image.getHeight();
+        float[] smoothIterations = image.getSmoothIterations();
+
+        // The image's smooth iteration counts are read in the background, so it can't be reused until they've been written
+        synchronized (this.writing) {
+            this.writing.add(smoothIterations);
+        }
+        this.writer.submit(() -> {
+            try {
+                long fileSize = HEADER_SIZE + (long) smoothIterations.length * Float.BYTES;
+                Path path = this.directory.resolve(fileName);
+                Path temp = this.directory.resolve(fileName + ".tmp");
+
+                try {
+                    // Written from a buffer rather than mapped, as a mapped file can't be moved on Windows
+                    ByteBuffer buffer = ByteBuffer.allocate((int) fileSize).order(ByteOrder.LITTLE_ENDIAN);
+                    buffer.putInt(MAGIC);
+                    buffer.putInt(VERSION);
+                    buffer.putInt(width);
+                    buffer.putInt(height);
+                    buffer.asFloatBuffer().put(smoothIterations);
+                    Files.write(temp, buffer.array());
+
+                    // Move into place so a half written file is never read
+                    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    Log.Warning("Failed to write " + fileName + " to disk cache.\n" + e.getMessage());
+                    try {
+                        Files.deleteIfExists(temp);
+                    } catch (IOException ignored) {
+                    }
+                    return;
+                }
+
+                synchronized (this.files) {
+                    this.files.put(fileName, fileSize);
+                    this.size += fileSize;
+                    this.evict();
+                }
+            } finally {
+                synchronized (this.files) {
+                    this.pending.remove(fileName);
+                }
+                synchronized (this.writing) {
+                    this.writing.remove(smoothIterations);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns whether an image is waiting to be written, it mustn't be changed until it has been
+     *
+     * @param image Image to check
+     * @return true if the image's smooth iteration counts are still to be written
+     */
+    public boolean isWriting(FractalImage image) {
+        synchronized (this.writing) {
+            return this.writing.contains(image.getSmoothIterations());
+        }
+    }
+
+    /**
+     * Deletes the least recently used files until the cache is within its size
+     */
+    private void evict() {
+        synchronized (this.files) {
+            Iterator<Map.Entry<String, Long>> iterator = this.files.entrySet().iterator();
+            while (this.size > this.maxSize && iterator.hasNext()) {
+                Map.Entry<String, Long> entry = iterator.next();
+                iterator.remove();
+                this.size -= entry.getValue();
+                try {
+                    Files.deleteIfExists(this.directory.resolve(entry.getKey()));
+                } catch (IOException e) {
+                    Log.Warning("Failed to delete " + entry.getKey() + " from disk cache.\n" + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes a file from the cache
+     *
+     * @param fileName Name of file
+     */
+    private void delete(String fileName) {
+        synchronized (this.files) {
+            Long fileSize = this.files.remove(fileName);
+            if (fileSize != null) this.size -= fileSize;
+        }
+        try {
+            Files.deleteIfExists(this.directory.resolve(fileName));
+        } catch (IOException e) {
+            Log.Warning("Failed to delete " + fileName + " from disk cache.\n" + e.getMessage());
+        }
+    }
+
+    /**
+     * Sets the maximum size of the cache, deleting files if it is now over
+     *
+     * @param maxSize Maximum size, in bytes
+     */
+    public void setMaxSize(long maxSize) {
+        synchronized (this.files) {
+            if (this.maxSize == maxSize) return;
+            this.maxSize = maxSize;
+            this.evict();
+        }
+    }
+
+    /**
+     * Gets the number of bytes used by the cache
+     *
+     * @return long, size in bytes
+     */
+    public long getSize() {
+        synchronized (this.files) {
+            return this.size;
+        }
+    }
+
+    /**
+     * Gets the number of images in the cache
+     *
+     * @return int, number of images
+     */
+    public int getCount() {
+        synchronized (this.files) {
+            return this.files.size();
+        }
+    }
+}
@@ -3,8 +3,9 @@ package mandelbrot;
 
 import mandelbrot.events.AdvancedComponentAdapter;
 import mandelbrot.events.ConfigChangeAdapter;
-import mandelbrot.events.RenderListener;
+import mandelbrot.events.RenderAdapter;
 import mandelbrot.management.*;
+import mandelbrot.metrics.RenderStatistics;
 import utils.*;
 
 import javax.swing.*;
@@ -27,6 +28,7 @@ public class Main extends JFrameAdvanced {
     // Managers
     private ConfigManager config;
     private BookmarkManager bookmarks;
+    private DiskCacheManager diskCache;
 
     //region Main Panels
     private JPanel panel_display;
@@ -41,6 +43,12 @@ public class Main extends JFrameAdvanced {
     public final MandelbrotRenderManagementThread mandelbrotRenderer;
     public final JuliaRenderManagementThread juliaRenderer;
     public final BurningShipManagementThread burningShipRenderer;
+    public final FormulaManagementThread formulaRenderer;
+
+    /**
+     * True whilst the selected point is being set by the cursor moving, so the julia set is previewed
+     */
+    private boolean previewJulia = false;
 
     // Image Panels
     private ImagePanel imgPanel_image;
@@ -80,6 +88,7 @@ public class Main extends JFrameAdvanced {
 
         this.config.addFractal("Mandelbrot");
         this.config.addFractal("Burning Ship");
+        this.config.addFractal("Custom Formula");
         this.config.setFractal("Mandelbrot");
 
         // If OpenCL features aren't available, disable them
@@ -87,6 +96,7 @@ public class Main extends JFrameAdvanced {
         if(!this.openClThread.useDouble()) this.config.disableOpenCL_double();
 
         this.bookmarks = new BookmarkManager(this);
+        this.diskCache = new DiskCacheManager(DiskCacheManager.getDefaultDirectory(), this.config.getDiskCacheSize());
 
         // Create GUI
         this.initComponents();
@@ -100,6 +110,10 @@ public class Main extends JFrameAdvanced {
         this.burningShipRenderer.addRenderListener(new renderCompleteHandler());
         this.burningShipRenderer.start();
 
+        this.formulaRenderer = new FormulaManagementThread(this, this.openClThread, this.imgPanel_image);
+        this.formulaRenderer.addRenderListener(new renderCompleteHandler());
+        this.formulaRenderer.start();
+
         this.juliaRenderer = new JuliaRenderManagementThread(this, this.openClThread, this.imgPanel_julia);
         this.juliaRenderer.start();
 
@@ -111,6 +125,10 @@ public class Main extends JFrameAdvanced {
         return this.config;
     }
 
+    public DiskCacheManager getDiskCacheManager(){
+        return this.diskCache;
+    }
+
     //region Initialise Components
 
     private void initComponents(){
@@ -239,6 +257,9 @@ public class Main extends JFrameAdvanced {
             case "Burning Ship":
                 t = this.burningShipRenderer;
                 break;
+            case "Custom Formula":
+                t = this.formulaRenderer;
+                break;
             default:
                 throw new IllegalStateException();
         }
@@ -260,6 +281,23 @@ public class Main extends JFrameAdvanced {
         this.text_yRange.setText(String.format("%."+ decimalPlaces +"f to %."+ decimalPlaces +"f", minimum.getImaginary(), maximum.getImaginary()));
     }
 
+    /**
+     * Shows the number of iterations chosen for the last render, if they were chosen automatically.
+     * The iterations spinner keeps the number set by the user.
+     */
+    protected void updateIterations() {
+        if (!this.config.useAutoIterations()) return;
+        this.config.setChosenIterations(this.getCurrentFractal().getIterations());
+    }
+
+    /**
+     * Draws the statistics of the last render over the image if they are enabled, otherwise removes them
+     */
+    protected void updateStatistics() {
+        RenderStatistics statistics = this.config.showStatistics() ? this.getCurrentFractal().getStatistics() : null;
+        this.imgPanel_image.setOverlay(statistics == null ? null : statistics.getSummary());
+    }
+
     protected void updateSelection() {
         //If selected point is null (not set), then display a -, otherwise display the complex
         String text = "-";
@@ -332,7 +370,8 @@ public class Main extends JFrameAdvanced {
         public void fractalChange(String fractal) {
             if (
                     Main.this.mandelbrotRenderer == null ||
-                            Main.this.burningShipRenderer == null
+                            Main.this.burningShipRenderer == null ||
+                            Main.this.formulaRenderer == null
             ) return;
             Main.this.renderMainPanel();
         }
@@ -372,17 +411,23 @@ public class Main extends JFrameAdvanced {
 
         @Override
         public void selectedPointChange(Complex complex) {
-            Main.this.renderJulia();
+            if (Main.this.previewJulia) {
+                Main.this.juliaRenderer.preview();
+            } else {
+                Main.this.renderJulia();
+            }
         }
     }
 
     /**
      * Invoked when the render has completed
      */
-    private class renderCompleteHandler implements RenderListener {
+    private class renderCompleteHandler extends RenderAdapter {
         @Override
         public void renderComplete() {
             Main.this.updateRangeDisplay();
+            Main.this.updateIterations();
+            Main.this.updateStatistics();
         }
     }
 
@@ -422,7 +467,13 @@ public class Main extends JFrameAdvanced {
             // Render julia set if we are rendering when the cursor moves
             if(Main.this.config.juliaDisplayOnMove()) {
                 if (Main.this.mandelbrotRenderer.hasRendered()) {
-                    Main.this.config.setSelectedPoint(Main.this.mandelbrotRenderer.getComplexFromPoint(e.getPoint()));
+                    // Preview whilst the cursor moves, the julia set is rendered in full when it stops
+                    Main.this.previewJulia = true;
+                    try {
+                        Main.this.config.setSelectedPoint(Main.this.mandelbrotRenderer.getComplexFromPoint(e.getPoint()));
+                    } finally {
+                        Main.this.previewJulia = false;
+                    }
                 }
                 Main.this.updateSelection();
             }
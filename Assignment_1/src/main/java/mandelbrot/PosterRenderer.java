@@ -0,0 +1,239 @@
+package mandelbrot;
+
+import mandelbrot.management.RenderEngine;
+import mandelbrot.render.RenderView;
+import utils.ImageSegment;
+import utils.Log;
+import utils.PngWriter;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Renders images too big to hold in memory, such as posters, straight to a PNG.
+ * <p>
+ * The image is rendered in bands of rows, each band is split into tiles and rendered on every core whilst the previous
+ * band is compressed. Compressed bands are kept in a parts directory next to the output, so if the render is stopped
+ * it carries on from the last band that was finished. Once every band is done they are joined into the PNG.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public class PosterRenderer {
+
+    /**
+     * Pixels to render in a band, this bounds the memory used. Each pixel of a band in flight needs about 12 bytes.
+     */
+    static final int BAND_PIXELS = 1 << 23;
+
+    private static final String MANIFEST = "poster.properties";
+
+    private final RenderView view;
+    private final File output;
+    private final File partsDirectory;
+    private final int bandHeight;
+    private final int bands;
+
+    /**
+     * Creates a poster renderer
+     *
+     * @param view   View to render
+     * @param output PNG to write
+     */
+    public PosterRenderer(RenderView view, File output) {
+        this.view = view;
+        this.output = output;
+        this.partsDirectory = new File(output.getPath() + ".parts");
+        this.bandHeight = Math.max(1, Math.min(view.getHeight(), BAND_PIXELS / view.getWidth()));
+        this.bands = (view.getHeight() + this.bandHeight - 1) / this.bandHeight;
+    }
+
+    /**
+     * Renders the poster, carrying on from a previous attempt if there was one
+     *
+     * @param engine Engine to render with
+     * @throws IOException          if the parts or the output couldn't be written, or the parts belong to a different render
+     * @throws ExecutionException   if a band failed to render
+     * @throws InterruptedException if interrupted whilst waiting for a band
+     */
+    public void render(RenderEngine engine) throws IOException, ExecutionException, InterruptedException {
+        Log.Information("Rendering poster: " + this.view + ", in " + this.bands + " band(s) of " + this.bandHeight + " row(s).");
+        this.checkManifest();
+
+        // Render the next band whilst compressing the last one
+        long startTime = System.nanoTime();
+        int rendered = 0;
+        int remaining = 0;
+        for (int band = 0; band < this.bands; band++) {
+            if (!this.getPart(band).exists()) remaining++;
+        }
+        if (remaining != this.bands) {
+            Log.Information("Resuming, " + (this.bands - remaining) + " band(s) were already rendered.");
+        }
+
+        int band = this.nextBand(0);
+        Future<List<ImageSegment>> next = band == -1 ? null : engine.render(this.view, this.getBandRegion(band));
+        int[] pixels = new int[this.view.getWidth() * this.bandHeight];
+        while (next != null) {
+            List<ImageSegment> segments = next.get();
+            int current = band;
+            band = this.nextBand(band + 1);
+            next = band == -1 ? null : engine.render(this.view, this.getBandRegion(band));
+
+            this.writePart(current, segments, pixels);
+
+            rendered++;
+            long elapsed = System.nanoTime() - startTime;
+            long eta = elapsed / rendered * (remaining - rendered);
+            Log.Information(String.format("Band %d of %d done, %.0fs elapsed, about %.0fs left.", current + 1, this.bands, elapsed / 1e9, eta / 1e9));
+        }
+
+        this.writePng();
+    }
+
+    /**
+     * Gets the index of the next band that hasn't been rendered
+     *
+     * @param from Band to start looking from
+     * @return int, band index, or -1 if they have all been rendered
+     */
+    private int nextBand(int from) {
+        for (int band = from; band < this.bands; band++) {
+            if (!this.getPart(band).exists()) return band;
+        }
+        return -1;
+    }
+
+    private Rectangle getBandRegion(int band) {
+        int y = band * this.bandHeight;
+        return new Rectangle(0, y, this.view.getWidth(), Math.min(this.bandHeight, this.view.getHeight() - y));
+    }
+
+    private File getPart(int band) {
+        return new File(this.partsDirectory, String.format("band-%05d.part", band));
+    }
+
+    /**
+     * Makes sure the parts directory belongs to this render, so a different poster isn't stitched into it
+     *
+     * @throws IOException if the parts belong to a different render, or the manifest couldn't be written
+     */
+    private void checkManifest() throws IOException {
+        Properties manifest = new Properties();
+        manifest.setProperty("fractal", this.view.getFractal().toString());
+        manifest.setProperty("width", String.valueOf(this.view.getWidth()));
+        manifest.setProperty("height", String.valueOf(this.view.getHeight()));
+        manifest.setProperty("iterations", String.valueOf(this.view.getIterations()));
+        manifest.setProperty("scale", String.valueOf(this.view.getScale()));
+        manifest.setProperty("xShift", this.view.getShiftX().toString());
+        manifest.setProperty("yShift", this.view.getShiftY().toString());
+        manifest.setProperty("complex", this.view.getComplex().getReal() + "," + this.view.getComplex().getImaginary());
+        manifest.setProperty("colour", this.view.getColourProperties().toString());
+        manifest.setProperty("escapeRadiusSquared", String.valueOf(this.view.getEscapeRadiusSquared()));
+        manifest.setProperty("precision", String.valueOf(this.view.getPrecision()));
+        manifest.setProperty("bandHeight", String.valueOf(this.bandHeight));
+
+        File file = new File(this.partsDirectory, MANIFEST);
+        if (file.exists()) {
+            Properties previous = new Properties();
+            try (InputStream in = new FileInputStream(file)) {
+                previous.load(in);
+            }
+            if (!previous.equals(manifest)) {
+                throw new IOException("'" + this.partsDirectory + "' has parts of a different render, delete it to start again.");
+            }
+            return;
+        }
+
+        if (!this.partsDirectory.isDirectory() && !this.partsDirectory.mkdirs()) {
+            throw new IOException("Failed to create '" + this.partsDirectory + "'.");
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            manifest.store(out, "Poster render, parts are only used if these match");
+        }
+    }
+
+    /**
+     * Puts a rendered band together, compresses it and writes it to its part file.
+     * The part is written to a temporary file first, so a part file is only ever complete.
+     *
+     * @param band     Band index
+     * @param segments Tiles of the band
+     * @param pixels   Buffer to put the band together in
+     * @throws IOException if the part couldn't be written
+     */
+    private void writePart(int band, List<ImageSegment> segments, int[] pixels) throws IOException {
+        Rectangle region = this.getBandRegion(band);
+        int width = region.width;
+        for (ImageSegment segment : segments) {
+            BufferedImage image = segment.getImage();
+            int[] segmentPixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            int x = (int) segment.getBounds().getX();
+            int y = (int) segment.getBounds().getY() - region.y;
+            int rows = Math.min(image.getHeight(), region.height - y);
+            int columns = Math.min(image.getWidth(), width - x);
+            for (int row = 0; row < rows; row++) {
+                System.arraycopy(segmentPixels, row * image.getWidth(), pixels, (y + row) * width + x, columns);
+            }
+        }
+
+        // Compressed bands are far smaller than the pixels, so hold it until the checksum is known
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        long adler = PngWriter.compressBand(pixels, width, region.height, compressed);
+
+        File part = this.getPart(band);
+        File temporary = new File(part.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))) {
+            out.writeInt((int) adler);
+            compressed.writeTo(out);
+        }
+        Files.move(temporary.toPath(), part.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Joins the parts into the PNG, then deletes them
+     *
+     * @throws IOException if the parts couldn't be read, or the PNG couldn't be written
+     */
+    private void writePng() throws IOException {
+        Log.Information("Writing " + this.output + "...");
+        File temporary = new File(this.output.getPath() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temporary))) {
+            PngWriter writer = new PngWriter(out, this.view.getWidth(), this.view.getHeight());
+            for (int band = 0; band < this.bands; band++) {
+                Rectangle region = this.getBandRegion(band);
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(this.getPart(band))))) {
+                    long adler = in.readInt() & 0xFFFFFFFFL;
+                    writer.writeBand(in, adler, (long) region.height * (region.width * 3 + 1));
+                }
+            }
+            writer.finish();
+        }
+        Files.move(temporary.toPath(), this.output.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        for (int band = 0; band < this.bands; band++) {
+            Files.delete(this.getPart(band).toPath());
+        }
+        Files.delete(new File(this.partsDirectory, MANIFEST).toPath());
+        Files.delete(this.partsDirectory.toPath());
+        Log.Information("Poster written to " + this.output + ".");
+    }
+}
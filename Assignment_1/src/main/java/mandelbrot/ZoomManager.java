@@ -1,6 +1,6 @@
 package mandelbrot;
 
-import utils.Complex;
+import mandelbrot.management.RenderManagementThread;
 import utils.ImagePanel;
 
 import javax.swing.*;
@@ -9,6 +9,8 @@ import java.awt.event.MouseEvent;
 import java.awt.event.MouseMotionListener;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.math.BigDecimal;
+import java.math.MathContext;
 
 /**
  * Zoom Manager
@@ -58,16 +60,14 @@ public class ZoomManager extends MouseAdapter implements MouseMotionListener {
         double x1 = this.rectangle2D.getMinX(), y1 = this.rectangle2D.getMinY();
         double x2 = this.rectangle2D.getMaxX(), y2 = this.rectangle2D.getMaxY();
 
-        // Get top left/bottom right complex coordinates
-        Complex new1 = this.getComplex(x1, y1);
-        Complex new2 = this.getComplex(x2, y2);
+        RenderManagementThread fractal = this.mainWindow.getCurrentFractal();
 
-        // Get new image scale
-        double newScale = this.config.getRangeX() / (new2.getReal() - new1.getReal());
+        // Get new image scale, from the distance between the corners so it's still accurate when deeply zoomed
+        double newScale = this.config.getRangeX() / (fractal.getOffsetReal(x2) - fractal.getOffsetReal(x1));
 
-        // Get new midpoints
-        double newShiftX = (new2.getReal() + new1.getReal()) / 2d;
-        double newShiftY = (new2.getImaginary() + new1.getImaginary()) / 2d;
+        // Get new midpoints, exactly, as doubles run out of precision on deep zooms
+        BigDecimal newShiftX = fractal.getPreciseReal((x1 + x2) / 2d);
+        BigDecimal newShiftY = fractal.getPreciseImaginary((y1 + y2) / 2d);
 
         AnimationRunner runner = new AnimationRunner(newScale, newShiftX, newShiftY);
 
@@ -139,24 +139,13 @@ public class ZoomManager extends MouseAdapter implements MouseMotionListener {
         return new Rectangle2D.Double(x, y, width, height);
     }
 
-    /**
-     * Gets the complex position from the relative render thread
-     *
-     * @param x x coord
-     * @param y y coord
-     * @return new complex
-     */
-    private Complex getComplex(double x, double y) {
-        return this.mainWindow.getCurrentFractal().getComplexFromPoint(x, y);
-    }
-
     private class AnimationRunner extends Thread{
 
         private double newScale;
-        private double newShiftX;
-        private double newShiftY;
+        private BigDecimal newShiftX;
+        private BigDecimal newShiftY;
 
-        public AnimationRunner(double newScale, double newShiftX, double newShiftY){
+        public AnimationRunner(double newScale, BigDecimal newShiftX, BigDecimal newShiftY){
             super("Zoom_Animation_Runner");
             this.newScale = newScale;
             this.newShiftX = newShiftX;
@@ -170,33 +159,35 @@ public class ZoomManager extends MouseAdapter implements MouseMotionListener {
                 double startScale = ZoomManager.this.config.getScaleFactor();
                 double deltaScale = ( newScale - startScale ) / numberOfSteps;
 
-                double startShiftX = ZoomManager.this.config.getShiftX();
-                double deltaShiftX = ( newShiftX - startShiftX ) / numberOfSteps;
+                BigDecimal steps = BigDecimal.valueOf(numberOfSteps);
+                BigDecimal startShiftX = ZoomManager.this.config.getPreciseShiftX();
+                BigDecimal deltaShiftX = newShiftX.subtract(startShiftX).divide(steps, MathContext.DECIMAL64);
 
-                double startShiftY = ZoomManager.this.config.getShiftY();
-                double deltaShiftY = ( newShiftY - startShiftY ) / numberOfSteps;
+                BigDecimal startShiftY = ZoomManager.this.config.getPreciseShiftY();
+                BigDecimal deltaShiftY = newShiftY.subtract(startShiftY).divide(steps, MathContext.DECIMAL64);
 
                 for (int s = 0; s < 60; s++) {
                     // Set config options after we're done
                     // Set config options, but don't trigger events (prevents multiple renders)
                     ZoomManager.this.config.setScaleFactor(startScale + s * deltaScale, false);
-                    ZoomManager.this.config.setShiftX(startShiftX + s * deltaShiftX, false);
-                    ZoomManager.this.config.setShiftY(startShiftY + s * deltaShiftY, false);
+                    BigDecimal step = BigDecimal.valueOf(s);
+                    ZoomManager.this.config.setShift(startShiftX.add(deltaShiftX.multiply(step)), startShiftY.add(deltaShiftY.multiply(step)), false);
 
                     ZoomManager.this.mainWindow.renderMainPanel();
-               /* try {
-                    Thread.sleep(16);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }*/
+
+                    // Requests are coalesced, so pace the frames or only the last one would be drawn
+                    try {
+                        Thread.sleep(16);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
                 }
                 return;
             }
 
             // Set config options after we're done
             // Set config options, but don't trigger events (prevents multiple renders)
-            ZoomManager.this.config.setShiftX(this.newShiftX, false);
-            ZoomManager.this.config.setShiftY(this.newShiftY, false);
+            ZoomManager.this.config.setShift(this.newShiftX, this.newShiftY, false);
             ZoomManager.this.config.setScaleFactor(this.newScale, false);
 
             // Clear zoom flags
@@ -0,0 +1,18 @@
+package mandelbrot.events;
+
+/**
+ * Adapter for RenderListener
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public class RenderAdapter implements RenderListener {
+
+    @Override
+    public void renderPassComplete(int pass, int passes, long elapsedTime) {
+    }
+
+    @Override
+    public void renderComplete() {
+    }
+}
@@ -8,5 +8,15 @@ package mandelbrot.events;
  */
 public interface RenderListener {
 
+    /**
+     * Invoked when a pass of a render has been painted to the image panel.
+     * Non-progressive renders have a single pass.
+     *
+     * @param pass        Pass number, starting at 1
+     * @param passes      Total number of passes in the render
+     * @param elapsedTime Time since the render started, in nanoseconds
+     */
+    void renderPassComplete(int pass, int passes, long elapsedTime);
+
     void renderComplete();
 }
@@ -0,0 +1,362 @@
+package mandelbrot.formula;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes a class file with a constructor and a single method, just enough for FormulaCompiler.
+ * The class file is version 49 (Java 5), so it is verified by type inference and doesn't need stack map frames.
+ * See <a href="https://docs.oracle.com/javase/specs/jvms/se8/html/jvms-4.html">The class File Format</a>
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+final class ClassFileWriter {
+
+    //region Opcodes
+    static final int ICONST_0 = 0x03;
+    static final int ICONST_1 = 0x04;
+    static final int DCONST_0 = 0x0e;
+    static final int DCONST_1 = 0x0f;
+    static final int LDC2_W = 0x14;
+    static final int ILOAD = 0x15;
+    static final int DLOAD = 0x18;
+    static final int ALOAD = 0x19;
+    static final int ALOAD_0 = 0x2a;
+    static final int ISTORE = 0x36;
+    static final int DSTORE = 0x39;
+    static final int DASTORE = 0x52;
+    static final int DADD = 0x63;
+    static final int DSUB = 0x67;
+    static final int DMUL = 0x6b;
+    static final int DDIV = 0x6f;
+    static final int DNEG = 0x77;
+    static final int IINC = 0x84;
+    static final int DCMPG = 0x98;
+    static final int IFGT = 0x9d;
+    static final int IF_ICMPGE = 0xa2;
+    static final int GOTO = 0xa7;
+    static final int IRETURN = 0xac;
+    static final int RETURN = 0xb1;
+    static final int INVOKESPECIAL = 0xb7;
+    static final int INVOKESTATIC = 0xb8;
+    //endregion
+
+    private static final int CLASS_VERSION = 49;
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    //region Constant Pool
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private final ByteArrayOutputStream constantPoolBytes = new ByteArrayOutputStream();
+    private final DataOutputStream constantPool = new DataOutputStream(this.constantPoolBytes);
+    private final Map<String, Integer> constants = new HashMap<>();
+    private int constantCount = 1;
+    //endregion
+
+    //region Code
+    private final ByteArrayOutputStream codeBytes = new ByteArrayOutputStream();
+    private int stack;
+    private int maxStack;
+    //endregion
+
+    private final String name;
+    private final String superName;
+
+    /**
+     * Creates a class file writer
+     *
+     * @param name      Internal name of the class, e.g. mandelbrot/formula/Formula$1
+     * @param superName Internal name of the super class, which must have a no argument constructor
+     */
+    ClassFileWriter(String name, String superName) {
+        this.name = name;
+        this.superName = superName;
+    }
+
+    //region Constants
+    private int utf8(String value) {
+        return this.constant("U" + value, CONSTANT_UTF8, out -> out.writeUTF(value), 1);
+    }
+
+    private int classRef(String internalName) {
+        int nameIndex = this.utf8(internalName);
+        return this.constant("C" + internalName, CONSTANT_CLASS, out -> out.writeShort(nameIndex), 1);
+    }
+
+    private int methodRef(String owner, String name, String descriptor) {
+        int ownerIndex = this.classRef(owner);
+        int nameIndex = this.utf8(name);
+        int descriptorIndex = this.utf8(descriptor);
+        int nameAndType = this.constant("N" + name + descriptor, CONSTANT_NAME_AND_TYPE, out -> {
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+        }, 1);
+        return this.constant("M" + owner + "." + name + descriptor, CONSTANT_METHODREF, out -> {
+            out.writeShort(ownerIndex);
+            out.writeShort(nameAndType);
+        }, 1);
+    }
+
+    private int doubleConstant(double value) {
+        // Keyed on the bits, so 0.0 and -0.0 are different constants
+        long bits = Double.doubleToRawLongBits(value);
+        return this.constant("D" + bits, CONSTANT_DOUBLE, out -> out.writeLong(bits), 2);
+    }
+
+    /**
+     * Adds a constant to the pool, unless there is one already
+     *
+     * @param key   Unique key of constant
+     * @param tag   Constant type
+     * @param body  Writes the constant after its tag
+     * @param slots Number of pool entries it takes, doubles take two
+     * @return int, index of constant
+     */
+    private int constant(String key, int tag, ConstantBody body, int slots) {
+        Integer index = this.constants.get(key);
+        if (index != null) return index;
+
+        try {
+            this.constantPool.writeByte(tag);
+            body.write(this.constantPool);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        index = this.constantCount;
+        this.constantCount += slots;
+        this.constants.put(key, index);
+        return index;
+    }
+
+    private interface ConstantBody {
+        void write(DataOutputStream out) throws IOException;
+    }
+    //endregion
+
+    //region Code
+    /**
+     * Gets the offset of the next instruction
+     *
+     * @return int, offset
+     */
+    int getOffset() {
+        return this.codeBytes.size();
+    }
+
+    /**
+     * Writes an instruction that has no operands
+     *
+     * @param opcode      Opcode
+     * @param stackChange Words the instruction adds to the operand stack, negative if it takes them off
+     */
+    void op(int opcode, int stackChange) {
+        this.codeBytes.write(opcode);
+        this.adjustStack(stackChange);
+    }
+
+    /**
+     * Writes a load or store of a local variable
+     *
+     * @param opcode One of ILOAD, DLOAD, ALOAD, ISTORE or DSTORE
+     * @param local  Index of local variable
+     */
+    void local(int opcode, int local) {
+        if (local > 255) {
+            throw new IllegalArgumentException("Formula is too long to compile.");
+        }
+        this.codeBytes.write(opcode);
+        this.codeBytes.write(local);
+        switch (opcode) {
+            case ILOAD:
+            case ALOAD:
+                this.adjustStack(1);
+                break;
+            case DLOAD:
+                this.adjustStack(2);
+                break;
+            case ISTORE:
+                this.adjustStack(-1);
+                break;
+            default:
+                this.adjustStack(-2);
+        }
+    }
+
+    /**
+     * Pushes a double constant
+     *
+     * @param value Value to push
+     */
+    void pushDouble(double value) {
+        if (Double.doubleToRawLongBits(value) == 0L) {
+            this.op(DCONST_0, 2);
+        } else if (value == 1d) {
+            this.op(DCONST_1, 2);
+        } else {
+            this.codeBytes.write(LDC2_W);
+            this.writeShort(this.doubleConstant(value));
+            this.adjustStack(2);
+        }
+    }
+
+    /**
+     * Writes a call to a static method
+     *
+     * @param owner       Internal name of class
+     * @param name        Name of method
+     * @param descriptor  Descriptor of method
+     * @param stackChange Words the call adds to the operand stack, negative if it takes them off
+     */
+    void invokeStatic(String owner, String name, String descriptor, int stackChange) {
+        this.codeBytes.write(INVOKESTATIC);
+        this.writeShort(this.methodRef(owner, name, descriptor));
+        this.adjustStack(stackChange);
+    }
+
+    /**
+     * Increments an int local variable
+     *
+     * @param local     Index of local variable
+     * @param increment Amount to add, -128 to 127
+     */
+    void increment(int local, int increment) {
+        this.codeBytes.write(IINC);
+        this.codeBytes.write(local);
+        this.codeBytes.write(increment);
+    }
+
+    /**
+     * Writes a branch with a placeholder offset, patch it with patchBranch once the target is known
+     *
+     * @param opcode      Branch opcode
+     * @param stackChange Words the branch takes off the operand stack, as a negative number
+     * @return int, offset of the branch to patch
+     */
+    int branch(int opcode, int stackChange) {
+        int offset = this.getOffset();
+        this.codeBytes.write(opcode);
+        this.writeShort(0);
+        this.adjustStack(stackChange);
+        return offset;
+    }
+
+    /**
+     * Writes a branch backwards to an instruction that has already been written
+     *
+     * @param opcode Branch opcode
+     * @param target Offset of target instruction
+     */
+    void branchTo(int opcode, int target) {
+        int offset = this.getOffset();
+        this.codeBytes.write(opcode);
+        this.writeShort(target - offset);
+    }
+
+    /**
+     * Points a branch written by branch at the next instruction
+     *
+     * @param branch Offset of branch
+     */
+    void patchBranch(int branch) {
+        int jump = this.getOffset() - branch;
+        if (jump > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Formula is too long to compile.");
+        }
+        byte[] code = this.codeBytes.toByteArray();
+        code[branch + 1] = (byte) (jump >> 8);
+        code[branch + 2] = (byte) jump;
+        this.codeBytes.reset();
+        this.codeBytes.write(code, 0, code.length);
+    }
+
+    private void writeShort(int value) {
+        this.codeBytes.write(value >> 8);
+        this.codeBytes.write(value);
+    }
+
+    private void adjustStack(int change) {
+        this.stack += change;
+        this.maxStack = Math.max(this.maxStack, this.stack);
+    }
+    //endregion
+
+    /**
+     * Writes the class file, with a public no argument constructor and the method whose code has been written
+     *
+     * @param methodName Name of method
+     * @param descriptor Descriptor of method
+     * @param maxLocals  Number of local variable slots the method uses, including this and its parameters
+     * @return byte[] class file
+     */
+    byte[] toByteArray(String methodName, String descriptor, int maxLocals) {
+        byte[] code = this.codeBytes.toByteArray();
+
+        // Add every constant before the pool is written
+        int thisClass = this.classRef(this.name);
+        int superClass = this.classRef(this.superName);
+        int superConstructor = this.methodRef(this.superName, "<init>", "()V");
+        int constructorName = this.utf8("<init>");
+        int constructorDescriptor = this.utf8("()V");
+        int methodNameIndex = this.utf8(methodName);
+        int descriptorIndex = this.utf8(descriptor);
+        int codeAttribute = this.utf8("Code");
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(CLASS_VERSION);
+            out.writeShort(this.constantCount);
+            this.constantPoolBytes.writeTo(out);
+
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0);
+            out.writeShort(0);
+
+            out.writeShort(2);
+
+            // public <init>() { super(); }
+            byte[] constructor = new byte[]{
+                    (byte) ALOAD_0,
+                    (byte) INVOKESPECIAL, (byte) (superConstructor >> 8), (byte) superConstructor,
+                    (byte) RETURN
+            };
+            writeMethod(out, constructorName, constructorDescriptor, codeAttribute, 1, 1, constructor);
+            writeMethod(out, methodNameIndex, descriptorIndex, codeAttribute, this.maxStack, maxLocals, code);
+
+            out.writeShort(0);
+            return bytes.toByteArray();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void writeMethod(DataOutputStream out, int name, int descriptor, int codeAttribute, int maxStack, int maxLocals, byte[] code) throws IOException {
+        out.writeShort(ACC_PUBLIC);
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+
+        out.writeShort(codeAttribute);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+}
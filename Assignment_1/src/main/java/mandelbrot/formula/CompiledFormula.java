@@ -0,0 +1,27 @@
+package mandelbrot.formula;
+
+/**
+ * A formula compiled to bytecode, subclasses are generated by FormulaCompiler.
+ * Instances don't hold any state, so one can be shared by every worker.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public abstract class CompiledFormula {
+
+    protected CompiledFormula() {
+    }
+
+    /**
+     * Iterates z = f(z, c) for a point, z starts at c like the Mandelbrot set.
+     * Stops when |z|^2 is greater than the escape radius squared, or after max iterations.
+     *
+     * @param cReal               Real component of c
+     * @param cImaginary          Imaginary component of c
+     * @param maxIterations       Maximum number of iterations
+     * @param escapeRadiusSquared Escape radius squared
+     * @param z                   Array of at least 2, set to the real and imaginary components of the final z
+     * @return int, number of iterations, maxIterations if the point didn't escape
+     */
+    public abstract int iterate(double cReal, double cImaginary, int maxIterations, double escapeRadiusSquared, double[] z);
+}
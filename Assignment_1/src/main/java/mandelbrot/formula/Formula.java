@@ -0,0 +1,82 @@
+package mandelbrot.formula;
+
+/**
+ * A custom fractal formula, such as z^3 + c or conj(z)^2 + c.
+ * Formulas are written in z and c, with i, real numbers, + - * / and integer powers, and the functions conj, re, im
+ * and abs (the modulus). z starts at c, and the formula is iterated until z escapes.
+ * Formulas are compiled to bytecode the first time they are rendered, see FormulaCompiler.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public final class Formula {
+
+    private final Node root;
+    private final String text;
+    private volatile CompiledFormula compiled;
+
+    private Formula(Node root) {
+        this.root = root;
+        this.text = root.toString();
+    }
+
+    /**
+     * Parses a formula
+     *
+     * @param text Formula to parse
+     * @return Formula
+     * @throws IllegalArgumentException if the formula isn't valid, the message says where
+     */
+    public static Formula parse(String text) {
+        return new Formula(FormulaParser.parse(text));
+    }
+
+    /**
+     * Gets the formula compiled to bytecode, it is only compiled once
+     *
+     * @return CompiledFormula
+     * @throws IllegalArgumentException if the formula is too long to compile
+     */
+    public CompiledFormula compile() {
+        CompiledFormula compiled = this.compiled;
+        if (compiled == null) {
+            synchronized (this) {
+                compiled = this.compiled;
+                if (compiled == null) {
+                    compiled = FormulaCompiler.compile(this.root);
+                    this.compiled = compiled;
+                }
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Gets the degree of the formula as a polynomial in z, points escape at a rate set by the degree
+     *
+     * @return int, degree, at least 1
+     */
+    public int getDegree() {
+        return Math.max(1, this.root.getDegree());
+    }
+
+    @Override
+    public int hashCode() {
+        return this.text.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Formula && this.text.equals(((Formula) obj).text);
+    }
+
+    /**
+     * Gets the formula written out in full, formulas that are written the same are the same formula
+     *
+     * @return String formula
+     */
+    @Override
+    public String toString() {
+        return this.text;
+    }
+}
@@ -0,0 +1,396 @@
+package mandelbrot.formula;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static mandelbrot.formula.ClassFileWriter.*;
+
+/**
+ * Compiles a formula into a subclass of CompiledFormula, whose iterate method runs the whole escape time loop.
+ * <p>
+ * Complex values are split into real and imaginary parts, each one an expression over doubles held in local
+ * variables. Constants are folded as the expressions are built, so multiplying by a real number or i only costs the
+ * parts that aren't zero, and conj, re and im cost nothing at all. Integer powers are unrolled by squaring.
+ * z^2 + c compiles to the same operations, in the same order, as MandelbrotTask, so it gives identical results.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+final class FormulaCompiler {
+
+    private static final String SUPER_NAME = CompiledFormula.class.getName().replace('.', '/');
+    private static final String DESCRIPTOR = "(DDID[D)I";
+    private static final AtomicInteger classCount = new AtomicInteger();
+
+    //region Locals
+    private static final int C_REAL = 1;
+    private static final int C_IMAGINARY = 3;
+    private static final int MAX_ITERATIONS = 5;
+    private static final int ESCAPE_RADIUS_SQUARED = 6;
+    private static final int Z_ARRAY = 8;
+    private static final int Z_REAL = 9;
+    private static final int Z_IMAGINARY = 11;
+    private static final int ITERATION = 13;
+    private static final int FIRST_TEMPORARY = 14;
+    //endregion
+
+    private final ClassFileWriter writer;
+    private int nextLocal = FIRST_TEMPORARY;
+
+    private FormulaCompiler(String name) {
+        this.writer = new ClassFileWriter(name, SUPER_NAME);
+    }
+
+    /**
+     * Compiles a formula, and loads it in its own class loader so it can be garbage collected when it isn't used
+     *
+     * @param root Root of parsed formula
+     * @return CompiledFormula
+     * @throws IllegalArgumentException if the formula is too long to compile
+     */
+    static CompiledFormula compile(Node root) {
+        String name = SUPER_NAME + "$" + classCount.incrementAndGet();
+        byte[] classFile = new FormulaCompiler(name).writeClass(root);
+        try {
+            Class<?> compiled = new FormulaClassLoader().define(name.replace('/', '.'), classFile);
+            return compiled.asSubclass(CompiledFormula.class).getConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            throw new IllegalStateException("Failed to load compiled formula '" + root + "'.", ex);
+        }
+    }
+
+    /**
+     * Writes the iterate method:
+     * <pre>
+     * z = c;
+     * for (n = 0; n &lt; maxIterations &amp;&amp; zReal * zReal + zImaginary * zImaginary &lt;= escapeRadiusSquared; n++) {
+     *     z = f(z, c);
+     * }
+     * result = z;
+     * return n;
+     * </pre>
+     */
+    private byte[] writeClass(Node root) {
+        ClassFileWriter w = this.writer;
+        w.local(DLOAD, C_REAL);
+        w.local(DSTORE, Z_REAL);
+        w.local(DLOAD, C_IMAGINARY);
+        w.local(DSTORE, Z_IMAGINARY);
+        w.op(ICONST_0, 1);
+        w.local(ISTORE, ITERATION);
+
+        int loop = w.getOffset();
+        w.local(ILOAD, ITERATION);
+        w.local(ILOAD, MAX_ITERATIONS);
+        int maxIterationsExit = w.branch(IF_ICMPGE, -2);
+
+        // dcmpg gives 1 for NaN, so NaN escapes like it does in the hand written kernels
+        w.local(DLOAD, Z_REAL);
+        w.local(DLOAD, Z_REAL);
+        w.op(DMUL, -2);
+        w.local(DLOAD, Z_IMAGINARY);
+        w.local(DLOAD, Z_IMAGINARY);
+        w.op(DMUL, -2);
+        w.op(DADD, -2);
+        w.local(DLOAD, ESCAPE_RADIUS_SQUARED);
+        w.op(DCMPG, -3);
+        int escapeExit = w.branch(IFGT, -1);
+
+        // Both parts are on the stack before either is stored, as each one may read both parts of z
+        Value z = this.compile(root, new Value(Real.local(Z_REAL), Real.local(Z_IMAGINARY)));
+        this.emit(z.real);
+        this.emit(z.imaginary);
+        w.local(DSTORE, Z_IMAGINARY);
+        w.local(DSTORE, Z_REAL);
+
+        w.increment(ITERATION, 1);
+        w.branchTo(GOTO, loop);
+
+        w.patchBranch(maxIterationsExit);
+        w.patchBranch(escapeExit);
+        w.local(ALOAD, Z_ARRAY);
+        w.op(ICONST_0, 1);
+        w.local(DLOAD, Z_REAL);
+        w.op(DASTORE, -4);
+        w.local(ALOAD, Z_ARRAY);
+        w.op(ICONST_1, 1);
+        w.local(DLOAD, Z_IMAGINARY);
+        w.op(DASTORE, -4);
+        w.local(ILOAD, ITERATION);
+        w.op(IRETURN, -1);
+
+        return w.toByteArray("iterate", DESCRIPTOR, this.nextLocal);
+    }
+
+    //region Complex Operations
+    /**
+     * Builds the value of a node, writing code for the parts that have to be calculated before it
+     *
+     * @param node Node to build
+     * @param z    Value of z
+     * @return Value of node
+     */
+    private Value compile(Node node, Value z) {
+        Value left, right;
+        switch (node.type) {
+            case CONSTANT:
+                return new Value(Real.constant(node.real), Real.constant(node.imaginary));
+            case Z:
+                return z;
+            case C:
+                return new Value(Real.local(C_REAL), Real.local(C_IMAGINARY));
+            case ADD:
+                left = this.compile(node.left, z);
+                right = this.compile(node.right, z);
+                return new Value(Real.add(left.real, right.real), Real.add(left.imaginary, right.imaginary));
+            case SUBTRACT:
+                left = this.compile(node.left, z);
+                right = this.compile(node.right, z);
+                return new Value(Real.subtract(left.real, right.real), Real.subtract(left.imaginary, right.imaginary));
+            case MULTIPLY:
+                return this.multiply(this.compile(node.left, z), this.compile(node.right, z));
+            case DIVIDE:
+                return this.divide(this.compile(node.left, z), this.compile(node.right, z));
+            case NEGATE:
+                left = this.compile(node.left, z);
+                return new Value(Real.negate(left.real), Real.negate(left.imaginary));
+            case POWER:
+                return this.power(this.compile(node.left, z), node.exponent);
+            case CONJ:
+                left = this.compile(node.left, z);
+                return new Value(left.real, Real.negate(left.imaginary));
+            case RE:
+                return new Value(this.compile(node.left, z).real, Real.ZERO);
+            case IM:
+                return new Value(this.compile(node.left, z).imaginary, Real.ZERO);
+            case ABS:
+                left = this.compile(node.left, z);
+                if (left.imaginary.isZero()) {
+                    return new Value(Real.call("abs", left.real), Real.ZERO);
+                }
+                left = this.store(left);
+                return new Value(Real.call("sqrt", Real.add(Real.multiply(left.real, left.real), Real.multiply(left.imaginary, left.imaginary))), Real.ZERO);
+            default:
+                throw new IllegalArgumentException("Unknown node " + node.type);
+        }
+    }
+
+    /**
+     * (a + bi)(c + di) = (ac - bd) + (ad + bc)i
+     */
+    private Value multiply(Value left, Value right) {
+        boolean square = left == right;
+        left = this.store(left);
+        right = square ? left : this.store(right);
+        Real a = left.real, b = left.imaginary, c = right.real, d = right.imaginary;
+        return this.store(new Value(
+                Real.subtract(Real.multiply(a, c), Real.multiply(b, d)),
+                Real.add(Real.multiply(a, d), Real.multiply(b, c))));
+    }
+
+    /**
+     * (a + bi) / (c + di) = ((ac + bd) + (bc - ad)i) / (c^2 + d^2)
+     */
+    private Value divide(Value left, Value right) {
+        left = this.store(left);
+        right = this.store(right);
+        Real a = left.real, b = left.imaginary, c = right.real, d = right.imaginary;
+        if (d.isZero()) {
+            return this.store(new Value(Real.divide(a, c), Real.divide(b, c)));
+        }
+        Real denominator = this.store(Real.add(Real.multiply(c, c), Real.multiply(d, d)));
+        return this.store(new Value(
+                Real.divide(Real.add(Real.multiply(a, c), Real.multiply(b, d)), denominator),
+                Real.divide(Real.subtract(Real.multiply(b, c), Real.multiply(a, d)), denominator)));
+    }
+
+    /**
+     * Raises a value to an integer power by squaring, negative powers are the reciprocal
+     */
+    private Value power(Value base, int exponent) {
+        if (exponent < 0) {
+            return this.divide(new Value(Real.ONE, Real.ZERO), this.power(base, -exponent));
+        }
+
+        Value result = null;
+        while (exponent > 0) {
+            if ((exponent & 1) == 1) {
+                result = result == null ? base : this.multiply(result, base);
+            }
+            exponent >>= 1;
+            if (exponent > 0) {
+                base = this.multiply(base, base);
+            }
+        }
+        return result == null ? new Value(Real.ONE, Real.ZERO) : result;
+    }
+    //endregion
+
+    //region Code Generation
+    /**
+     * Calculates the parts of a value that aren't already constants or locals, and stores them in locals
+     */
+    private Value store(Value value) {
+        Real real = this.store(value.real);
+        Real imaginary = this.store(value.imaginary);
+        return real == value.real && imaginary == value.imaginary ? value : new Value(real, imaginary);
+    }
+
+    private Real store(Real real) {
+        if (real.isConstant() || real.operation == Real.LOCAL) return real;
+        int local = this.nextLocal;
+        this.nextLocal += 2;
+        this.emit(real);
+        this.writer.local(DSTORE, local);
+        return Real.local(local);
+    }
+
+    /**
+     * Writes the code to push a part onto the stack
+     */
+    private void emit(Real real) {
+        ClassFileWriter w = this.writer;
+        switch (real.operation) {
+            case Real.CONSTANT:
+                w.pushDouble(real.value);
+                return;
+            case Real.LOCAL:
+                w.local(DLOAD, real.local);
+                return;
+            case Real.NEGATE:
+                this.emit(real.left);
+                w.op(DNEG, 0);
+                return;
+            case Real.CALL:
+                this.emit(real.left);
+                w.invokeStatic("java/lang/Math", real.function, "(D)D", 0);
+                return;
+        }
+        this.emit(real.left);
+        this.emit(real.right);
+        w.op(real.operation, -2);
+    }
+    //endregion
+
+    /**
+     * Complex value, as its real and imaginary parts
+     */
+    private static final class Value {
+        final Real real;
+        final Real imaginary;
+
+        Value(Real real, Real imaginary) {
+            this.real = real;
+            this.imaginary = imaginary;
+        }
+    }
+
+    /**
+     * Expression over doubles, for one part of a complex value. Constants are folded as expressions are built.
+     * Binary operations use their opcode as their operation.
+     */
+    private static final class Real {
+        static final int CONSTANT = -1;
+        static final int LOCAL = -2;
+        static final int NEGATE = -3;
+        static final int CALL = -4;
+
+        static final Real ZERO = constant(0);
+        static final Real ONE = constant(1);
+
+        final int operation;
+        final Real left;
+        final Real right;
+        final double value;
+        final int local;
+        final String function;
+
+        private Real(int operation, Real left, Real right, double value, int local, String function) {
+            this.operation = operation;
+            this.left = left;
+            this.right = right;
+            this.value = value;
+            this.local = local;
+            this.function = function;
+        }
+
+        static Real constant(double value) {
+            return new Real(CONSTANT, null, null, value, 0, null);
+        }
+
+        static Real local(int local) {
+            return new Real(LOCAL, null, null, 0, local, null);
+        }
+
+        boolean isConstant() {
+            return this.operation == CONSTANT;
+        }
+
+        boolean isZero() {
+            return this.isConstant() && this.value == 0;
+        }
+
+        boolean isOne() {
+            return this.isConstant() && this.value == 1;
+        }
+
+        static Real add(Real left, Real right) {
+            if (left.isConstant() && right.isConstant()) return constant(left.value + right.value);
+            if (right.isZero()) return left;
+            if (left.isZero()) return right;
+            return new Real(DADD, left, right, 0, 0, null);
+        }
+
+        static Real subtract(Real left, Real right) {
+            if (left.isConstant() && right.isConstant()) return constant(left.value - right.value);
+            if (right.isZero()) return left;
+            if (left.isZero()) return negate(right);
+            return new Real(DSUB, left, right, 0, 0, null);
+        }
+
+        static Real multiply(Real left, Real right) {
+            if (left.isConstant() && right.isConstant()) return constant(left.value * right.value);
+            if (left.isZero() || right.isZero()) return ZERO;
+            if (right.isOne()) return left;
+            if (left.isOne()) return right;
+            if (right.isConstant() && right.value == -1) return negate(left);
+            if (left.isConstant() && left.value == -1) return negate(right);
+            return new Real(DMUL, left, right, 0, 0, null);
+        }
+
+        static Real divide(Real left, Real right) {
+            if (left.isConstant() && right.isConstant()) return constant(left.value / right.value);
+            if (right.isOne()) return left;
+            if (left.isZero()) return ZERO;
+            return new Real(DDIV, left, right, 0, 0, null);
+        }
+
+        static Real negate(Real operand) {
+            if (operand.isConstant()) return constant(-operand.value);
+            if (operand.operation == NEGATE) return operand.left;
+            return new Real(NEGATE, operand, null, 0, 0, null);
+        }
+
+        /**
+         * Calls a static method of Math that takes and returns a double
+         */
+        static Real call(String function, Real operand) {
+            if (operand.isConstant()) {
+                return constant("abs".equals(function) ? Math.abs(operand.value) : Math.sqrt(operand.value));
+            }
+            return new Real(CALL, operand, null, 0, 0, function);
+        }
+    }
+
+    /**
+     * Loads each compiled formula in its own class loader
+     */
+    private static final class FormulaClassLoader extends ClassLoader {
+        FormulaClassLoader() {
+            super(CompiledFormula.class.getClassLoader());
+        }
+
+        Class<?> define(String name, byte[] classFile) {
+            return this.defineClass(name, classFile, 0, classFile.length);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package mandelbrot.formula;
+
+/**
+ * Recursive descent parser for formulas.
+ * <pre>
+ * expression := term (('+' | '-') term)*
+ * term       := factor (['*' | '/'] factor)*     a missing operator multiplies, e.g. 2z
+ * factor     := ('-' | '+') factor | power
+ * power      := primary ('^' ['-'] integer)?
+ * primary    := number | 'i' | 'z' | 'c' | function '(' expression ')' | '(' expression ')'
+ * function   := 'conj' | 're' | 'im' | 'abs'
+ * </pre>
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+final class FormulaParser {
+
+    /**
+     * Largest exponent allowed, each power is unrolled into multiplies
+     */
+    static final int MAX_EXPONENT = 64;
+
+    private final String text;
+    private int position;
+
+    private FormulaParser(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses a formula
+     *
+     * @param text Formula to parse
+     * @return Node, root of the formula
+     * @throws IllegalArgumentException if the formula isn't valid
+     */
+    static Node parse(String text) {
+        FormulaParser parser = new FormulaParser(text);
+        Node root = parser.parseExpression();
+        parser.skipWhitespace();
+        if (parser.position != text.length()) {
+            throw parser.error("Unexpected '" + text.charAt(parser.position) + "'");
+        }
+        return root;
+    }
+
+    private Node parseExpression() {
+        Node node = this.parseTerm();
+        while (true) {
+            if (this.accept('+')) {
+                node = Node.binary(Node.Type.ADD, node, this.parseTerm());
+            } else if (this.accept('-')) {
+                node = Node.binary(Node.Type.SUBTRACT, node, this.parseTerm());
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private Node parseTerm() {
+        Node node = this.parseFactor();
+        while (true) {
+            if (this.accept('*')) {
+                node = Node.binary(Node.Type.MULTIPLY, node, this.parseFactor());
+            } else if (this.accept('/')) {
+                node = Node.binary(Node.Type.DIVIDE, node, this.parseFactor());
+            } else if (this.startsPrimary()) {
+                node = Node.binary(Node.Type.MULTIPLY, node, this.parseFactor());
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private Node parseFactor() {
+        if (this.accept('-')) {
+            return Node.unary(Node.Type.NEGATE, this.parseFactor());
+        }
+        if (this.accept('+')) {
+            return this.parseFactor();
+        }
+        return this.parsePower();
+    }
+
+    private Node parsePower() {
+        Node base = this.parsePrimary();
+        if (!this.accept('^')) return base;
+
+        boolean negative = this.accept('-');
+        this.skipWhitespace();
+        int start = this.position;
+        while (this.position < this.text.length() && Character.isDigit(this.text.charAt(this.position))) {
+            this.position++;
+        }
+        if (start == this.position || this.position < this.text.length() && this.text.charAt(this.position) == '.') {
+            throw this.error("Exponent must be an integer");
+        }
+        String digits = this.text.substring(start, this.position);
+        if (digits.length() > 3 || Integer.parseInt(digits) > MAX_EXPONENT) {
+            throw this.error("Exponent can't be larger than " + MAX_EXPONENT);
+        }
+        int exponent = Integer.parseInt(digits);
+        return Node.power(base, negative ? -exponent : exponent);
+    }
+
+    private Node parsePrimary() {
+        this.skipWhitespace();
+        if (this.position == this.text.length()) {
+            throw this.error("Unexpected end of formula");
+        }
+
+        char ch = this.text.charAt(this.position);
+        if (this.accept('(')) {
+            Node node = this.parseExpression();
+            this.expect(')');
+            return node;
+        }
+        if (Character.isDigit(ch) || ch == '.') {
+            return this.parseNumber();
+        }
+        if (Character.isLetter(ch)) {
+            int start = this.position;
+            while (this.position < this.text.length() && Character.isLetter(this.text.charAt(this.position))) {
+                this.position++;
+            }
+            String name = this.text.substring(start, this.position).toLowerCase();
+            switch (name) {
+                case "z":
+                    return Node.variable(Node.Type.Z);
+                case "c":
+                    return Node.variable(Node.Type.C);
+                case "i":
+                    return Node.constant(0, 1, "i");
+                case "conj":
+                    return this.parseFunction(Node.Type.CONJ);
+                case "re":
+                    return this.parseFunction(Node.Type.RE);
+                case "im":
+                    return this.parseFunction(Node.Type.IM);
+                case "abs":
+                    return this.parseFunction(Node.Type.ABS);
+                default:
+                    this.position = start;
+                    throw this.error("Unknown name '" + name + "'");
+            }
+        }
+        throw this.error("Unexpected '" + ch + "'");
+    }
+
+    private Node parseFunction(Node.Type type) {
+        this.expect('(');
+        Node operand = this.parseExpression();
+        this.expect(')');
+        return Node.unary(type, operand);
+    }
+
+    private Node parseNumber() {
+        int start = this.position;
+        while (this.position < this.text.length() && (Character.isDigit(this.text.charAt(this.position)) || this.text.charAt(this.position) == '.')) {
+            this.position++;
+        }
+        String number = this.text.substring(start, this.position);
+        try {
+            return Node.constant(Double.parseDouble(number), 0, number);
+        } catch (NumberFormatException ex) {
+            this.position = start;
+            throw this.error("Invalid number '" + number + "'");
+        }
+    }
+
+    /**
+     * Returns whether the next character starts a primary, so two factors next to each other are multiplied
+     */
+    private boolean startsPrimary() {
+        this.skipWhitespace();
+        if (this.position == this.text.length()) return false;
+        char ch = this.text.charAt(this.position);
+        return ch == '(' || ch == '.' || Character.isLetterOrDigit(ch);
+    }
+
+    private boolean accept(char ch) {
+        this.skipWhitespace();
+        if (this.position < this.text.length() && this.text.charAt(this.position) == ch) {
+            this.position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char ch) {
+        if (!this.accept(ch)) {
+            throw this.error("Expected '" + ch + "'");
+        }
+    }
+
+    private void skipWhitespace() {
+        while (this.position < this.text.length() && Character.isWhitespace(this.text.charAt(this.position))) {
+            this.position++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + (this.position + 1) + " of '" + this.text + "'.");
+    }
+}
@@ -0,0 +1,168 @@
+package mandelbrot.formula;
+
+/**
+ * Node of a parsed formula
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+final class Node {
+
+    enum Type {
+        /**
+         * Real number, or i
+         */
+        CONSTANT,
+        Z,
+        C,
+        ADD,
+        SUBTRACT,
+        MULTIPLY,
+        DIVIDE,
+        NEGATE,
+        /**
+         * Raised to an integer exponent
+         */
+        POWER,
+        CONJ,
+        RE,
+        IM,
+        ABS
+    }
+
+    final Type type;
+    final Node left;
+    final Node right;
+
+    /**
+     * Real and imaginary components of a constant
+     */
+    final double real;
+    final double imaginary;
+
+    /**
+     * Exponent of a power
+     */
+    final int exponent;
+
+    /**
+     * Text of a constant, as it was typed
+     */
+    private final String text;
+
+    private Node(Type type, Node left, Node right, double real, double imaginary, int exponent, String text) {
+        this.type = type;
+        this.left = left;
+        this.right = right;
+        this.real = real;
+        this.imaginary = imaginary;
+        this.exponent = exponent;
+        this.text = text;
+    }
+
+    //region Factories
+    static Node constant(double real, double imaginary, String text) {
+        return new Node(Type.CONSTANT, null, null, real, imaginary, 0, text);
+    }
+
+    static Node variable(Type type) {
+        return new Node(type, null, null, 0, 0, 0, null);
+    }
+
+    static Node unary(Type type, Node operand) {
+        return new Node(type, operand, null, 0, 0, 0, null);
+    }
+
+    static Node binary(Type type, Node left, Node right) {
+        return new Node(type, left, right, 0, 0, 0, null);
+    }
+
+    static Node power(Node base, int exponent) {
+        return new Node(Type.POWER, base, null, 0, 0, exponent, null);
+    }
+    //endregion
+
+    /**
+     * Gets the degree of the formula as a polynomial in z, used to smooth the iteration count
+     *
+     * @return int, degree
+     */
+    int getDegree() {
+        switch (this.type) {
+            case Z:
+                return 1;
+            case CONSTANT:
+            case C:
+                return 0;
+            case ADD:
+            case SUBTRACT:
+                return Math.max(this.left.getDegree(), this.right.getDegree());
+            case MULTIPLY:
+                return this.left.getDegree() + this.right.getDegree();
+            case DIVIDE:
+                return Math.max(0, this.left.getDegree() - this.right.getDegree());
+            case POWER:
+                return Math.max(0, this.left.getDegree() * this.exponent);
+            default:
+                return this.left.getDegree();
+        }
+    }
+
+    /**
+     * Gets how tightly the node binds, so children are only bracketed when they need to be
+     *
+     * @return int, precedence
+     */
+    private int getPrecedence() {
+        switch (this.type) {
+            case ADD:
+            case SUBTRACT:
+                return 1;
+            case MULTIPLY:
+            case DIVIDE:
+                return 2;
+            case NEGATE:
+                return 3;
+            case POWER:
+                return 4;
+            default:
+                return 5;
+        }
+    }
+
+    /**
+     * Writes a child, bracketed if it binds less tightly than the precedence given.
+     * Right operands are also bracketed when they bind as tightly as their parent, so the formula is evaluated in the
+     * same order when it is parsed again.
+     */
+    private static String bracket(Node node, int precedence) {
+        String text = node.toString();
+        return node.getPrecedence() < precedence ? "(" + text + ")" : text;
+    }
+
+    @Override
+    public String toString() {
+        switch (this.type) {
+            case CONSTANT:
+                return this.text;
+            case Z:
+                return "z";
+            case C:
+                return "c";
+            case ADD:
+                return bracket(this.left, 1) + " + " + bracket(this.right, 2);
+            case SUBTRACT:
+                return bracket(this.left, 1) + " - " + bracket(this.right, 2);
+            case MULTIPLY:
+                return bracket(this.left, 2) + " * " + bracket(this.right, 3);
+            case DIVIDE:
+                return bracket(this.left, 2) + " / " + bracket(this.right, 3);
+            case NEGATE:
+                return "-" + bracket(this.left, 3);
+            case POWER:
+                return bracket(this.left, 5) + "^" + this.exponent;
+            default:
+                return this.type.toString().toLowerCase() + "(" + this.left + ")";
+        }
+    }
+}
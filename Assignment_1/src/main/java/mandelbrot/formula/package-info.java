@@ -0,0 +1,7 @@
+/**
+ * Contains the compiler for custom fractal formulas, which turns a formula into a class iterating it on doubles
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+package mandelbrot.formula;
\ No newline at end of file
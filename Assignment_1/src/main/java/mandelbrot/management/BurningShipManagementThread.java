@@ -5,6 +5,8 @@ import com.nativelibs4java.opencl.CLKernel;
 import com.nativelibs4java.opencl.CLProgram;
 import mandelbrot.Main;
 import mandelbrot.render.BurningShipTask;
+import mandelbrot.render.Fractal;
+import mandelbrot.render.Precision;
 import utils.ImagePanel;
 import utils.ImageSegment;
 
@@ -40,6 +42,26 @@ public class BurningShipManagementThread extends RenderManagementThread {
         }
     }
 
+    /**
+     * Gets the fractal that views of the image are described as
+     *
+     * @return Fractal.BURNING_SHIP
+     */
+    @Override
+    protected Fractal getFractal() {
+        return Fractal.BURNING_SHIP;
+    }
+
+    /**
+     * The Burning Ship isn't known to be connected, so subdivided renders may miss detail. Use verify subdivision to check.
+     *
+     * @return true
+     */
+    @Override
+    protected boolean canSubdivide() {
+        return true;
+    }
+
     /**
      * Creates the task to dispatch to the workers
      *
@@ -54,20 +76,22 @@ public class BurningShipManagementThread extends RenderManagementThread {
     /**
      * Creates the Open CL Kernel for execution
      *
-     * @param dimension Dimensions of image to render
-     * @param results   Buffer to put results into
+     * @param dimension        Dimensions of image to render
+     * @param results          Buffer to put results into
+     * @param smoothIterations Buffer to put smooth iteration counts into
      * @return CLKernel to execute
      */
     @Override
-    protected CLKernel createOpenCLKernel(Dimension dimension, CLBuffer<Integer> results) {
-        if (this.openClThread.useDouble() && this.config.useOpenCL_double()) {
-            return this.getX64Kernel(dimension, results);
+    protected CLKernel createOpenCLKernel(Dimension dimension, CLBuffer<Integer> results, CLBuffer<Float> smoothIterations) {
+        // Shallow images don't need doubles, and the float kernel is faster
+        if (this.openClThread.useDouble() && this.config.useOpenCL_double() && this.precision != Precision.FLOAT) {
+            return this.getX64Kernel(dimension, results, smoothIterations);
         } else {
-            return this.getX32Kernel(dimension, results);
+            return this.getX32Kernel(dimension, results, smoothIterations);
         }
     }
 
-    private CLKernel getX64Kernel( Dimension dimension, CLBuffer<Integer> results) {
+    private CLKernel getX64Kernel( Dimension dimension, CLBuffer<Integer> results, CLBuffer<Float> smoothIterations) {
         CLProgram burningShip = this.openClThread.getProgram("burningShip_x64");
         int iterations = this.iterations;
         double escapeRadius = this.escapeRadiusSquared;
@@ -92,11 +116,12 @@ public class BurningShipManagementThread extends RenderManagementThread {
                 hueAdj,
                 saturation,
                 brightness,
-                results
+                results,
+                smoothIterations
         );
     }
 
-    private CLKernel getX32Kernel(Dimension dimension, CLBuffer<Integer> results) {
+    private CLKernel getX32Kernel(Dimension dimension, CLBuffer<Integer> results, CLBuffer<Float> smoothIterations) {
         CLProgram burningShip = this.openClThread.getProgram("burningShip_x32");
         int iterations = this.iterations;
         float escapeRadius = (float) this.escapeRadiusSquared;
@@ -121,7 +146,8 @@ public class BurningShipManagementThread extends RenderManagementThread {
                 hueAdj,
                 saturation,
                 brightness,
-                results
+                results,
+                smoothIterations
         );
     }
 }
@@ -0,0 +1,88 @@
+package mandelbrot.management;
+
+import utils.ColourPalette;
+
+/**
+ * Histogram of the escape counts of a sparse pre-pass, used to choose an iteration budget.
+ * Budgets double from the minimum to the probe, the budget the pre-pass was rendered at. Bucket k counts the samples
+ * that escaped after more than minimum * 2^(k-1) iterations, and at most minimum * 2^k.
+ * A sample that escapes after more iterations than a budget would be inside at that budget, so it is undecided.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+final class EscapeHistogram {
+
+    private final int minimum;
+    private final int[] buckets;
+    private int samples;
+    private int inside;
+
+    /**
+     * Creates an empty histogram
+     *
+     * @param minimum Smallest budget to choose
+     * @param probe   Budget the pre-pass was rendered at, minimum * a power of 2
+     */
+    EscapeHistogram(int minimum, int probe) {
+        this.minimum = minimum;
+        this.buckets = new int[Integer.numberOfTrailingZeros(probe / minimum) + 1];
+    }
+
+    /**
+     * Adds a sample to the histogram
+     *
+     * @param smoothIterations Smooth iteration count of the sample, or ColourPalette.INSIDE
+     */
+    void add(float smoothIterations) {
+        this.samples++;
+        if (smoothIterations == ColourPalette.INSIDE) {
+            this.inside++;
+            return;
+        }
+        int iterations = (int) smoothIterations;
+        int bucket = iterations <= this.minimum ? 0 : 32 - Integer.numberOfLeadingZeros((iterations - 1) / this.minimum);
+        this.buckets[Math.min(bucket, this.buckets.length - 1)]++;
+    }
+
+    int getSamples() {
+        return this.samples;
+    }
+
+    int getInside() {
+        return this.inside;
+    }
+
+    /**
+     * Gets the fraction of samples that would be undecided at a budget
+     *
+     * @param budget Budget, minimum * a power of 2
+     * @return double, fraction of samples that escape after more iterations than the budget
+     */
+    double getUndecidedFraction(int budget) {
+        if (this.samples == 0) return 0;
+        int undecided = 0;
+        for (int bucket = Integer.numberOfTrailingZeros(budget / this.minimum) + 1; bucket < this.buckets.length; bucket++) {
+            undecided += this.buckets[bucket];
+        }
+        return undecided / (double) this.samples;
+    }
+
+    /**
+     * Selects the smallest budget, below the probe, that leaves fewer samples undecided than the threshold.
+     * If no samples have escaped, there isn't a boundary to measure yet, so none are selected.
+     *
+     * @param threshold Largest fraction of samples that can be undecided
+     * @return int, budget, or -1 if every budget below the probe leaves too many undecided, so the probe should be raised
+     */
+    int select(double threshold) {
+        if (this.inside == this.samples) return -1;
+        for (int bucket = 0; bucket < this.buckets.length - 1; bucket++) {
+            int budget = this.minimum << bucket;
+            if (this.getUndecidedFraction(budget) < threshold) {
+                return budget;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,83 @@
+package mandelbrot.management;
+
+import com.nativelibs4java.opencl.CLBuffer;
+import com.nativelibs4java.opencl.CLKernel;
+import mandelbrot.Main;
+import mandelbrot.formula.Formula;
+import mandelbrot.render.FormulaTask;
+import utils.ImagePanel;
+import utils.ImageProperties;
+import utils.ImageSegment;
+
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.util.concurrent.Callable;
+
+/**
+ * Custom Formula Fractal, renders the formula set in the config.
+ * The formula is compiled to bytecode, so there aren't any OpenCL kernels and it always renders on the CPU.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public class FormulaManagementThread extends RenderManagementThread {
+
+    protected volatile Formula formula;
+
+    public FormulaManagementThread(Main mainWindow, OpenClThread thread, ImagePanel panel) {
+        super(mainWindow, thread, panel, "Formula");
+        this.formula = this.config.getFormula();
+    }
+
+    /**
+     * Adds the formula to the properties, so images of different formulas aren't mixed up in the caches
+     *
+     * @return ImageProperties
+     */
+    @Override
+    protected ImageProperties getRenderProperties() {
+        ImageProperties properties = super.getRenderProperties();
+        properties.setFormula(this.formula.toString());
+        return properties;
+    }
+
+    /**
+     * Creates the task to dispatch to the workers
+     *
+     * @param bounds Bounds of render area
+     * @return ImageSegment with result of render
+     */
+    @Override
+    protected Callable<ImageSegment> createTask(Rectangle2D bounds) {
+        return new FormulaTask(this, bounds, this.formula);
+    }
+
+    /**
+     * Formulas don't have OpenCL kernels
+     *
+     * @return false
+     */
+    @Override
+    protected boolean hasOpenCLKernel() {
+        return false;
+    }
+
+    /**
+     * Never called, as hasOpenCLKernel is false
+     *
+     * @param dimension        Dimensions of image to render
+     * @param results          Buffer to put results into
+     * @param smoothIterations Buffer to put smooth iteration counts into
+     * @return null
+     */
+    @Override
+    protected CLKernel createOpenCLKernel(Dimension dimension, CLBuffer<Integer> results, CLBuffer<Float> smoothIterations) {
+        return null;
+    }
+
+    @Override
+    public void render() {
+        this.formula = this.config.getFormula();
+        super.render();
+    }
+}
@@ -4,14 +4,23 @@ import com.nativelibs4java.opencl.CLBuffer;
 import com.nativelibs4java.opencl.CLKernel;
 import com.nativelibs4java.opencl.CLProgram;
 import mandelbrot.Main;
+import mandelbrot.render.Fractal;
 import mandelbrot.render.JuliaTask;
+import mandelbrot.render.Precision;
+import mandelbrot.render.RenderView;
+import mandelbrot.render.Symmetry;
+import mandelbrot.render.ViewContext;
 import utils.Complex;
+import utils.FrameBufferPool;
+import utils.FractalImage;
 import utils.ImagePanel;
 import utils.ImageProperties;
 import utils.ImageSegment;
+import utils.Log;
 
 import java.awt.*;
 import java.awt.geom.Rectangle2D;
+import java.math.BigDecimal;
 import java.util.concurrent.Callable;
 
 /**
@@ -24,8 +33,54 @@ public class JuliaRenderManagementThread extends RenderManagementThread {
 
     protected Complex complex;
 
+    //region Preview
+    /**
+     * Most iterations to use in a preview
+     */
+    protected static final int PREVIEW_ITERATIONS = 256;
+
+    /**
+     * Most the preview resolution can be divided by
+     */
+    protected static final int MAX_PREVIEW_DOWNSCALE = 8;
+
+    /**
+     * How long the cursor has to rest before the full quality image is rendered
+     */
+    protected static final long PREVIEW_REST_MILLIS = 150;
+
+    private final Object previewLock = new Object();
+    private final Thread previewThread;
+
+    /**
+     * Latest constant to preview, null if there isn't one waiting
+     */
+    private Complex previewComplex;
+
+    /**
+     * Preview resolution is the panel size divided by this, adjusted so previews render within a frame
+     */
+    private int previewDownscale = 4;
+
+    /**
+     * Buffers for previews, only used by the preview thread, as the render thread's pool isn't thread safe.
+     * Previews are rendered small, then scaled up into a frame the size of the panel, which is held whilst it is displayed.
+     */
+    private final FrameBufferPool previewPool = new FrameBufferPool(image -> false);
+    private final FrameBufferPool previewFramePool = new FrameBufferPool(image -> image == this.panel.getImage());
+    private FractalImage previewFrame;
+    //endregion
+
     public JuliaRenderManagementThread(Main mainWindow, OpenClThread thread, ImagePanel panel) {
         super(mainWindow, thread, panel, "Julia");
+        this.previewThread = new Thread(this::runPreview, "Render_Preview_Thread_Julia");
+        this.previewThread.setDaemon(true);
+    }
+
+    @Override
+    public synchronized void start() {
+        super.start();
+        this.previewThread.start();
     }
 
     /**
@@ -64,21 +119,23 @@ public class JuliaRenderManagementThread extends RenderManagementThread {
     /**
      * Creates the CL Kernel for execution
      *
-     * @param dimension Dimensions of image to render
-     * @param results   Buffer to put results into
+     * @param dimension        Dimensions of image to render
+     * @param results          Buffer to put results into
+     * @param smoothIterations Buffer to put smooth iteration counts into
      * @return CLKernel to execute
      */
     @Override
-    protected CLKernel createOpenCLKernel(Dimension dimension, CLBuffer<Integer> results) {
+    protected CLKernel createOpenCLKernel(Dimension dimension, CLBuffer<Integer> results, CLBuffer<Float> smoothIterations) {
 
-        if (this.openClThread.useDouble()) {
-            return this.getX64Kernel(dimension, results);
+        // Shallow images don't need doubles, and the float kernel is faster
+        if (this.openClThread.useDouble() && this.precision != Precision.FLOAT) {
+            return this.getX64Kernel(dimension, results, smoothIterations);
         } else {
-            return this.getX32Kernel(dimension, results);
+            return this.getX32Kernel(dimension, results, smoothIterations);
         }
     }
 
-    private CLKernel getX64Kernel(Dimension dimension, CLBuffer<Integer> results) {
+    private CLKernel getX64Kernel(Dimension dimension, CLBuffer<Integer> results, CLBuffer<Float> smoothIterations) {
         CLProgram julia = this.openClThread.getProgram("julia_x64");
         int iterations = this.iterations;
         double escapeRadius = this.escapeRadiusSquared;
@@ -105,11 +162,14 @@ public class JuliaRenderManagementThread extends RenderManagementThread {
                 hueAdj,
                 saturation,
                 brightness,
-                results
+                this.periodicityCheck ? 1 : 0,
+                this.getPeriodicityTolerance(),
+                results,
+                smoothIterations
         );
     }
 
-    private CLKernel getX32Kernel(Dimension dimension, CLBuffer<Integer> results) {
+    private CLKernel getX32Kernel(Dimension dimension, CLBuffer<Integer> results, CLBuffer<Float> smoothIterations) {
         CLProgram julia = this.openClThread.getProgram("julia_x32");
         int iterations = this.iterations;
         float escapeRadius = (float) this.escapeRadiusSquared;
@@ -136,7 +196,10 @@ public class JuliaRenderManagementThread extends RenderManagementThread {
                 hueAdj,
                 saturation,
                 brightness,
-                results
+                this.periodicityCheck ? 1 : 0,
+                (float) this.getPeriodicityTolerance(),
+                results,
+                smoothIterations
         );
     }
 
@@ -146,6 +209,168 @@ public class JuliaRenderManagementThread extends RenderManagementThread {
         super.render();
     }
 
+    //region Preview
+
+    /**
+     * Previews the Julia set of the selected point, for when the point is following the cursor.
+     * Previews are rendered at a lower resolution and iterations so they keep up with the display,
+     * and the full quality image is rendered once the point stops changing.
+     */
+    public void preview() {
+        Complex complex = this.config.getSelectedPoint();
+        if (complex == null) return;
+
+        // Stop the full quality render, otherwise it would be drawn over the preview with an old point
+        this.cancelRender();
+        synchronized (this.previewLock) {
+            this.previewComplex = complex;
+            this.previewLock.notify();
+        }
+    }
+
+    /**
+     * Renders previews, at most once per display frame.
+     * Points requested whilst a preview renders replace each other, so only the latest is previewed next.
+     */
+    private void runPreview() {
+        long frameNanos = 1000000000L / getRefreshRate();
+        long lastFrame = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Complex complex;
+                synchronized (this.previewLock) {
+                    while (this.previewComplex == null) {
+                        this.previewLock.wait();
+                    }
+                }
+
+                // Wait for the next frame, and take the latest point
+                long wait = lastFrame + frameNanos - System.nanoTime();
+                if (wait > 0) Thread.sleep(wait / 1000000, (int) (wait % 1000000));
+                synchronized (this.previewLock) {
+                    complex = this.previewComplex;
+                    this.previewComplex = null;
+                }
+
+                lastFrame = System.nanoTime();
+                this.renderPreview(complex);
+                long renderTime = System.nanoTime() - lastFrame;
+
+                // Drop the resolution if the preview took longer than a frame, and raise it if there's plenty of time
+                if (renderTime > frameNanos && this.previewDownscale < MAX_PREVIEW_DOWNSCALE) {
+                    this.previewDownscale++;
+                } else if (renderTime < frameNanos / 4 && this.previewDownscale > 1) {
+                    this.previewDownscale--;
+                }
+
+                // Render the full quality image once the point stops changing
+                synchronized (this.previewLock) {
+                    long deadline = System.currentTimeMillis() + PREVIEW_REST_MILLIS;
+                    long remaining = PREVIEW_REST_MILLIS;
+                    while (this.previewComplex == null && remaining > 0) {
+                        this.previewLock.wait(remaining);
+                        remaining = deadline - System.currentTimeMillis();
+                    }
+                    if (this.previewComplex == null) {
+                        this.render();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Log.Information(Thread.currentThread().getName() + " stopped.");
+        }
+    }
+
+    /**
+     * Renders a preview of a Julia set, scaled up to fill the panel
+     *
+     * @param complex Constant of the Julia set
+     */
+    private void renderPreview(Complex complex) {
+        int panelWidth = this.panel.getWidth();
+        int panelHeight = this.panel.getHeight();
+        if (panelWidth <= 0 || panelHeight <= 0) return;
+
+        int width = Math.max(1, panelWidth / this.previewDownscale);
+        int height = Math.max(1, panelHeight / this.previewDownscale);
+        RenderView view = new RenderView(Fractal.JULIA, width, height, Math.min(this.config.getIterations(), PREVIEW_ITERATIONS), 1, 0, 0)
+                .withComplex(complex)
+                .withColour(this.config.getHue(), this.config.getSaturation(), this.config.getBrightness())
+                .withEscapeRadiusSquared(this.config.getEscapeRadiusSquared())
+                .withRange(this.config.getRangeX(), this.config.getRangeY())
+                .withBulbCheck(this.config.useBulbCheck())
+                .withPeriodicityCheck(this.config.usePeriodicityCheck())
+                .withLaneKernel(this.config.useLaneKernel(Fractal.JULIA));
+        FractalImage preview = this.previewPool.acquire(width, height);
+        ViewContext context = new ViewContext(view, preview);
+        try {
+            for (Rectangle region : Symmetry.POINT.getRegions(context)) {
+                this.engine.renderTiles(context, region);
+            }
+        } catch (IllegalStateException ex) {
+            // Skip the frame, the next preview or the full quality render replaces it
+            Log.Error("Preview failed. " + ex.getMessage());
+            this.previewPool.release(preview);
+            return;
+        }
+        Symmetry.POINT.fill(context, preview);
+
+        FractalImage frame = this.previewFramePool.acquire(panelWidth, panelHeight);
+        Graphics2D g = frame.createGraphics();
+        g.drawImage(preview, 0, 0, panelWidth, panelHeight, null);
+        g.dispose();
+        this.previewPool.release(preview);
+
+        // The last frame can be drawn into again once the panel shows this one
+        this.panel.setImage(frame, true);
+        if (this.previewFrame != frame) {
+            this.previewFramePool.release(this.previewFrame);
+        }
+        this.previewFrame = frame;
+    }
+
+    /**
+     * Gets the refresh rate of the screen
+     *
+     * @return int, refresh rate in Hz, 60 if it isn't known
+     */
+    private static int getRefreshRate() {
+        if (GraphicsEnvironment.isHeadless()) return 60;
+        int refreshRate = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+        return refreshRate == DisplayMode.REFRESH_RATE_UNKNOWN ? 60 : refreshRate;
+    }
+    //endregion
+
+    /**
+     * Gets the fractal that views of the image are described as
+     *
+     * @return Fractal.JULIA
+     */
+    @Override
+    protected Fractal getFractal() {
+        return Fractal.JULIA;
+    }
+
+    /**
+     * Julia sets are symmetric under z to -z
+     *
+     * @return Symmetry.POINT
+     */
+    @Override
+    protected Symmetry getSymmetry() {
+        return Symmetry.POINT;
+    }
+
+    /**
+     * The Julia set is always drawn around the origin, so it can't be panned
+     *
+     * @return false
+     */
+    @Override
+    protected boolean canPan() {
+        return false;
+    }
+
     @Override
     public double getScale() {
         return 1;
@@ -160,4 +385,14 @@ public class JuliaRenderManagementThread extends RenderManagementThread {
     public double getShiftY() {
         return 0;
     }
+
+    @Override
+    public BigDecimal getPreciseShiftX() {
+        return BigDecimal.ZERO;
+    }
+
+    @Override
+    public BigDecimal getPreciseShiftY() {
+        return BigDecimal.ZERO;
+    }
 }
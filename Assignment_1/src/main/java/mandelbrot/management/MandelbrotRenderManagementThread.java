@@ -5,6 +5,8 @@ import com.nativelibs4java.opencl.CLKernel;
 import com.nativelibs4java.opencl.CLProgram;
 import mandelbrot.Main;
 import mandelbrot.render.MandelbrotTask;
+import mandelbrot.render.Precision;
+import mandelbrot.render.Symmetry;
 import utils.ImagePanel;
 import utils.ImageSegment;
 
@@ -21,6 +23,7 @@ import java.util.concurrent.Callable;
 public class MandelbrotRenderManagementThread extends RenderManagementThread {
     public MandelbrotRenderManagementThread(Main mainWindow, OpenClThread thread, ImagePanel panel) {
         super(mainWindow, thread, panel, "Mandelbrot");
+        this.perturbationEngine = new PerturbationEngine(this);
     }
 
     /**
@@ -39,6 +42,26 @@ public class MandelbrotRenderManagementThread extends RenderManagementThread {
         }
     }
 
+    /**
+     * The Mandelbrot set is connected and has no holes, so a tile bordered by the set is filled by it
+     *
+     * @return true
+     */
+    @Override
+    protected boolean canSubdivide() {
+        return true;
+    }
+
+    /**
+     * The Mandelbrot set is symmetric in the real axis
+     *
+     * @return Symmetry.CONJUGATE
+     */
+    @Override
+    protected Symmetry getSymmetry() {
+        return Symmetry.CONJUGATE;
+    }
+
     /**
      * Creates the task to dispatch to the workers
      *
@@ -53,20 +76,22 @@ public class MandelbrotRenderManagementThread extends RenderManagementThread {
     /**
      * Creates the CL Kernel for execution
      *
-     * @param dimension Dimensions of image to render
-     * @param results   Buffer to put results into
+     * @param dimension        Dimensions of image to render
+     * @param results          Buffer to put results into
+     * @param smoothIterations Buffer to put smooth iteration counts into
      * @return CLKernel to execute
      */
     @Override
-    protected CLKernel createOpenCLKernel(Dimension dimension, CLBuffer<Integer> results) {
-        if (this.openClThread.useDouble() && this.config.useOpenCL_double()) {
-            return this.getX64Kernel(dimension, results);
+    protected CLKernel createOpenCLKernel(Dimension dimension, CLBuffer<Integer> results, CLBuffer<Float> smoothIterations) {
+        // Shallow images don't need doubles, and the float kernel is faster
+        if (this.openClThread.useDouble() && this.config.useOpenCL_double() && this.precision != Precision.FLOAT) {
+            return this.getX64Kernel(dimension, results, smoothIterations);
         } else {
-            return this.getX32Kernel(dimension, results);
+            return this.getX32Kernel(dimension, results, smoothIterations);
         }
     }
 
-    private CLKernel getX64Kernel( Dimension dimension, CLBuffer<Integer> results) {
+    private CLKernel getX64Kernel( Dimension dimension, CLBuffer<Integer> results, CLBuffer<Float> smoothIterations) {
         CLProgram mandelbrot = this.openClThread.getProgram("mandelbrot_x64");
         int iterations = this.iterations;
         double escapeRadius = this.escapeRadiusSquared;
@@ -91,11 +116,15 @@ public class MandelbrotRenderManagementThread extends RenderManagementThread {
                 hueAdj,
                 saturation,
                 brightness,
-                results
+                this.bulbCheck ? 1 : 0,
+                this.periodicityCheck ? 1 : 0,
+                this.getPeriodicityTolerance(),
+                results,
+                smoothIterations
         );
     }
 
-    private CLKernel getX32Kernel(Dimension dimension, CLBuffer<Integer> results) {
+    private CLKernel getX32Kernel(Dimension dimension, CLBuffer<Integer> results, CLBuffer<Float> smoothIterations) {
         CLProgram mandelbrot = this.openClThread.getProgram("mandelbrot_x32");
         int iterations = this.iterations;
         float escapeRadius = (float) this.escapeRadiusSquared;
@@ -120,7 +149,11 @@ public class MandelbrotRenderManagementThread extends RenderManagementThread {
                 hueAdj,
                 saturation,
                 brightness,
-                results
+                this.bulbCheck ? 1 : 0,
+                this.periodicityCheck ? 1 : 0,
+                (float) this.getPeriodicityTolerance(),
+                results,
+                smoothIterations
         );
     }
 }
@@ -0,0 +1,251 @@
+package mandelbrot.management;
+
+import utils.Log;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Renders deep zooms of the Mandelbrot set using perturbation theory.
+ * One reference orbit is iterated at high precision, and every pixel is iterated as a small difference from it in
+ * doubles, so the cost per pixel stays the same however far in we zoom.
+ * Pixels where the difference loses precision (glitches) are re-rendered against a new reference orbit.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public class PerturbationEngine {
+
+    /**
+     * Scale factor past which doubles can no longer tell neighbouring pixels apart
+     */
+    public static final double MIN_SCALE = 1e12;
+
+    /**
+     * Maximum number of reference orbits used for one image
+     */
+    public static final int MAX_REFERENCES = 16;
+
+    /**
+     * A pixel is glitched if |z|^2 falls below this fraction of |Z|^2 (Pauldelbrot's criterion)
+     */
+    public static final double GLITCH_TOLERANCE = 1e-6;
+
+    /**
+     * Digits kept beyond the size of a pixel, to absorb rounding in the reference orbit
+     */
+    private static final int GUARD_DIGITS = 10;
+
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    private final RenderManagementThread mgmtThread;
+
+    private boolean[] glitched;
+    private float[] glitchSize;
+
+    /**
+     * Creates a perturbation engine
+     *
+     * @param t Render Management Thread to render for
+     */
+    PerturbationEngine(RenderManagementThread t) {
+        this.mgmtThread = t;
+    }
+
+    /**
+     * Gets the number of decimal places needed to tell pixels apart
+     *
+     * @param pixelSize Size of a pixel in the complex plane
+     * @return int, decimal places
+     */
+    static int getDecimalPlaces(double pixelSize) {
+        return Math.max(0, (int) Math.ceil(-Math.log10(pixelSize))) + GUARD_DIGITS;
+    }
+
+    /**
+     * Clears the glitches, ready for a new image
+     *
+     * @param size Number of pixels in the image
+     */
+    void reset(int size) {
+        if (this.glitched == null || this.glitched.length != size) {
+            this.glitched = new boolean[size];
+            this.glitchSize = new float[size];
+        } else {
+            Arrays.fill(this.glitched, false);
+        }
+    }
+
+    /**
+     * Gets whether each pixel is glitched, written by the render tasks
+     *
+     * @return boolean[] in image order
+     */
+    public boolean[] getGlitched() {
+        return this.glitched;
+    }
+
+    /**
+     * Gets how glitched each glitched pixel is, written by the render tasks.
+     * Smaller values are closer to the centre of a glitch, so make better references.
+     *
+     * @return float[] in image order
+     */
+    public float[] getGlitchSize() {
+        return this.glitchSize;
+    }
+
+    /**
+     * Gets the number of glitched pixels
+     *
+     * @return int, number of pixels
+     */
+    int getGlitchCount() {
+        int count = 0;
+        for (boolean g : this.glitched) {
+            if (g) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Calculates the reference orbit at the centre of the image
+     *
+     * @return ReferenceOrbit, or null if the render was cancelled
+     */
+    ReferenceOrbit getCentreReference() {
+        return this.createReference(0, 0);
+    }
+
+    /**
+     * Calculates a reference orbit at the centre of the worst glitch
+     *
+     * @return ReferenceOrbit, or null if there are no glitches or the render was cancelled
+     */
+    ReferenceOrbit getGlitchReference() {
+        int worst = -1;
+        for (int i = 0; i < this.glitched.length; i++) {
+            if (this.glitched[i] && (worst == -1 || this.glitchSize[i] < this.glitchSize[worst])) {
+                worst = i;
+            }
+        }
+        if (worst == -1) return null;
+
+        int width = this.mgmtThread.getImage().getWidth();
+        return this.createReference(this.mgmtThread.getOffsetReal(worst % width), this.mgmtThread.getOffsetImaginary(worst / width));
+    }
+
+    /**
+     * Iterates a reference orbit at high precision
+     *
+     * @param offsetReal      Real offset of the reference from the centre of the image
+     * @param offsetImaginary Imaginary offset of the reference from the centre of the image
+     * @return ReferenceOrbit, or null if the render was cancelled
+     */
+    private ReferenceOrbit createReference(double offsetReal, double offsetImaginary) {
+        RenderManagementThread t = this.mgmtThread;
+        int maxIterations = t.getIterations();
+        double escapeRadiusSquared = t.getEscapeRadiusSquared();
+
+        // |z| stays below the escape radius, so only a couple of digits are needed before the point
+        int decimalPlaces = getDecimalPlaces(t.getPixelSize());
+        MathContext mc = new MathContext(decimalPlaces + 2, RoundingMode.HALF_EVEN);
+        BigDecimal cReal = t.getPreciseShiftX().add(new BigDecimal(offsetReal)).round(mc);
+        BigDecimal cImaginary = t.getPreciseShiftY().add(new BigDecimal(offsetImaginary)).round(mc);
+
+        double[] real = new double[maxIterations + 1];
+        double[] imaginary = new double[maxIterations + 1];
+        BigDecimal zReal = cReal;
+        BigDecimal zImaginary = cImaginary;
+        BigDecimal zRealSquared;
+        BigDecimal zImaginarySquared;
+        double r, i;
+        int length = 0;
+
+        // Same iteration as the Mandelbrot task, z starts at c
+        while (length <= maxIterations) {
+            if ((length & 1023) == 0 && t.isRenderCancelled()) return null;
+
+            r = zReal.doubleValue();
+            i = zImaginary.doubleValue();
+            real[length] = r;
+            imaginary[length] = i;
+            length++;
+            if (r * r + i * i > escapeRadiusSquared) break;
+
+            zRealSquared = zReal.multiply(zReal, mc);
+            zImaginarySquared = zImaginary.multiply(zImaginary, mc);
+            zImaginary = TWO.multiply(zReal).multiply(zImaginary, mc).add(cImaginary, mc);
+            zReal = zRealSquared.subtract(zImaginarySquared).add(cReal, mc);
+        }
+
+        Log.Information("Perturbation reference orbit: " + length + " iteration(s) at " + mc.getPrecision() + " digits.");
+        return new ReferenceOrbit(real, imaginary, length, offsetReal, offsetImaginary);
+    }
+
+    /**
+     * Reference orbit, rounded to doubles for the pixels to iterate against
+     */
+    public static final class ReferenceOrbit {
+        private final double[] real;
+        private final double[] imaginary;
+        private final int length;
+        private final double offsetReal;
+        private final double offsetImaginary;
+
+        ReferenceOrbit(double[] real, double[] imaginary, int length, double offsetReal, double offsetImaginary) {
+            this.real = real;
+            this.imaginary = imaginary;
+            this.length = length;
+            this.offsetReal = offsetReal;
+            this.offsetImaginary = offsetImaginary;
+        }
+
+        /**
+         * Gets the real components of the orbit, Z_0 = c
+         *
+         * @return double[], at least getLength() long
+         */
+        public double[] getReal() {
+            return this.real;
+        }
+
+        /**
+         * Gets the imaginary components of the orbit
+         *
+         * @return double[], at least getLength() long
+         */
+        public double[] getImaginary() {
+            return this.imaginary;
+        }
+
+        /**
+         * Gets the number of points in the orbit, less than max iterations + 1 if the reference escaped
+         *
+         * @return int, length
+         */
+        public int getLength() {
+            return this.length;
+        }
+
+        /**
+         * Gets the real offset of the reference from the centre of the image
+         *
+         * @return double, offset
+         */
+        public double getOffsetReal() {
+            return this.offsetReal;
+        }
+
+        /**
+         * Gets the imaginary offset of the reference from the centre of the image
+         *
+         * @return double, offset
+         */
+        public double getOffsetImaginary() {
+            return this.offsetImaginary;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package mandelbrot.management;
+
+import mandelbrot.render.RenderContext;
+import mandelbrot.render.RenderView;
+import mandelbrot.render.Symmetry;
+import mandelbrot.render.ViewContext;
+import utils.Complex;
+import utils.FractalImage;
+import utils.ImageSegment;
+
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Renders fractals on the CPU without a display.
+ * Describe the image with a RenderView, and get the image (or the tiles of part of it) back as a Future.
+ * Cancelling the future stops the render.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public class RenderEngine {
+
+    private static final AtomicInteger engineCount = new AtomicInteger();
+
+    private final TileScheduler scheduler;
+
+    /**
+     * Runs renders, each one waits on the scheduler whilst the tiles render
+     */
+    private final ExecutorService renders;
+
+    /**
+     * Creates a render engine that uses every core
+     */
+    public RenderEngine() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a render engine
+     *
+     * @param numberThreads Number of worker threads to render tiles on
+     */
+    public RenderEngine(int numberThreads) {
+        this.scheduler = new TileScheduler(numberThreads);
+        int engine = engineCount.incrementAndGet();
+        AtomicInteger renderCount = new AtomicInteger();
+        this.renders = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "Render_Engine_" + engine + "_" + renderCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Renders a whole image
+     *
+     * @param view View to render
+     * @return Future that gives the image, with its properties set
+     */
+    public Future<FractalImage> render(RenderView view) {
+        // Tasks write straight into the image, the future only gives it out once every tile is done
+        FractalImage image = new FractalImage(view.getWidth(), view.getHeight(), BufferedImage.TYPE_INT_RGB);
+        ViewContext context = new ViewContext(view, image);
+        return this.submit(context, () -> {
+            Symmetry symmetry = view.getFractal().getSymmetry();
+            for (Rectangle region : symmetry.getRegions(context)) {
+                this.renderTiles(context, region);
+            }
+            symmetry.fill(context, image);
+            image.setProperties(view.getImageProperties());
+            image.setColourProperties(view.getColourProperties());
+            return image;
+        });
+    }
+
+    /**
+     * Renders part of an image, as tiles
+     *
+     * @param view   View to render
+     * @param region Region of the image to render
+     * @return Future that gives the tiles that make up the region
+     */
+    public Future<List<ImageSegment>> render(RenderView view, Rectangle region) {
+        ViewContext context = new ViewContext(view);
+        return this.submit(context, () -> this.renderTiles(context, region));
+    }
+
+    /**
+     * Renders part of an image as tiles, on the calling thread.
+     * The region is still split into tiles and rendered on all of the engine's workers.
+     *
+     * @param context Context of the view to render
+     * @param region  Region of the image to render
+     * @return Tiles that make up the region, they have no pixels of their own if the context has a target
+     * @throws CancellationException if the context was cancelled
+     */
+    public List<ImageSegment> renderTiles(ViewContext context, Rectangle region) {
+        RenderView view = context.getView();
+        Complex complex = view.getComplex();
+        int tileSize = view.getTileSize();
+
+        // Subdivision needs tiles big enough to have interiors, adaptive tiles can be a pixel wide
+        if (view.isSubdivision() && tileSize == TileScheduler.AUTO) {
+            tileSize = RenderManagementThread.SUBDIVISION_TILE_SIZE;
+        }
+
+        return this.renderTiles(context, region, tileSize, bounds -> view.getFractal().createTask(context, bounds, complex));
+    }
+
+    /**
+     * Renders part of an image as tiles, on the calling thread, with tasks made by a factory.
+     * The region is still split into tiles and rendered on all of the engine's workers.
+     *
+     * @param context  Context the tasks render with, checked for cancellation
+     * @param region   Region of the image to render
+     * @param tileSize Size of tiles in pixels, or TileScheduler.AUTO
+     * @param factory  Creates the task that renders a tile
+     * @return Tiles that make up the region
+     * @throws CancellationException if the context was cancelled
+     * @throws IllegalStateException if any of the tiles failed to render
+     */
+    public List<ImageSegment> renderTiles(RenderContext context, Rectangle region, int tileSize, Function<Rectangle2D, Callable<ImageSegment>> factory) {
+        List<ImageSegment> segments = this.scheduler.render(region, tileSize, factory, context::isRenderCancelled);
+        if (context.isRenderCancelled()) {
+            throw new CancellationException("Render of " + region + " was cancelled.");
+        }
+        return segments;
+    }
+
+    /**
+     * Runs a render, cancelling the future cancels the context
+     */
+    private <T> Future<T> submit(ViewContext context, Callable<T> render) {
+        FutureTask<T> future = new FutureTask<T>(render) {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                context.cancel();
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        this.renders.execute(future);
+        return future;
+    }
+
+    /**
+     * Stops accepting renders, renders that have been started carry on
+     */
+    public void shutdown() {
+        this.renders.shutdown();
+    }
+}
@@ -3,17 +3,34 @@ package mandelbrot.management;
 import com.nativelibs4java.opencl.*;
 import mandelbrot.CacheManager;
 import mandelbrot.ConfigManager;
+import mandelbrot.DiskCacheManager;
 import mandelbrot.Main;
 import mandelbrot.events.RenderListener;
+import mandelbrot.metrics.RenderRecorder;
+import mandelbrot.metrics.RenderStatistics;
+import mandelbrot.render.Fractal;
+import mandelbrot.render.PerturbationTask;
+import mandelbrot.render.Precision;
 import mandelbrot.render.RecolourTask;
+import mandelbrot.render.RenderContext;
+import mandelbrot.render.RenderView;
+import mandelbrot.render.Symmetry;
+import mandelbrot.render.ViewContext;
 import org.bridj.Pointer;
 import utils.*;
 
 import java.awt.*;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.ArrayList;
-import java.util.concurrent.*;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 /**
  * Manages and delegates drawing/calculation threads
  *
@@ -21,18 +38,47 @@ import java.util.concurrent.*;
  * @since 27/02/2016
  */
 
-public abstract class RenderManagementThread extends Thread {
+public abstract class RenderManagementThread extends Thread implements RenderContext {
     private ArrayList<RenderListener> listeners;
 
     protected final Object runThread = new Object();
 
+    /**
+     * Incremented every time a render is requested
+     */
+    private final AtomicLong requestedGeneration = new AtomicLong();
+
+    /**
+     * Generation of the render in progress
+     */
+    private volatile long renderGeneration;
+
+    /**
+     * Generation that was cancelled without a new render being requested
+     */
+    private volatile long cancelledGeneration = -1;
+
     protected ImagePanel panel;
     private FractalImage image;
+
+    /**
+     * Last image that was completely rendered, and its escape radius, so it can be reused when panning
+     */
+    private FractalImage previousImage;
+    private final FrameBufferPool framePool;
+    private double previousEscapeRadiusSquared;
     protected boolean hasRendered = false;
 
+    /**
+     * Set when a tile of the render in progress failed, so the image has holes in it and mustn't be cached or reused
+     */
+    private boolean renderFailed;
+
     protected final ConfigManager config;
     protected final OpenClThread openClThread;
     protected final CacheManager cacheManager;
+    protected final DiskCacheManager diskCacheManager;
+    private final String fractalName;
 
     //region Image Properties
     protected double imgHeight;
@@ -41,6 +87,8 @@ public abstract class RenderManagementThread extends Thread {
     protected double escapeRadiusSquared;
     protected double xShift;
     protected double yShift;
+    protected BigDecimal preciseShiftX = BigDecimal.ZERO;
+    protected BigDecimal preciseShiftY = BigDecimal.ZERO;
     protected double scaleFactor;
     protected int iterations;
     protected float hue;
@@ -49,12 +97,94 @@ public abstract class RenderManagementThread extends Thread {
 
     protected double xScale;
     protected double yScale;
+
+    /**
+     * Maps the pixels of the image to the complex plane, and chooses its precision
+     */
+    private volatile ViewContext view;
+
+    protected ColourPalette palette;
+    protected Precision precision = Precision.DOUBLE;
+    protected boolean bulbCheck = true;
+    protected boolean periodicityCheck = true;
+    protected boolean subdivision = false;
+    protected boolean laneKernel = false;
+    //endregion
+
+    //region Deep Zoom
+    /**
+     * Engine to render deep zooms with, null if the fractal doesn't support it
+     */
+    protected PerturbationEngine perturbationEngine;
+    private boolean deepZoom = false;
     //endregion
 
     //region CPU Multithreading
-    protected ExecutorCompletionService<ImageSegment> executorService;
+    protected RenderEngine engine;
     protected int numberThreads;
-    protected int numberStrips;
+    //endregion
+
+    /**
+     * Tile size used to subdivide when tiles are sized automatically, auto tiles are narrow bands that are too thin to fill
+     */
+    protected static final int SUBDIVISION_TILE_SIZE = 64;
+
+    //region Progressive Rendering
+    /**
+     * Sample spacing of each pass, a quarter of the pixels are calculated in each pass.
+     * Steps have to divide TileScheduler.BAND_ALIGNMENT, so adaptive bands don't share grid samples
+     */
+    protected static final int[] PASS_STEPS = new int[]{4, 2, 1};
+
+    private int passStep = 1;
+    private int previousPassStep = 0;
+    private int passCount;
+    private float[] passSamples;
+    private long renderStartTime;
+    //endregion
+
+    //region Auto Iterations
+    /**
+     * Sample spacing of the pre-pass that chooses the iteration budget, one in every 64 pixels is calculated.
+     * Has to divide TileScheduler.BAND_ALIGNMENT, like the progressive pass steps
+     */
+    protected static final int AUTO_ITERATIONS_STEP = 8;
+
+    /**
+     * Smallest and largest budgets that can be chosen, budgets double from the smallest
+     */
+    protected static final int AUTO_MIN_ITERATIONS = 64;
+    protected static final int AUTO_MAX_ITERATIONS = 65536;
+
+    /**
+     * Largest fraction of the pre-pass samples that can still be escaping when the budget runs out
+     */
+    protected static final double AUTO_ITERATIONS_THRESHOLD = 0.002;
+
+    /**
+     * Number of views to remember the chosen budget of
+     */
+    protected static final int AUTO_ITERATIONS_VIEWS = 256;
+
+    private boolean autoIterations = false;
+
+    /**
+     * Budgets chosen for each view, least recently used first, keyed on the disk cache key of the view without its
+     * iterations. Changing the colours, or going back to a view, reuses the budget rather than running the pre-pass again.
+     */
+    private final LinkedHashMap<String, Integer> autoIterationBudgets = new LinkedHashMap<>(16, 0.75f, true);
+    //endregion
+
+    //region Statistics
+    /**
+     * Statistics of the render in progress
+     */
+    private RenderStatistics statistics;
+
+    /**
+     * Statistics of the last completed render
+     */
+    private volatile RenderStatistics lastStatistics;
     //endregion
 
     /**
@@ -67,6 +197,7 @@ public abstract class RenderManagementThread extends Thread {
         Log.Information("Loading Render Management Thread: '" + threadName + "'");
 
         this.setName("Render_Management_Thread_" + threadName);
+        this.fractalName = threadName;
         this.config = mainWindow.getConfigManager();
         this.panel = panel;
         this.openClThread = openCL;
@@ -75,19 +206,22 @@ public abstract class RenderManagementThread extends Thread {
         this.ocl_loadPrograms();
 
         this.cacheManager = new CacheManager();
+        this.diskCacheManager = mainWindow.getDiskCacheManager();
+        this.framePool = new FrameBufferPool(this::isPinned);
+
+        // Until the first render, points are mapped onto a pixel at the origin
+        this.view = new ViewContext(new RenderView(this.getFractal(), 1, 1, 0, 1, BigDecimal.ZERO, BigDecimal.ZERO));
 
         // Initialise Event Handling
         this.listeners = new ArrayList<>();
 
         // Initialise CPU Multithreaded Rendering
         this.numberThreads = Runtime.getRuntime().availableProcessors();
-        this.numberStrips = this.numberThreads * 2;
 
-        Log.Information("Multicore Processing: Using " + this.numberThreads + ", and " + this.numberStrips + " workers.");
+        Log.Information("Multicore Processing: Using " + this.numberThreads + " workers.");
 
-        // Get an executor service for the amount of cores we have
-        ExecutorService executorService = Executors.newFixedThreadPool(this.numberThreads);
-        this.executorService = new ExecutorCompletionService<>(executorService);
+        // Get a work stealing pool for the amount of cores we have
+        this.engine = new RenderEngine(this.numberThreads);
         Log.Information("Starting execution pool...");
     }
 
@@ -111,6 +245,24 @@ public abstract class RenderManagementThread extends Thread {
         return this.image;
     }
 
+    /**
+     * Gets the width of the image being rendered
+     *
+     * @return int, width in pixels
+     */
+    public final int getImageWidth() {
+        return this.image.getWidth();
+    }
+
+    /**
+     * Gets the height of the image being rendered
+     *
+     * @return int, height in pixels
+     */
+    public final int getImageHeight() {
+        return this.image.getHeight();
+    }
+
     /**
      * Gets escape radius squared
      *
@@ -156,6 +308,24 @@ public abstract class RenderManagementThread extends Thread {
         return this.yShift;
     }
 
+    /**
+     * Gets the exact X axis shift
+     *
+     * @return BigDecimal X axis shift
+     */
+    public BigDecimal getPreciseShiftX() {
+        return this.preciseShiftX;
+    }
+
+    /**
+     * Gets the exact Y axis shift
+     *
+     * @return BigDecimal Y axis shift
+     */
+    public BigDecimal getPreciseShiftY() {
+        return this.preciseShiftY;
+    }
+
     /**
      * Gets image hue offset
      *
@@ -190,6 +360,15 @@ public abstract class RenderManagementThread extends Thread {
         return this.brightness;
     }
 
+    /**
+     * Gets the palette used to colour the image
+     *
+     * @return ColourPalette
+     */
+    public final ColourPalette getPalette() {
+        return this.palette;
+    }
+
     /**
      * Gets the complex represented by point, p.
      *
@@ -208,10 +387,226 @@ public abstract class RenderManagementThread extends Thread {
      * @return Complex number
      */
     public final Complex getComplexFromPoint(double x, double y) {
-        x = (x - this.imgWidth / 2d) * this.xScale / this.scaleFactor + this.xShift;
-        y = (y - this.imgHeight / 2d) * this.yScale / this.scaleFactor + this.yShift;
+        return new Complex(this.getReal(x), this.getImaginary(y));
+    }
+
+    /**
+     * Gets the real component represented by x co-ordinate, x.
+     *
+     * @param x X co-ordinate
+     * @return double, real component
+     */
+    public final double getReal(double x) {
+        return this.view.getReal(x);
+    }
+
+    /**
+     * Gets the imaginary component represented by y co-ordinate, y.
+     *
+     * @param y Y co-ordinate
+     * @return double, imaginary component
+     */
+    public final double getImaginary(double y) {
+        return this.view.getImaginary(y);
+    }
+
+    /**
+     * Gets the real distance of x co-ordinate, x, from the centre of the image.
+     * Unlike getReal, this keeps its precision however far in we zoom.
+     *
+     * @param x X co-ordinate
+     * @return double, real offset
+     */
+    public final double getOffsetReal(double x) {
+        return this.view.getOffsetReal(x);
+    }
+
+    /**
+     * Gets the imaginary distance of y co-ordinate, y, from the centre of the image.
+     *
+     * @param y Y co-ordinate
+     * @return double, imaginary offset
+     */
+    public final double getOffsetImaginary(double y) {
+        return this.view.getOffsetImaginary(y);
+    }
+
+    /**
+     * Gets the exact real component represented by x co-ordinate, x, rounded to well within a pixel.
+     *
+     * @param x X co-ordinate
+     * @return BigDecimal, real component
+     */
+    public final BigDecimal getPreciseReal(double x) {
+        return this.getPreciseShiftX().add(new BigDecimal(this.getOffsetReal(x)))
+                .setScale(PerturbationEngine.getDecimalPlaces(this.getPixelSize()), RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * Gets the exact imaginary component represented by y co-ordinate, y, rounded to well within a pixel.
+     *
+     * @param y Y co-ordinate
+     * @return BigDecimal, imaginary component
+     */
+    public final BigDecimal getPreciseImaginary(double y) {
+        return this.getPreciseShiftY().add(new BigDecimal(this.getOffsetImaginary(y)))
+                .setScale(PerturbationEngine.getDecimalPlaces(this.getPixelSize()), RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * Gets the real component represented by x co-ordinate, x, in double-double precision.
+     *
+     * @param x X co-ordinate
+     * @return DoubleDouble, real component
+     */
+    public final DoubleDouble getDoubleDoubleReal(double x) {
+        return this.view.getDoubleDoubleReal(x);
+    }
 
-        return new Complex(x, y);
+    /**
+     * Gets the imaginary component represented by y co-ordinate, y, in double-double precision.
+     *
+     * @param y Y co-ordinate
+     * @return DoubleDouble, imaginary component
+     */
+    public final DoubleDouble getDoubleDoubleImaginary(double y) {
+        return this.view.getDoubleDoubleImaginary(y);
+    }
+
+    /**
+     * Returns whether points in the main cardioid and period 2 bulb should be skipped
+     *
+     * @return true if the bulb check is enabled
+     */
+    public final boolean isBulbCheck() {
+        return this.bulbCheck;
+    }
+
+    /**
+     * Returns whether orbits should be checked for cycles
+     *
+     * @return true if periodicity checking is enabled
+     */
+    public final boolean isPeriodicityCheck() {
+        return this.periodicityCheck;
+    }
+
+    /**
+     * Returns whether tiles should be rendered by subdividing them
+     *
+     * @return true if subdivision is enabled, and the fractal supports it
+     */
+    public final boolean isSubdivision() {
+        return this.subdivision;
+    }
+
+    /**
+     * Returns whether rows should be rendered with the lane kernel, which iterates several pixels at once
+     *
+     * @return true if the lane kernel is enabled
+     */
+    public final boolean isLaneKernel() {
+        return this.laneKernel;
+    }
+
+    /**
+     * Gets how close an orbit has to come to a previous point to be treated as a cycle.
+     * This is well within a pixel, so points that would escape aren't caught.
+     *
+     * @return double, tolerance
+     */
+    public final double getPeriodicityTolerance() {
+        return this.view.getPeriodicityTolerance();
+    }
+
+    /**
+     * Gets the precision the image is rendered at
+     *
+     * @return Precision
+     */
+    public final Precision getPrecision() {
+        return this.precision;
+    }
+
+    /**
+     * Gets the size of a pixel in the complex plane
+     *
+     * @return double, pixel size
+     */
+    public final double getPixelSize() {
+        return this.view.getPixelSize();
+    }
+
+    /**
+     * Returns whether the image is too deep for doubles, and is rendered with perturbation
+     *
+     * @return true if the image is a deep zoom
+     */
+    public final boolean isDeepZoom() {
+        return this.deepZoom;
+    }
+
+    /**
+     * Gets the spacing of pixels calculated in the current pass, 1 if every pixel is calculated
+     *
+     * @return int pass step
+     */
+    public final int getPassStep() {
+        return this.passStep;
+    }
+
+    /**
+     * Gets the spacing of pixels calculated in the previous pass, 0 if there wasn't a previous pass
+     *
+     * @return int previous pass step
+     */
+    public final int getPreviousPassStep() {
+        return this.previousPassStep;
+    }
+
+    /**
+     * Gets the smooth iteration counts of pixels calculated in the passes so far
+     *
+     * @return float[] samples, in image order
+     */
+    public final float[] getPassSamples() {
+        return this.passSamples;
+    }
+
+    /**
+     * Returns whether the render in progress has been superseded by a newer request
+     *
+     * @return true if the render should be abandoned
+     */
+    public final boolean isRenderCancelled() {
+        return this.renderGeneration != this.requestedGeneration.get() || this.renderGeneration == this.cancelledGeneration;
+    }
+
+    /**
+     * Gets the image being rendered, tasks write their pixels straight into it
+     *
+     * @return FractalImage
+     */
+    public final FractalImage getTarget() {
+        return this.image;
+    }
+
+    /**
+     * Gets the statistics of the last completed render
+     *
+     * @return RenderStatistics, or null if nothing has rendered yet
+     */
+    public final RenderStatistics getStatistics() {
+        return this.lastStatistics;
+    }
+
+    /**
+     * Gets the cache of rendered images
+     *
+     * @return CacheManager
+     */
+    public final CacheManager getCacheManager() {
+        return this.cacheManager;
     }
 
     /**
@@ -230,6 +625,13 @@ public abstract class RenderManagementThread extends Thread {
         this.listeners.add(listener);
     }
 
+    private void fireRenderPassComplete(int pass) {
+        long elapsedTime = System.nanoTime() - this.renderStartTime;
+        for (RenderListener l : this.listeners) {
+            l.renderPassComplete(pass, this.passCount, elapsedTime);
+        }
+    }
+
     private void fireRenderComplete() {
         this.listeners.forEach(RenderListener::renderComplete);
     }
@@ -237,7 +639,9 @@ public abstract class RenderManagementThread extends Thread {
 
     //region Public Thread Unblocking
     /*
-     * Prevents calling threads from entering a blocked state whilst the render processes
+     * Prevents calling threads from entering a blocked state whilst the render processes.
+     * Each request bumps the generation, so requests made during a render cancel it, and
+     * any number of requests made whilst rendering result in one render of the latest config.
      */
 
     @Override
@@ -245,26 +649,40 @@ public abstract class RenderManagementThread extends Thread {
         Log.Information(this.getName() + " started!");
         while (!this.isInterrupted()) {
 
-            // Dispatch render method as appropriate to notify
+            // Wait until there is a generation we haven't rendered
             synchronized (this.runThread) {
                 try {
-                    this.runThread.wait();
-                    this.doRender();
+                    while (this.renderGeneration == this.requestedGeneration.get()) {
+                        this.runThread.wait();
+                    }
                 } catch (InterruptedException e) {
                     break;
                 }
+                this.renderGeneration = this.requestedGeneration.get();
             }
+
+            // Render outside of the lock so render() never blocks
+            this.doRender();
         }
     }
 
     /**
-     * Public method to notify the thread to call doRender without blocking
+     * Public method to notify the thread to call doRender without blocking.
+     * Cancels the render in progress, if there is one.
      */
     public void render() {
         synchronized (this.runThread) {
+            this.requestedGeneration.incrementAndGet();
             this.runThread.notify();
         }
     }
+
+    /**
+     * Cancels the render in progress, if there is one, without requesting another
+     */
+    protected final void cancelRender() {
+        this.cancelledGeneration = this.requestedGeneration.get();
+    }
     //endregion
 
     //region Render Processing
@@ -274,34 +692,82 @@ public abstract class RenderManagementThread extends Thread {
      * @return ImageProperties
      */
     protected ImageProperties getRenderProperties(){
-        return new ImageProperties((int) this.imgWidth, (int) this.imgHeight, this.getIterations(), this.getScale(), this.getShiftX(), this.getShiftY());
+        ImageProperties properties = new ImageProperties((int) this.imgWidth, (int) this.imgHeight, this.getIterations(), this.getScale(), this.getShiftX(), this.getShiftY());
+        properties.setPreciseShift(this.getPreciseShiftX(), this.getPreciseShiftY());
+        return properties;
     }
 
     /**
      * Private method to do the render
      */
     private void doRender() {
-        // Create image
-        this.image = FractalImage.fromBufferedImage(this.panel.createImage());
+        this.renderStartTime = System.nanoTime();
+        this.passCount = 1;
+        this.renderFailed = false;
+        this.statistics = new RenderStatistics(this.fractalName, this.panel.getWidth(), this.panel.getHeight());
+
+        // Get a back buffer to render into, the panel only sees it once every tile has been written
+        this.image = this.framePool.acquire(this.panel.getWidth(), this.panel.getHeight());
 
         // Update image properties for this render
         this.updateImageProperties();
 
+        // Choose the budget before the caches are checked, so images are cached with the budget they were rendered at
+        if (this.autoIterations) {
+            this.iterations = 0;
+            String viewKey = DiskCacheManager.getKey(this.fractalName, this.getRenderProperties(), this.getEscapeRadiusSquared(), this.precision);
+            Integer budget = this.autoIterationBudgets.get(viewKey);
+            if (budget == null) {
+                budget = this.tuneIterations();
+                if (this.isRenderCancelled()) {
+                    this.framePool.release(this.image);
+                    return;
+                }
+                if (budget == -1) {
+                    // Render at the iterations set by the user, and leave the view to be tuned again next time
+                    budget = this.config.getIterations();
+                } else {
+                    this.autoIterationBudgets.put(viewKey, budget);
+                }
+                if (this.autoIterationBudgets.size() > AUTO_ITERATIONS_VIEWS) {
+                    this.autoIterationBudgets.remove(this.autoIterationBudgets.keySet().iterator().next());
+                }
+            }
+            this.iterations = budget;
+        }
+        this.statistics.setIterationBudget(this.iterations, this.autoIterations);
+
+        // There are no OpenCL kernels for deep zooms or custom formulas, so they render on the CPU
+        boolean useOpenCL = this.config.useOpenCL() && this.hasOpenCLKernel() && !this.deepZoom && this.precision != Precision.DOUBLE_DOUBLE;
+
+        // If we've only moved, snap to whole pixels so we can reuse the last image (OpenCL renders the whole image anyway)
+        // Deep zooms and double-double images aren't snapped, as their shift is only exact as a BigDecimal
+        Point panOffset = useOpenCL || this.deepZoom || this.precision == Precision.DOUBLE_DOUBLE ? null : this.snapPan();
+
         // Check if image is cached
-        boolean fullRender = true;
+        FractalImage recolourSource = null;
 
         // Create image properties
         ImageProperties properties = this.getRenderProperties();
-        ImageColourProperties colourProperties = new ImageColourProperties(this.getHue(), this.getSaturation(), this.getBrightness());
+        ImageColourProperties colourProperties = this.palette.getColourProperties();
 
         // If cache is enabled, do cache stuff
         if (!this.config.isCacheDisabled()) {
+            this.cacheManager.setMaxSize(this.config.getCacheSize());
+            this.cacheManager.setSoftSpill(this.config.isCacheSoftSpill());
 
             // If image is cached with both properties and colours, retrieve it and display it.
-            if (this.cacheManager.isCached(properties, colourProperties)) {
+            FractalImage cachedImage = this.cacheManager.getImage(properties, colourProperties);
+            if (cachedImage != null) {
                 Log.Information("Displaying cached image. " + properties.toString() + "/" + colourProperties.toString());
-                this.image = this.cacheManager.getImage(properties, colourProperties);
+                this.statistics.setCacheResult(RenderStatistics.CacheResult.HIT);
+                this.statistics.startPhase(RenderStatistics.Phase.ASSEMBLE);
+                this.framePool.release(this.image);
+                this.image = cachedImage;
+                this.setPreviousImage();
                 this.panel.setImage(this.image, true);
+                this.finishStatistics();
+                this.fireRenderPassComplete(1);
                 this.fireRenderComplete();
                 this.hasRendered = true;
                 return;
@@ -309,40 +775,70 @@ public abstract class RenderManagementThread extends Thread {
 
             // If image with same properties (dimensions, iterations, etc) is cached, use this
             // as recolouring is quicker than rendering
-            if (this.cacheManager.isCached(properties)) {
+            // Recolour into the new image, so the cached image keeps its colours
+            recolourSource = this.cacheManager.findRecolourSource(properties);
+            if (recolourSource != null) {
                 Log.Information("Recolouring cached image. " + properties.toString());
-                this.image = this.cacheManager.getImage(properties);
-                Log.Information(" - from: " + this.image.getColourProperties().toString());
+                Log.Information(" - from: " + recolourSource.getColourProperties().toString());
                 Log.Information(" - to  : " + colourProperties.toString());
-                fullRender = false;
+                this.statistics.setCacheResult(RenderStatistics.CacheResult.RECOLOUR);
             }
         }
 
-        if (this.config.useOpenCL()) {
+        // Check the disk cache before doing any rendering, the image can be coloured from the smooth iteration counts
+        String diskCacheKey = DiskCacheManager.getKey(this.fractalName, properties, this.getEscapeRadiusSquared(), this.precision);
+        boolean fromDisk = false;
+        this.statistics.startPhase(RenderStatistics.Phase.COMPUTE);
+        if (recolourSource == null && this.config.useDiskCache() && this.diskCacheManager.read(diskCacheKey, this.image)) {
+            Log.Information("Loaded image from disk cache. " + properties.toString());
+            this.statistics.setCacheResult(RenderStatistics.CacheResult.DISK);
+            this.colourImage();
+            fromDisk = true;
+        } else if (useOpenCL) {
+            this.statistics.setBackend(RenderStatistics.Backend.OPENCL);
             try {
-                this.runOpenCL_render(fullRender);
+                this.runOpenCL_render(recolourSource);
             } catch (CLException e){
 
                 // Fallback to CPU if OpenCL failed (for whatever reason)
                 this.config.disableOpenCL();
                 e.printStackTrace();
             }
+        } else if (recolourSource == null && panOffset != null && (panOffset.x != 0 || panOffset.y != 0)) {
+            this.runPan_render(panOffset);
         } else {
-            this.runCPU_render(fullRender);
+            this.runCPU_render(recolourSource);
+        }
+
+        // A newer render has been requested, so this image may be incomplete and is out of date anyway
+        if (this.isRenderCancelled()) {
+            Log.Information("Render cancelled. " + properties.toString());
+            this.framePool.release(this.image);
+            return;
         }
+        this.statistics.startPhase(RenderStatistics.Phase.ASSEMBLE);
 
         // Update image properties
         this.image.setProperties(properties);
         this.image.setColourProperties(colourProperties);
 
-        // Cache the image if cache is enabled
-        if(!this.config.isCacheDisabled()) {
-            this.cacheManager.cacheImage(this.image);
+        // Cache the image if cache is enabled, an image with failed tiles is still displayed, but never kept
+        if (this.renderFailed) {
+            Log.Warning("Render incomplete, not caching it. " + properties.toString());
+        } else {
+            if(!this.config.isCacheDisabled()) {
+                this.cacheManager.cacheImage(this.image);
+            }
+            if(recolourSource == null && !fromDisk && this.config.useDiskCache()) {
+                this.diskCacheManager.write(diskCacheKey, this.image);
+            }
+            this.setPreviousImage();
         }
-
         this.panel.setImage(this.image, true);
+        this.finishStatistics();
 
         // Let everyone listening to us know that we're done
+        this.fireRenderPassComplete(this.passCount);
         this.fireRenderComplete();
         this.hasRendered = true;
     }
@@ -355,25 +851,55 @@ public abstract class RenderManagementThread extends Thread {
      */
     protected abstract Callable<ImageSegment> createTask(Rectangle2D bounds);
 
+    /**
+     * Renders a region on the tile scheduler, and adds its tiles to the statistics of the render
+     *
+     * @param region   Region to render
+     * @param tileSize Size of tiles in pixels, or TileScheduler.AUTO
+     * @param factory  Creates the task that renders a tile
+     */
+    private void renderTiles(Rectangle region, int tileSize, Function<Rectangle2D, Callable<ImageSegment>> factory) {
+        try {
+            this.statistics.addTiles(this.engine.renderTiles(this, region, tileSize, factory));
+        } catch (CancellationException ignored) {
+            // The render checks for cancellation after each pass
+        } catch (IllegalStateException ex) {
+            Log.Error(ex.getMessage());
+            this.renderFailed = true;
+        }
+    }
+
+    /**
+     * Finishes the statistics of the render, then logs and records them
+     */
+    private void finishStatistics() {
+        this.statistics.finish();
+        Log.Information("Render statistics: " + this.statistics.toString());
+        RenderRecorder.recordRender(this.statistics);
+        this.lastStatistics = this.statistics;
+    }
+
     /**
      * Creates the Open CL Kernel for execution
      *
-     * @param dimension    Dimensions of image to render
-     * @param results Buffer to put results into
+     * @param dimension        Dimensions of image to render
+     * @param results          Buffer to put results into
+     * @param smoothIterations Buffer to put smooth iteration counts into
      * @return CLKernel to execute
      */
-    protected abstract CLKernel createOpenCLKernel(Dimension dimension, CLBuffer<Integer> results);
+    protected abstract CLKernel createOpenCLKernel(Dimension dimension, CLBuffer<Integer> results, CLBuffer<Float> smoothIterations);
 
     /**
      * Renders the image using OpenCL
+     * @param recolourSource Image to recolour, or null to render the image
      * @throws CLException Throw if there was an error whilst executing
      */
-    private void runOpenCL_render(boolean fullRender) throws CLException {
+    private void runOpenCL_render(FractalImage recolourSource) throws CLException {
         boolean shouldDisableOpenCL = true;
 
-        if(!fullRender){
+        if(recolourSource != null){
             // If we are recolouring, do the recolour
-            this.ocl_recolourImage();
+            this.ocl_recolourImage(recolourSource);
             return;
         }
         try {
@@ -383,13 +909,15 @@ public abstract class RenderManagementThread extends Thread {
             // Create results buffer and pointer
             Pointer<Integer> results = Pointer.allocateInts(dimensions.height * dimensions.width);
             CLBuffer<Integer> resultsBuffer = this.openClThread.getContext().createIntBuffer(CLMem.Usage.Output, results, false);
+            Pointer<Float> smoothIterations = Pointer.allocateFloats(dimensions.height * dimensions.width);
+            CLBuffer<Float> smoothIterationsBuffer = this.openClThread.getContext().createFloatBuffer(CLMem.Usage.Output, smoothIterations, false);
 
             // Get Render kernel, queue it, and wait for it to finish
-            CLKernel kernel = this.createOpenCLKernel(dimensions, resultsBuffer);
+            CLKernel kernel = this.createOpenCLKernel(dimensions, resultsBuffer, smoothIterationsBuffer);
 
             if (kernel == null) {
                 this.config.disableOpenCL();
-                this.runCPU_render(fullRender);
+                this.runCPU_render(null);
                 return;
             }
 
@@ -404,6 +932,8 @@ public abstract class RenderManagementThread extends Thread {
 
             // Paint the colours onto the image
             this.image.setRGB(0, 0, (int) this.imgWidth, (int) this.imgHeight, results.getInts(), 0, (int) this.imgWidth);
+            smoothIterations = smoothIterationsBuffer.read(queue);
+            smoothIterations.getFloats(this.image.getSmoothIterations());
 
             shouldDisableOpenCL = false;
 
@@ -422,116 +952,317 @@ public abstract class RenderManagementThread extends Thread {
 
     /**
      * Runs the render on the CPU
+     * @param recolourSource Image to recolour, or null to render the image
      */
-    private void runCPU_render(boolean fullRender) {
-        int stripWidth = (int) Math.floor(this.imgWidth / this.numberStrips);
-        Rectangle2D bounds;
-        int start;
+    private void runCPU_render(FractalImage recolourSource) {
+        Rectangle region = new Rectangle(0, 0, (int) this.imgWidth, (int) this.imgHeight);
+        this.statistics.setBackend(RenderStatistics.Backend.CPU);
+
+        // Split the image into tiles and render them
+        if (recolourSource != null) {
+            float[] source = recolourSource.getSmoothIterations();
+            this.renderTiles(region, this.config.getTileSize(), bounds -> new RecolourTask(this, bounds, source));
+        } else if (this.deepZoom) {
+            this.runPerturbation_render(region);
+        } else if (this.config.isProgressiveRender()) {
+            this.runProgressive_render(region);
+        } else {
+            // Only render the parts of the image that can't be filled in by symmetry
+            Symmetry symmetry = this.getSymmetry();
+            for (Rectangle symmetryRegion : symmetry.getRegions(this)) {
+                this.renderTiles(symmetryRegion, this.getTileSize(), this::createTask);
+            }
+            this.statistics.startPhase(RenderStatistics.Phase.ASSEMBLE);
+            symmetry.fill(this, this.image);
+            this.statistics.startPhase(RenderStatistics.Phase.COMPUTE);
+            if (this.subdivision && this.config.verifySubdivision()) {
+                this.verifySubdivision(region);
+            }
+        }
+    }
 
-        Callable<ImageSegment> task;
+    /**
+     * Gets the size of tiles to render the image in
+     *
+     * @return int, tile size, or TileScheduler.AUTO
+     */
+    private int getTileSize() {
+        int tileSize = this.config.getTileSize();
+        if (this.subdivision && tileSize == TileScheduler.AUTO) {
+            return SUBDIVISION_TILE_SIZE;
+        }
+        return tileSize;
+    }
 
-        // Queue up strips to be calculated
-        for (int i = 0; i < this.numberStrips; i++) {
+    /**
+     * Renders the image again without subdivision, and logs the number of pixels that differ from the subdivided render.
+     * The full render is written to a scratch image, and the subdivided image is kept.
+     *
+     * @param region Region to render
+     */
+    private void verifySubdivision(Rectangle region) {
+        FractalImage subdivided = this.image;
+
+        long startTime = System.nanoTime();
+        this.subdivision = false;
+        this.image = this.framePool.acquire(subdivided.getWidth(), subdivided.getHeight());
+        FractalImage scratch = this.image;
+        float[] full = scratch.getSmoothIterations();
+
+        // A failed tile only spoils the comparison, not the subdivided image that is kept
+        boolean renderFailed = this.renderFailed;
+        boolean verifyFailed;
+        try {
+            this.renderTiles(region, this.getTileSize(), this::createTask);
+        } finally {
+            verifyFailed = this.renderFailed && !renderFailed;
+            this.renderFailed = renderFailed;
+            this.subdivision = true;
+            this.image = subdivided;
+            this.framePool.release(scratch);
+        }
+        if (this.isRenderCancelled() || verifyFailed) return;
+        long time = System.nanoTime() - startTime;
+
+        // Compare the region of the full render with the subdivided image
+        float[] subdividedIterations = subdivided.getSmoothIterations();
+        int differences = 0;
+        for (int y = region.y; y < region.y + region.height; y++) {
+            for (int x = region.x; x < region.x + region.width; x++) {
+                int index = y * subdivided.getWidth() + x;
+                if (Float.compare(full[index], subdividedIterations[index]) != 0) {
+                    differences++;
+                }
+            }
+        }
+        Log.Information(String.format("Subdivision verify: %d of %d pixel(s) differ from the full render (full render took %.1fms).",
+                differences, region.width * region.height, time / 1e6));
+    }
+
+    /**
+     * Chooses the iteration budget from a sparse pre-pass.
+     * The pre-pass is rendered at a probe budget into a scratch image, and the smallest budget below it that leaves
+     * few enough pixels undecided is chosen. If there isn't one, the boundary needs more iterations than the probe,
+     * so the probe is doubled and the pre-pass rendered again.
+     *
+     * @return int, iteration budget, or -1 if the pre-pass failed
+     */
+    private int tuneIterations() {
+        long startTime = System.nanoTime();
+        int width = (int) this.imgWidth;
+        int height = (int) this.imgHeight;
+        Rectangle region = new Rectangle(0, 0, width, height);
+        if (this.passSamples == null || this.passSamples.length != width * height) {
+            this.passSamples = new float[width * height];
+        }
 
-            // If first strip, start at 0
-            if (i == 0) {
-                start = 0;
-            } else {
-                // Otherwise start at -1
-                start = i * stripWidth;
+        FractalImage image = this.image;
+        this.image = this.framePool.acquire(width, height);
+        FractalImage scratch = this.image;
+        this.passStep = AUTO_ITERATIONS_STEP;
+
+        int budget = AUTO_MAX_ITERATIONS;
+        EscapeHistogram histogram = null;
+        try {
+            for (int probe = AUTO_MIN_ITERATIONS * 2; probe <= AUTO_MAX_ITERATIONS; probe *= 2) {
+                this.iterations = probe;
+                // The pre-pass is timed as part of setup, so its tiles aren't added to the statistics
+                try {
+                    this.engine.renderTiles(this, region, this.config.getTileSize(), this::createTask);
+                } catch (CancellationException ex) {
+                    return budget;
+                } catch (IllegalStateException ex) {
+                    Log.Error("Auto iterations pre-pass failed. " + ex.getMessage());
+                    return -1;
+                }
+
+                histogram = new EscapeHistogram(AUTO_MIN_ITERATIONS, probe);
+                for (int y = 0; y < height; y += AUTO_ITERATIONS_STEP) {
+                    for (int x = 0; x < width; x += AUTO_ITERATIONS_STEP) {
+                        histogram.add(this.passSamples[y * width + x]);
+                    }
+                }
+                int selected = histogram.select(AUTO_ITERATIONS_THRESHOLD);
+                if (selected != -1) {
+                    budget = selected;
+                    break;
+                }
             }
-            if (i == this.numberStrips - 1) {
-                bounds = new Rectangle2D.Double(start, 0, this.imgWidth - start, this.imgHeight);
-            } else {
-                bounds = new Rectangle2D.Double(start, 0, stripWidth, this.imgHeight);
+
+            // Nothing escaped at the largest probe, so the whole view is inside, and any budget draws it the same
+            if (histogram.getInside() == histogram.getSamples()) {
+                budget = AUTO_MIN_ITERATIONS;
             }
+        } finally {
+            this.passStep = 1;
+            this.image = image;
+            this.framePool.release(scratch);
+        }
 
-            // Dispatch task to execution service
-            if (fullRender) {
-                task = this.createTask(bounds);
-            } else {
-                task = new RecolourTask(this, bounds);
+        Log.Information(String.format("Auto iterations: chose %d, %.2f%% of %d sample(s) undecided, %.2f%% inside (took %.1fms).",
+                budget, 100 * histogram.getUndecidedFraction(budget), histogram.getSamples(),
+                100d * histogram.getInside() / histogram.getSamples(), (System.nanoTime() - startTime) / 1e6));
+        return budget;
+    }
+
+    /**
+     * Renders a panned image by moving the previous image, and only rendering the area that has been exposed
+     *
+     * @param offset Number of pixels moved in each direction
+     */
+    private void runPan_render(Point offset) {
+        FractalImage previous = this.previousImage;
+        int width = (int) this.imgWidth;
+        int height = (int) this.imgHeight;
+        int dx = offset.x;
+        int dy = offset.y;
+        Log.Information("Panning by (" + dx + ", " + dy + "), rendering exposed area only.");
+
+        // Pixel (x, y) of this image is pixel (x + dx, y + dy) of the previous one
+        // Copy the pixels too if they're the right colour, otherwise colour them from the smooth iteration counts
+        boolean copyPixels = previous.getColourProperties().equals(this.palette.getColourProperties());
+        float[] source = previous.getSmoothIterations();
+        float[] destination = this.image.getSmoothIterations();
+        int[] sourcePixels = previous.getPixels();
+        int[] destinationPixels = this.image.getPixels();
+        int sourceX = Math.max(dx, 0);
+        int destinationX = Math.max(-dx, 0);
+        int columns = width - Math.abs(dx);
+        for (int y = Math.max(-dy, 0); y < height - Math.max(dy, 0); y++) {
+            System.arraycopy(source, (y + dy) * width + sourceX, destination, y * width + destinationX, columns);
+            if (copyPixels) {
+                System.arraycopy(sourcePixels, (y + dy) * width + sourceX, destinationPixels, y * width + destinationX, columns);
             }
-            this.executorService.submit(task);
+        }
+        if (!copyPixels) {
+            this.colourImage();
         }
 
-        Future<ImageSegment> result;
-        ImageSegment imgSeg;
-        Graphics2D g = (Graphics2D) this.image.getGraphics();
+        // Render the exposed L shaped border, as a column strip and a row strip
+        int stripX = dx > 0 ? width - dx : 0;
+        int stripY = dy > 0 ? height - dy : 0;
+        Rectangle columnStrip = new Rectangle(stripX, 0, Math.abs(dx), height);
+        Rectangle rowStrip = new Rectangle(destinationX, stripY, columns, Math.abs(dy));
 
-        // Get results from strips
-        for (int i = 0; i < this.numberStrips; i++) {
-            try {
-                // Get result from Executor Completion Service (this method is blocking)
-                result = this.executorService.take();
+        this.renderTiles(columnStrip, this.getTileSize(), this::createTask);
+        this.renderTiles(rowStrip, this.getTileSize(), this::createTask);
+    }
 
-                // If result failed, skip it
-                if (!result.isDone()) {
-                    Log.Warning("Failed to calculate segment.");
-                    continue;
-                }
+    /**
+     * Renders a deep zoom using perturbation.
+     * The first pass renders every pixel against a reference at the centre, then each pass re-renders the
+     * glitched pixels against a reference in the worst glitch until there are none left.
+     *
+     * @param region Region to render
+     */
+    private void runPerturbation_render(Rectangle region) {
+        PerturbationEngine engine = this.perturbationEngine;
+        engine.reset(region.width * region.height);
+
+        PerturbationEngine.ReferenceOrbit reference = engine.getCentreReference();
+        float[] previous = null;
+        int references = 0;
+
+        while (reference != null && !this.isRenderCancelled()) {
+            PerturbationEngine.ReferenceOrbit orbit = reference;
+            float[] source = previous;
+            this.renderTiles(region, this.config.getTileSize(), bounds -> new PerturbationTask(this, bounds, orbit, engine, source));
+            previous = this.image.getSmoothIterations();
+
+            if (++references == PerturbationEngine.MAX_REFERENCES) break;
+            reference = engine.getGlitchReference();
+        }
 
-                // Try to get result and reconstruct the image
-                try {
-                    imgSeg = result.get();
-                    g.drawImage(imgSeg.getImage(), (int) imgSeg.getBounds().getX(), (int) imgSeg.getBounds().getY(), null);
-                } catch (ExecutionException ex) {
-                    Log.Warning("Failed to calculate segment.\n" + ex.getMessage());
-                }
+        if (!this.isRenderCancelled()) {
+            int glitches = engine.getGlitchCount();
+            Log.Information("Perturbation render used " + references + " reference(s)" + (glitches == 0 ? "." : ", " + glitches + " pixel(s) still glitched."));
+        }
+    }
+
+    /**
+     * Runs the render on the CPU as a series of passes, coarse to fine.
+     * Each pass is painted to the image panel as soon as it completes.
+     *
+     * @param region Region to render
+     */
+    private void runProgressive_render(Rectangle region) {
+        int size = region.width * region.height;
+        if (this.passSamples == null || this.passSamples.length != size) {
+            this.passSamples = new float[size];
+        }
+        this.passCount = PASS_STEPS.length;
+
+        for (int pass = 0; pass < PASS_STEPS.length; pass++) {
+            this.passStep = PASS_STEPS[pass];
+            this.previousPassStep = pass == 0 ? 0 : PASS_STEPS[pass - 1];
+
+            this.renderTiles(region, this.config.getTileSize(), this::createTask);
+            if (this.isRenderCancelled()) break;
 
-            } catch (InterruptedException e) {
-                break;
+            // Display interim frames, the final frame is displayed once the render has been cached
+            if (pass != PASS_STEPS.length - 1) {
+                this.panel.setImage(this.image, true);
+                this.fireRenderPassComplete(pass + 1);
             }
         }
-        g.dispose();
+
+        this.passStep = 1;
+        this.previousPassStep = 0;
+    }
+
+    /**
+     * Colours the image from its smooth iteration counts
+     */
+    private void colourImage() {
+        int[] pixels = this.image.getPixels();
+        this.palette.colour(this.image.getSmoothIterations(), pixels, 0, pixels.length);
     }
 
-    private void ocl_recolourImage() {
+    /**
+     * Recolours an image using OpenCL, by looking up the smooth iteration counts in the palette
+     *
+     * @param recolourSource Image to recolour
+     */
+    private void ocl_recolourImage(FractalImage recolourSource) {
         try {
             CLQueue queue = this.openClThread.getQueue();
             Dimension dimensions = new Dimension((int) this.imgWidth, (int) this.imgHeight);
 
-            int[] pixelRGBs = new int[dimensions.height * dimensions.width];
-            this.image.getRGB(0, 0, dimensions.width, dimensions.height, pixelRGBs, 0, dimensions.width);
-
-            // Create results buffer and pointer
-            Pointer<Integer> pixels = Pointer.pointerToInts(pixelRGBs);
-            CLBuffer<Integer> pixelsBuffer = this.openClThread.getContext().createIntBuffer(CLMem.Usage.InputOutput, pixels, false);
-
-            ImageColourProperties oldImgColour = this.image.getColourProperties();
+            // Create smooth iteration, palette and results buffers
+            Pointer<Float> smoothIterations = Pointer.pointerToFloats(recolourSource.getSmoothIterations());
+            CLBuffer<Float> smoothIterationsBuffer = this.openClThread.getContext().createFloatBuffer(CLMem.Usage.Input, smoothIterations, false);
+            Pointer<Integer> palette = Pointer.pointerToInts(this.palette.getTable());
+            CLBuffer<Integer> paletteBuffer = this.openClThread.getContext().createIntBuffer(CLMem.Usage.Input, palette, false);
+            Pointer<Integer> pixels = Pointer.allocateInts(dimensions.height * dimensions.width);
+            CLBuffer<Integer> pixelsBuffer = this.openClThread.getContext().createIntBuffer(CLMem.Usage.Output, pixels, false);
 
-            // Create hue to RGB kernel
+            // Create palette lookup kernel
             CLKernel kernel = this.openClThread.getProgram("recolour").createKernel(
                     "recolour",
-                    pixelsBuffer,
+                    smoothIterationsBuffer,
+                    paletteBuffer,
+                    ColourPalette.SIZE,
+                    this.getHue(),
+                    ColourPalette.ITERATIONS_PER_CYCLE,
                     dimensions.width,
-                    oldImgColour.getHue(),
-                    oldImgColour.getSaturation(),
-                    oldImgColour.getBrightness(),
-                    this.config.getHue(),
-                    this.config.getSaturation(),
-                    this.config.getBrightness()
+                    pixelsBuffer
             );
 
             if (kernel == null) {
                 this.config.disableOpenCL();
-                this.runCPU_render(false);
+                this.runCPU_render(recolourSource);
                 return;
             }
 
-
             // Queue it, and wait for it to finish
             kernel.enqueueNDRange(queue, new int[]{dimensions.width, dimensions.height}, new int[]{1, 1});
             queue.finish();
 
-
-            kernel.enqueueNDRange(queue, new int[]{dimensions.width, dimensions.height}, new int[]{1, 1});
-            queue.finish();
-
             pixels = pixelsBuffer.read(queue);
 
-            // Paint the colours onto the image
+            // Paint the colours onto the image, and keep the smooth iteration counts so it can be recoloured again
             this.image.setRGB(0, 0, (int) this.imgWidth, (int) this.imgHeight, pixels.getInts(), 0, (int) this.imgWidth);
+            System.arraycopy(recolourSource.getSmoothIterations(), 0, this.image.getSmoothIterations(), 0, dimensions.height * dimensions.width);
 
         } catch (CLException.OutOfResources ex) {
             Log.Error("OpenCL render failed with CL_OUT_OF_RESOURCES.");
@@ -545,6 +1276,115 @@ public abstract class RenderManagementThread extends Thread {
 
     //region Image Properties
 
+    /**
+     * Remembers the current image so it can be reused if the next render is a pan
+     */
+    private void setPreviousImage() {
+        FractalImage replaced = this.previousImage;
+        this.previousImage = this.image;
+        this.previousEscapeRadiusSquared = this.escapeRadiusSquared;
+
+        // The image being replaced is about to come off the panel, so it can be the next back buffer
+        if (replaced != this.image) {
+            this.framePool.release(replaced);
+        }
+    }
+
+    /**
+     * Returns whether an image is still held by something, so it can't be rendered into
+     *
+     * @param image Image to check
+     * @return true if the image is displayed, panned from, cached, or being written to the disk cache
+     */
+    private boolean isPinned(FractalImage image) {
+        return image == this.previousImage
+                || image == this.panel.getImage()
+                || this.cacheManager.contains(image)
+                || this.diskCacheManager.isWriting(image);
+    }
+
+    /**
+     * Checks whether this render is the previous image moved by less than a frame.
+     * If it is, the shift is snapped so the image moves by a whole number of pixels (less than half a pixel away).
+     *
+     * @return Point, number of pixels moved in each direction, or null if the previous image can't be reused
+     */
+    private Point snapPan() {
+        FractalImage previous = this.previousImage;
+        if (previous == null || !this.canPan()) return null;
+
+        ImageProperties p = previous.getProperties();
+        if (p.getWidth() != (int) this.imgWidth
+                || p.getHeight() != (int) this.imgHeight
+                || p.getIterations() != this.getIterations()
+                || p.getScale() != this.getScale()
+                || this.previousEscapeRadiusSquared != this.escapeRadiusSquared
+                || !Objects.equals(p.getFormula(), this.getRenderProperties().getFormula())) {
+            return null;
+        }
+
+        double xPixel = this.xScale / this.scaleFactor;
+        double yPixel = this.yScale / this.scaleFactor;
+        long dx = Math.round((this.xShift - p.getxShift()) / xPixel);
+        long dy = Math.round((this.yShift - p.getyShift()) / yPixel);
+        if (Math.abs(dx) >= this.imgWidth || Math.abs(dy) >= this.imgHeight) return null;
+
+        this.xShift = p.getxShift() + dx * xPixel;
+        this.yShift = p.getyShift() + dy * yPixel;
+        this.preciseShiftX = new BigDecimal(this.xShift);
+        this.preciseShiftY = new BigDecimal(this.yShift);
+        // Keep the precision the render was planned at, moving by less than a frame can't need a different one
+        this.updateView(this.precision);
+        return new Point((int) dx, (int) dy);
+    }
+
+    /**
+     * Gets the fractal that views of the image are described as.
+     * Views are only used to map pixels to the complex plane, so fractals that aren't a Fractal use the Mandelbrot set.
+     *
+     * @return Fractal
+     */
+    protected Fractal getFractal() {
+        return Fractal.MANDELBROT;
+    }
+
+    /**
+     * Gets the symmetry of the fractal, so only part of the image needs rendering
+     *
+     * @return Symmetry
+     */
+    protected Symmetry getSymmetry() {
+        return Symmetry.NONE;
+    }
+
+    /**
+     * Returns whether the image moves when the shift changes, so the previous image can be reused when panning
+     *
+     * @return true if the image can be panned
+     */
+    protected boolean canPan() {
+        return true;
+    }
+
+    /**
+     * Returns whether the fractal has an OpenCL kernel, fractals without one always render on the CPU
+     *
+     * @return true if the fractal can be rendered with OpenCL
+     */
+    protected boolean hasOpenCLKernel() {
+        return true;
+    }
+
+    /**
+     * Returns whether areas of the fractal with the same iteration count are connected, so a tile whose border
+     * is all one iteration count can be filled without calculating its interior
+     *
+     * @return true if the fractal can be rendered by subdivision
+     */
+    protected boolean canSubdivide() {
+        return false;
+    }
+
     /**
      * Updates the properties of the image
      */
@@ -554,25 +1394,61 @@ public abstract class RenderManagementThread extends Thread {
         this.scaleFactor = this.config.getScaleFactor();
         this.xShift = this.config.getShiftX();
         this.yShift = this.config.getShiftY();
+        this.preciseShiftX = this.config.getPreciseShiftX();
+        this.preciseShiftY = this.config.getPreciseShiftY();
         this.hue = this.config.getHue();
         this.saturation = this.config.getSaturation();
         this.brightness = this.config.getBrightness();
+        this.bulbCheck = this.config.useBulbCheck();
+        this.periodicityCheck = this.config.usePeriodicityCheck();
+        this.laneKernel = this.config.useLaneKernel(this.getFractal());
+        this.autoIterations = this.config.useAutoIterations();
+        this.palette = new ColourPalette(new ImageColourProperties(this.hue, this.saturation, this.brightness));
+
+        // Fractals drawn in a fixed place override the getters, so make sure the pixels are calculated there too
+        this.scaleFactor = this.getScale();
+        this.xShift = this.getShiftX();
+        this.yShift = this.getShiftY();
+        this.preciseShiftX = this.getPreciseShiftX();
+        this.preciseShiftY = this.getPreciseShiftY();
 
         this.imgHeight = this.image.getHeight();
         this.imgWidth = this.image.getWidth();
+        this.updateView(this.config.getPrecision());
 
-        double aspectRatio = this.imgWidth / this.imgHeight;
-        double xRange = this.config.getRangeX();
-        double yRange = this.config.getRangeY();
+        this.deepZoom = this.perturbationEngine != null && this.config.useDeepZoom() && this.getScale() >= PerturbationEngine.MIN_SCALE;
 
-        if (aspectRatio * yRange < 4) {
-            yRange = xRange / aspectRatio;
-        } else {
-            xRange = yRange * aspectRatio;
+        // Move the centre of images crossing the real axis onto a half pixel, so rows can be reflected
+        if (!this.deepZoom) {
+            double shiftY = this.getSymmetry().snapShiftY(this.yShift, this.yScale / this.scaleFactor, (int) this.imgHeight);
+            if (shiftY != this.yShift) {
+                this.yShift = shiftY;
+                this.preciseShiftY = new BigDecimal(shiftY);
+                this.updateView(this.config.getPrecision());
+            }
         }
 
-        this.xScale = xRange / this.imgWidth;
-        this.yScale = yRange / this.imgHeight;
+        // Perturbation passes only re-render glitched pixels, so they can't be subdivided
+        this.subdivision = this.config.useSubdivision() && this.canSubdivide() && !this.deepZoom;
+    }
+
+    /**
+     * Updates the view of the image from its size, scale and shift.
+     * The view maps the pixels to the complex plane, and chooses the lowest precision that can still tell them apart.
+     *
+     * @param precision Precision to render at, or null to choose one
+     */
+    private void updateView(Precision precision) {
+        RenderView view = new RenderView(this.getFractal(), (int) this.imgWidth, (int) this.imgHeight, this.iterations,
+                this.scaleFactor, this.preciseShiftX, this.preciseShiftY)
+                .withRange(this.config.getRangeX(), this.config.getRangeY())
+                .withPrecision(precision);
+        this.view = new ViewContext(view, null, this.palette);
+
+        // The OpenCL kernels take the scales as arguments
+        this.xScale = this.view.getXScale();
+        this.yScale = this.view.getYScale();
+        this.precision = this.view.getPrecision();
     }
     //endregion
 }
\ No newline at end of file
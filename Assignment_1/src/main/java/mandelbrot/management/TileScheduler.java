@@ -0,0 +1,261 @@
+package mandelbrot.management;
+
+import utils.ImageSegment;
+import utils.Log;
+
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Splits a render into tiles and runs them on a work stealing pool
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public class TileScheduler {
+
+    /**
+     * Tile size to use adaptive tiling
+     */
+    public static final int AUTO = 0;
+
+    /**
+     * If a tile expects to take longer than this, it offers half of its remaining work to idle workers
+     */
+    private static final long TARGET_TILE_NANOS = 2000000L;
+
+    /**
+     * Number of pixels to render in an adaptive tile before we have a measurement
+     */
+    private static final int MIN_BAND_PIXELS = 1024;
+
+    /**
+     * Only split when there are fewer than this many tiles queued up waiting to be stolen
+     */
+    private static final int MAX_SURPLUS_TILES = 2;
+
+    /**
+     * Adaptive bands start and end on multiples of this column, unless the region doesn't.
+     * Progressive passes and the auto iterations pre-pass sample a grid at most this coarse, so each grid sample
+     * belongs to exactly one band and is only calculated once.
+     */
+    public static final int BAND_ALIGNMENT = 8;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a tile scheduler
+     *
+     * @param numberThreads Number of worker threads to use
+     */
+    public TileScheduler(int numberThreads) {
+        this.pool = new ForkJoinPool(numberThreads);
+    }
+
+    /**
+     * Renders a region of the image
+     *
+     * @param region   Region to render
+     * @param tileSize Size of tiles in pixels, or AUTO to split tiles by how long they take to render
+     * @param factory  Creates the task that renders a tile
+     * @return ImageSegments that make up the region
+     * @throws IllegalStateException if any tile failed to render
+     */
+    public List<ImageSegment> render(Rectangle region, int tileSize, Function<Rectangle2D, Callable<ImageSegment>> factory) {
+        return this.render(region, tileSize, factory, () -> false);
+    }
+
+    /**
+     * Renders a region of the image, stopping early if the render is cancelled.
+     * Tiles that haven't started when the render is cancelled are skipped, so the result may be incomplete.
+     *
+     * @param region    Region to render
+     * @param tileSize  Size of tiles in pixels, or AUTO to split tiles by how long they take to render
+     * @param factory   Creates the task that renders a tile
+     * @param cancelled Returns true when the render should be abandoned
+     * @return ImageSegments that were rendered
+     * @throws IllegalStateException if any tile failed to render, the other tiles are still rendered first
+     */
+    public List<ImageSegment> render(Rectangle region, int tileSize, Function<Rectangle2D, Callable<ImageSegment>> factory, BooleanSupplier cancelled) {
+        ConcurrentLinkedQueue<ImageSegment> segments = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<Exception> failures = new ConcurrentLinkedQueue<>();
+
+        if (region.isEmpty()) return new ArrayList<>();
+
+        if (tileSize == AUTO) {
+            this.pool.invoke(new AdaptiveTile(region, factory, cancelled, segments, failures));
+        } else {
+            this.pool.invoke(new FixedTile(region, tileSize, factory, cancelled, segments, failures));
+        }
+
+        // A tile that failed leaves a hole in the image, so the render can't be treated as complete
+        if (!failures.isEmpty()) {
+            IllegalStateException ex = new IllegalStateException("Failed to render " + failures.size() + " tile(s) of " + region + ".", failures.peek());
+            failures.stream().skip(1).forEach(ex::addSuppressed);
+            throw ex;
+        }
+        return new ArrayList<>(segments);
+    }
+
+    /**
+     * Renders a tile and adds the result to the list of segments
+     *
+     * @param bounds    Bounds of tile
+     * @param factory   Creates the task that renders a tile
+     * @param cancelled Returns true when the render should be abandoned
+     * @param segments  Queue to add the result to
+     * @param failures  Queue to add the exception to if the tile fails
+     */
+    private static void renderTile(Rectangle bounds, Function<Rectangle2D, Callable<ImageSegment>> factory, BooleanSupplier cancelled, ConcurrentLinkedQueue<ImageSegment> segments, ConcurrentLinkedQueue<Exception> failures) {
+        if (cancelled.getAsBoolean()) return;
+        try {
+            segments.add(factory.apply(bounds).call());
+        } catch (CancellationException ex) {
+            // Render was superseded part way through the tile
+        } catch (Exception ex) {
+            Log.Warning("Failed to calculate segment.\n" + ex.getMessage());
+            failures.add(ex);
+        }
+    }
+
+    /**
+     * Splits a region into tiles of a fixed size
+     */
+    private static class FixedTile extends RecursiveAction {
+        private final Rectangle bounds;
+        private final int tileSize;
+        private final Function<Rectangle2D, Callable<ImageSegment>> factory;
+        private final BooleanSupplier cancelled;
+        private final ConcurrentLinkedQueue<ImageSegment> segments;
+        private final ConcurrentLinkedQueue<Exception> failures;
+
+        FixedTile(Rectangle bounds, int tileSize, Function<Rectangle2D, Callable<ImageSegment>> factory, BooleanSupplier cancelled, ConcurrentLinkedQueue<ImageSegment> segments, ConcurrentLinkedQueue<Exception> failures) {
+            this.bounds = bounds;
+            this.tileSize = tileSize;
+            this.factory = factory;
+            this.cancelled = cancelled;
+            this.segments = segments;
+            this.failures = failures;
+        }
+
+        @Override
+        protected void compute() {
+            Rectangle b = this.bounds;
+            if (this.cancelled.getAsBoolean()) return;
+            if (b.width <= this.tileSize && b.height <= this.tileSize) {
+                renderTile(b, this.factory, this.cancelled, this.segments, this.failures);
+                return;
+            }
+
+            // Split along the longest axis, on a tile boundary
+            Rectangle first, second;
+            if (b.width >= b.height) {
+                int split = this.getSplit(b.width);
+                first = new Rectangle(b.x, b.y, split, b.height);
+                second = new Rectangle(b.x + split, b.y, b.width - split, b.height);
+            } else {
+                int split = this.getSplit(b.height);
+                first = new Rectangle(b.x, b.y, b.width, split);
+                second = new Rectangle(b.x, b.y + split, b.width, b.height - split);
+            }
+
+            invokeAll(
+                    new FixedTile(first, this.tileSize, this.factory, this.cancelled, this.segments, this.failures),
+                    new FixedTile(second, this.tileSize, this.factory, this.cancelled, this.segments, this.failures)
+            );
+        }
+
+        /**
+         * Gets the position to split a length at so both halves contain a whole number of tiles
+         *
+         * @param length Length to split
+         * @return int, split position
+         */
+        private int getSplit(int length) {
+            int tiles = (length + this.tileSize - 1) / this.tileSize;
+            return (tiles / 2) * this.tileSize;
+        }
+    }
+
+    /**
+     * Renders a full height region in vertical bands, measuring how long each band takes.
+     * If the rest of the region looks expensive, half of it is forked off so idle workers can steal it.
+     */
+    private static class AdaptiveTile extends RecursiveAction {
+        private final Rectangle bounds;
+        private final Function<Rectangle2D, Callable<ImageSegment>> factory;
+        private final BooleanSupplier cancelled;
+        private final ConcurrentLinkedQueue<ImageSegment> segments;
+        private final ConcurrentLinkedQueue<Exception> failures;
+
+        AdaptiveTile(Rectangle bounds, Function<Rectangle2D, Callable<ImageSegment>> factory, BooleanSupplier cancelled, ConcurrentLinkedQueue<ImageSegment> segments, ConcurrentLinkedQueue<Exception> failures) {
+            this.bounds = bounds;
+            this.factory = factory;
+            this.cancelled = cancelled;
+            this.segments = segments;
+            this.failures = failures;
+        }
+
+        @Override
+        protected void compute() {
+            ArrayList<AdaptiveTile> forked = new ArrayList<>();
+            Rectangle b = this.bounds;
+
+            int column = b.x;
+            int end = b.x + b.width;
+            int bandWidth = Math.max(1, MIN_BAND_PIXELS / b.height);
+            long nanosPerColumn = -1;
+
+            while (column < end && !this.cancelled.getAsBoolean()) {
+                int remaining = end - column;
+
+                // Give away half of what's left if we know it's expensive and nobody has anything to steal
+                int split = align(end - remaining / 2);
+                if (nanosPerColumn != -1
+                        && remaining >= bandWidth * 2
+                        && split > column && split < end
+                        && nanosPerColumn * remaining > TARGET_TILE_NANOS
+                        && getSurplusQueuedTaskCount() < MAX_SURPLUS_TILES) {
+                    AdaptiveTile tile = new AdaptiveTile(new Rectangle(split, b.y, end - split, b.height), this.factory, this.cancelled, this.segments, this.failures);
+                    tile.fork();
+                    forked.add(tile);
+                    end = split;
+                    continue;
+                }
+
+                int width = Math.min(align(column + bandWidth), end) - column;
+                long startTime = System.nanoTime();
+                renderTile(new Rectangle(column, b.y, width, b.height), this.factory, this.cancelled, this.segments, this.failures);
+                column += width;
+
+                // Size the next band from the measured cost so we check back in regularly
+                nanosPerColumn = Math.max(1, (System.nanoTime() - startTime) / width);
+                bandWidth = (int) Math.max(1, Math.min(b.width, TARGET_TILE_NANOS / 4 / nanosPerColumn));
+            }
+
+            // Wait for stolen tiles (or run them ourselves if nobody took them)
+            for (int i = forked.size() - 1; i >= 0; i--) {
+                forked.get(i).join();
+            }
+        }
+
+        /**
+         * Rounds a column up to the next band boundary
+         *
+         * @param column Column to round
+         * @return int, multiple of BAND_ALIGNMENT
+         */
+        private static int align(int column) {
+            return (column + BAND_ALIGNMENT - 1) / BAND_ALIGNMENT * BAND_ALIGNMENT;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package mandelbrot.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for an image panel being painted
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+@Name("mandelbrot.Paint")
+@Label("Paint")
+@Category({"Fractal Explorer", "Render"})
+@Description("An image being painted onto an image panel")
+@StackTrace(false)
+class PaintEvent extends Event {
+
+    @Label("Width")
+    int width;
+
+    @Label("Height")
+    int height;
+
+    @Label("Paint Time")
+    @Timespan
+    long paintTime;
+
+    /**
+     * Commits an event for a paint, if paint events are being recorded
+     *
+     * @param width     Width of image painted
+     * @param height    Height of image painted
+     * @param paintTime Nanoseconds the paint took
+     */
+    static void record(int width, int height, long paintTime) {
+        PaintEvent event = new PaintEvent();
+        if (!event.shouldCommit()) return;
+
+        event.width = width;
+        event.height = height;
+        event.paintTime = paintTime;
+        event.commit();
+    }
+}
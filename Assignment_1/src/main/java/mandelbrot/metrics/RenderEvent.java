@@ -0,0 +1,97 @@
+package mandelbrot.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for a completed render, with the statistics of each phase
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+@Name("mandelbrot.Render")
+@Label("Render")
+@Category({"Fractal Explorer", "Render"})
+@Description("A render of an image, excluding painting it")
+@StackTrace(false)
+class RenderEvent extends Event {
+
+    @Label("Fractal")
+    String fractal;
+
+    @Label("Width")
+    int width;
+
+    @Label("Height")
+    int height;
+
+    @Label("Backend")
+    String backend;
+
+    @Label("Cache Result")
+    String cacheResult;
+
+    @Label("Setup Time")
+    @Timespan
+    long setupTime;
+
+    @Label("Compute Time")
+    @Timespan
+    long computeTime;
+
+    @Label("Assemble Time")
+    @Timespan
+    long assembleTime;
+
+    @Label("Tiles")
+    int tileCount;
+
+    @Label("Min Tile Time")
+    @Timespan
+    long minTileTime;
+
+    @Label("Mean Tile Time")
+    @Timespan
+    long meanTileTime;
+
+    @Label("Max Tile Time")
+    @Timespan
+    long maxTileTime;
+
+    @Label("Iterations")
+    long iterations;
+
+    @Label("Iterations per Second")
+    double iterationsPerSecond;
+
+    /**
+     * Commits an event for a render, if render events are being recorded
+     *
+     * @param statistics Statistics of the render
+     */
+    static void record(RenderStatistics statistics) {
+        RenderEvent event = new RenderEvent();
+        if (!event.shouldCommit()) return;
+
+        event.fractal = statistics.getFractal();
+        event.width = statistics.getWidth();
+        event.height = statistics.getHeight();
+        event.backend = statistics.getBackend().toString();
+        event.cacheResult = statistics.getCacheResult().toString();
+        event.setupTime = statistics.getPhaseTime(RenderStatistics.Phase.SETUP);
+        event.computeTime = statistics.getPhaseTime(RenderStatistics.Phase.COMPUTE);
+        event.assembleTime = statistics.getPhaseTime(RenderStatistics.Phase.ASSEMBLE);
+        event.tileCount = statistics.getTileCount();
+        event.minTileTime = statistics.getMinTileTime();
+        event.meanTileTime = statistics.getMeanTileTime();
+        event.maxTileTime = statistics.getMaxTileTime();
+        event.iterations = statistics.getIterations();
+        event.iterationsPerSecond = statistics.getIterationsPerSecond();
+        event.commit();
+    }
+}
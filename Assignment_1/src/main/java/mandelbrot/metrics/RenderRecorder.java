@@ -0,0 +1,64 @@
+package mandelbrot.metrics;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Records render statistics as Java Flight Recorder events, so slow views can be looked at in JDK Mission Control.
+ * Start the application with -XX:StartFlightRecording to record them.
+ * Older Java 8 runtimes don't have jdk.jfr, so the events are only touched when it is available.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public final class RenderRecorder {
+
+    private static final boolean AVAILABLE = isAvailable();
+
+    private RenderRecorder() {
+    }
+
+    /**
+     * Records a tile, call on the thread that rendered it
+     *
+     * @param bounds      Bounds of tile
+     * @param computeTime Nanoseconds the tile took to render
+     * @param iterations  Number of iterations calculated
+     */
+    public static void recordTile(Rectangle2D bounds, long computeTime, long iterations) {
+        if (AVAILABLE) TileEvent.record(bounds, computeTime, iterations);
+    }
+
+    /**
+     * Records a completed render
+     *
+     * @param statistics Statistics of the render
+     */
+    public static void recordRender(RenderStatistics statistics) {
+        if (AVAILABLE) RenderEvent.record(statistics);
+    }
+
+    /**
+     * Records an image being painted
+     *
+     * @param width     Width of image painted
+     * @param height    Height of image painted
+     * @param paintTime Nanoseconds the paint took
+     */
+    public static void recordPaint(int width, int height, long paintTime) {
+        if (AVAILABLE) PaintEvent.record(width, height, paintTime);
+    }
+
+    /**
+     * Returns whether the runtime has the flight recorder
+     *
+     * @return true if jdk.jfr can be used
+     */
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package mandelbrot.metrics;
+
+import utils.ImageSegment;
+
+import java.util.List;
+
+/**
+ * Statistics of a render: how long each phase took, how long each tile took, and how many iterations were calculated.
+ * The render thread times its phases with startPhase, and adds the tiles as the scheduler returns them.
+ * Only written by the render thread, it is finished before it is handed to anyone else.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public class RenderStatistics {
+
+    /**
+     * What rendered the image
+     */
+    public enum Backend {
+        CPU,
+        OPENCL
+    }
+
+    /**
+     * Where the image came from
+     */
+    public enum CacheResult {
+        /**
+         * Rendered from scratch
+         */
+        MISS,
+
+        /**
+         * Image with the same colours was in the cache
+         */
+        HIT,
+
+        /**
+         * Recoloured from an image in the cache
+         */
+        RECOLOUR,
+
+        /**
+         * Coloured from the smooth iteration counts in the disk cache
+         */
+        DISK
+    }
+
+    /**
+     * Phases of a render, the paint phase is timed by the image panel as it happens on the event dispatch thread
+     */
+    public enum Phase {
+        /**
+         * Getting a buffer, and checking the caches
+         */
+        SETUP,
+
+        /**
+         * Rendering the tiles
+         */
+        COMPUTE,
+
+        /**
+         * Filling in the image by symmetry, caching it and handing it to the panel
+         */
+        ASSEMBLE
+    }
+
+    private final String fractal;
+    private final int width;
+    private final int height;
+
+    private final long[] phaseTimes = new long[Phase.values().length];
+    private Phase phase = Phase.SETUP;
+    private long phaseStartTime;
+
+    private Backend backend = Backend.CPU;
+    private CacheResult cacheResult = CacheResult.MISS;
+
+    private int tileCount;
+    private long minTileTime = Long.MAX_VALUE;
+    private long maxTileTime;
+    private long totalTileTime;
+    private long iterations;
+    private int iterationBudget;
+    private boolean autoIterations;
+
+    /**
+     * Creates the statistics for a render, and starts timing the setup phase
+     *
+     * @param fractal Name of fractal being rendered
+     * @param width   Width of image
+     * @param height  Height of image
+     */
+    public RenderStatistics(String fractal, int width, int height) {
+        this.fractal = fractal;
+        this.width = width;
+        this.height = height;
+        this.phaseStartTime = System.nanoTime();
+    }
+
+    /**
+     * Stops timing the current phase, and starts timing another.
+     * A phase can be started more than once, its times are added together.
+     *
+     * @param phase Phase to start
+     */
+    public void startPhase(Phase phase) {
+        long now = System.nanoTime();
+        this.phaseTimes[this.phase.ordinal()] += now - this.phaseStartTime;
+        this.phase = phase;
+        this.phaseStartTime = now;
+    }
+
+    /**
+     * Stops timing the current phase
+     */
+    public void finish() {
+        this.startPhase(this.phase);
+    }
+
+    /**
+     * Adds the time taken and iterations calculated by each tile
+     *
+     * @param segments Tiles returned by the scheduler
+     */
+    public void addTiles(List<ImageSegment> segments) {
+        for (ImageSegment segment : segments) {
+            long computeTime = segment.getComputeTime();
+            this.tileCount++;
+            this.minTileTime = Math.min(this.minTileTime, computeTime);
+            this.maxTileTime = Math.max(this.maxTileTime, computeTime);
+            this.totalTileTime += computeTime;
+            this.iterations += segment.getIterations();
+        }
+    }
+
+    //region Getters and Setters
+    public String getFractal() {
+        return this.fractal;
+    }
+
+    public int getWidth() {
+        return this.width;
+    }
+
+    public int getHeight() {
+        return this.height;
+    }
+
+    public Backend getBackend() {
+        return this.backend;
+    }
+
+    public void setBackend(Backend backend) {
+        this.backend = backend;
+    }
+
+    public CacheResult getCacheResult() {
+        return this.cacheResult;
+    }
+
+    public void setCacheResult(CacheResult cacheResult) {
+        this.cacheResult = cacheResult;
+    }
+
+    /**
+     * Gets how long a phase took
+     *
+     * @param phase Phase to get
+     * @return long, nanoseconds
+     */
+    public long getPhaseTime(Phase phase) {
+        return this.phaseTimes[phase.ordinal()];
+    }
+
+    /**
+     * Gets how long the render took, excluding painting
+     *
+     * @return long, nanoseconds
+     */
+    public long getTotalTime() {
+        long total = 0;
+        for (long time : this.phaseTimes) {
+            total += time;
+        }
+        return total;
+    }
+
+    public int getTileCount() {
+        return this.tileCount;
+    }
+
+    /**
+     * Gets how long the quickest tile took
+     *
+     * @return long, nanoseconds, or 0 if no tiles were rendered
+     */
+    public long getMinTileTime() {
+        return this.tileCount == 0 ? 0 : this.minTileTime;
+    }
+
+    /**
+     * Gets how long tiles took on average
+     *
+     * @return long, nanoseconds, or 0 if no tiles were rendered
+     */
+    public long getMeanTileTime() {
+        return this.tileCount == 0 ? 0 : this.totalTileTime / this.tileCount;
+    }
+
+    /**
+     * Gets how long the slowest tile took
+     *
+     * @return long, nanoseconds
+     */
+    public long getMaxTileTime() {
+        return this.maxTileTime;
+    }
+
+    /**
+     * Gets the number of iterations calculated by the tiles, OpenCL renders don't count theirs
+     *
+     * @return long, iterations
+     */
+    public long getIterations() {
+        return this.iterations;
+    }
+
+    public int getIterationBudget() {
+        return this.iterationBudget;
+    }
+
+    /**
+     * Returns true if the iteration budget was chosen by a pre-pass, rather than set in the config
+     *
+     * @return boolean
+     */
+    public boolean isAutoIterations() {
+        return this.autoIterations;
+    }
+
+    /**
+     * Sets the maximum number of iterations each pixel was calculated to
+     *
+     * @param iterationBudget Maximum number of iterations
+     * @param autoIterations  true if it was chosen by a pre-pass
+     */
+    public void setIterationBudget(int iterationBudget, boolean autoIterations) {
+        this.iterationBudget = iterationBudget;
+        this.autoIterations = autoIterations;
+    }
+
+    /**
+     * Gets the number of iterations calculated per second of the compute phase
+     *
+     * @return double, iterations per second
+     */
+    public double getIterationsPerSecond() {
+        long computeTime = this.getPhaseTime(Phase.COMPUTE);
+        return computeTime == 0 ? 0 : this.iterations * 1e9d / computeTime;
+    }
+    //endregion
+
+    /**
+     * Gets a summary of the statistics, one line per group
+     *
+     * @return String[] lines of summary
+     */
+    public String[] getSummary() {
+        return new String[]{
+                String.format("%s %dx%d, %s, cache %s", this.fractal, this.width, this.height, this.backend, this.cacheResult.toString().toLowerCase()),
+                String.format("Setup %.1fms, compute %.1fms, assemble %.1fms",
+                        this.getPhaseTime(Phase.SETUP) / 1e6, this.getPhaseTime(Phase.COMPUTE) / 1e6, this.getPhaseTime(Phase.ASSEMBLE) / 1e6),
+                String.format("%d tile(s), %.2f / %.2f / %.2fms (min / mean / max)",
+                        this.tileCount, this.getMinTileTime() / 1e6, this.getMeanTileTime() / 1e6, this.getMaxTileTime() / 1e6),
+                String.format("%s iterations, %s/s, budget %d%s", formatCount(this.iterations), formatCount(this.getIterationsPerSecond()),
+                        this.iterationBudget, this.autoIterations ? " (auto)" : "")
+        };
+    }
+
+    @Override
+    public String toString() {
+        return String.join(" | ", this.getSummary());
+    }
+
+    /**
+     * Formats a large count with a metric suffix
+     *
+     * @param count Count to format
+     * @return String, e.g. 12.3M
+     */
+    private static String formatCount(double count) {
+        String[] suffixes = {"", "K", "M", "G", "T"};
+        int suffix = 0;
+        while (count >= 1000 && suffix < suffixes.length - 1) {
+            count /= 1000;
+            suffix++;
+        }
+        return String.format(suffix == 0 ? "%.0f%s" : "%.1f%s", count, suffixes[suffix]);
+    }
+}
@@ -0,0 +1,64 @@
+package mandelbrot.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Flight recorder event for a tile, committed on the worker thread that rendered it so load imbalance shows up per thread
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+@Name("mandelbrot.Tile")
+@Label("Render Tile")
+@Category({"Fractal Explorer", "Render"})
+@Description("A tile of an image, rendered by a worker thread")
+@StackTrace(false)
+class TileEvent extends Event {
+
+    @Label("X")
+    int x;
+
+    @Label("Y")
+    int y;
+
+    @Label("Width")
+    int width;
+
+    @Label("Height")
+    int height;
+
+    @Label("Compute Time")
+    @Timespan
+    long computeTime;
+
+    @Label("Iterations")
+    long iterations;
+
+    /**
+     * Commits an event for a tile, if tile events are being recorded
+     *
+     * @param bounds      Bounds of tile
+     * @param computeTime Nanoseconds the tile took to render
+     * @param iterations  Number of iterations calculated
+     */
+    static void record(Rectangle2D bounds, long computeTime, long iterations) {
+        TileEvent event = new TileEvent();
+        if (!event.shouldCommit()) return;
+
+        event.x = (int) bounds.getX();
+        event.y = (int) bounds.getY();
+        event.width = (int) bounds.getWidth();
+        event.height = (int) bounds.getHeight();
+        event.computeTime = computeTime;
+        event.iterations = iterations;
+        event.commit();
+    }
+}
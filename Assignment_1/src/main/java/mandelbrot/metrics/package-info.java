@@ -0,0 +1,7 @@
+/**
+ * Contains render statistics, and the Java Flight Recorder events they are recorded as
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+package mandelbrot.metrics;
\ No newline at end of file
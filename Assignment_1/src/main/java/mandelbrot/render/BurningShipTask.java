@@ -1,11 +1,8 @@
 package mandelbrot.render;
 
-import mandelbrot.management.RenderManagementThread;
-import utils.ColouredPixel;
-import utils.Complex;
+import utils.ColourPalette;
+import utils.DoubleDouble;
 
-import java.awt.*;
-import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 
 /**
@@ -14,49 +11,262 @@ import java.awt.geom.Rectangle2D;
  * @author Huw Jones
  * @since 07/03/2016
  */
-public class BurningShipTask extends RenderTask {
+public class BurningShipTask extends LaneRenderTask {
 
-    public BurningShipTask(RenderManagementThread t, Rectangle2D bounds) {
+    public BurningShipTask(RenderContext t, Rectangle2D bounds) {
         super(t, bounds);
     }
 
     /**
-     * Worker Unit for individual pixels
+     * Worker Unit for individual pixels, iterated at the precision selected for the image
      *
-     * @param point   Point on worker unit
-     * @param complex Complex for point
-     * @return ColouredPixel for that pixel
+     * @param x         X co-ordinate of pixel, relative to the image segment
+     * @param y         Y co-ordinate of pixel, relative to the image segment
+     * @param real      Real component of the point
+     * @param imaginary Imaginary component of the point
+     * @return Smooth iteration count of the pixel, or ColourPalette.INSIDE
      */
     @Override
-    protected ColouredPixel doPixelCalculation(Point2D point, Complex complex) {
+    protected float calculatePixel(int x, int y, double real, double imaginary) {
+        switch (this.precision) {
+            case FLOAT:
+                return this.iterateFloat((float) real, (float) imaginary);
+            case DOUBLE_DOUBLE:
+                return this.iterateDoubleDouble(this.getDoubleDoubleReal(x), this.getDoubleDoubleImaginary(y));
+            default:
+                return this.iterateDouble(real, imaginary);
+        }
+    }
+
+    /**
+     * Starts iterating a pixel in a lane, z starts at 0
+     *
+     * @param lane      Lane to start the pixel in
+     * @param real      Real component of the pixel
+     * @param imaginary Imaginary component of the pixel
+     * @return NaN if the pixel was started, otherwise the smooth iteration count of a pixel that didn't need iterating
+     */
+    @Override
+    protected float startLane(int lane, double real, double imaginary) {
+        if (this.maxIterations == 0) {
+            return ColourPalette.INSIDE;
+        }
+        this.setLane(lane, 0, 0, real, imaginary);
+        return Float.NaN;
+    }
+
+    /**
+     * Iterates the lanes like iterateDouble, saving the absolute values of the previous z for the period detection
+     */
+    @Override
+    protected void iterateLanes() {
+        double zr0 = this.laneReal[0], zr1 = this.laneReal[1], zr2 = this.laneReal[2], zr3 = this.laneReal[3];
+        double zi0 = this.laneImaginary[0], zi1 = this.laneImaginary[1], zi2 = this.laneImaginary[2], zi3 = this.laneImaginary[3];
+        double cr0 = this.laneCReal[0], cr1 = this.laneCReal[1], cr2 = this.laneCReal[2], cr3 = this.laneCReal[3];
+        double ci0 = this.laneCImaginary[0], ci1 = this.laneCImaginary[1], ci2 = this.laneCImaginary[2], ci3 = this.laneCImaginary[3];
+        double ar0, ar1, ar2, ar3, ai0, ai1, ai2, ai3;
+        double escapeRadiusSquared = this.escapeRadiusSquared;
+        double abi0, abi1, abi2, abi3;
+
+        int limit = this.getStepLimit();
+        int step = 0;
+
+        while (true) {
+            // Take the absolute values before squaring, this is what makes the ship
+            ar0 = Math.abs(zr0);
+            ar1 = Math.abs(zr1);
+            ar2 = Math.abs(zr2);
+            ar3 = Math.abs(zr3);
+            ai0 = Math.abs(zi0);
+            ai1 = Math.abs(zi1);
+            ai2 = Math.abs(zi2);
+            ai3 = Math.abs(zi3);
+
+            // (a + bi)^2 = (a^2 - b^2) + 2abi
+            abi0 = ar0 * ai0;
+            abi1 = ar1 * ai1;
+            abi2 = ar2 * ai2;
+            abi3 = ar3 * ai3;
+            zr0 = ar0 * ar0 - ai0 * ai0 + cr0;
+            zr1 = ar1 * ar1 - ai1 * ai1 + cr1;
+            zr2 = ar2 * ar2 - ai2 * ai2 + cr2;
+            zr3 = ar3 * ar3 - ai3 * ai3 + cr3;
+            zi0 = abi0 + abi0 + ci0;
+            zi1 = abi1 + abi1 + ci1;
+            zi2 = abi2 + abi2 + ci2;
+            zi3 = abi3 + abi3 + ci3;
+            step++;
+
+            if (step == limit | zr0 * zr0 + zi0 * zi0 > escapeRadiusSquared | zr1 * zr1 + zi1 * zi1 > escapeRadiusSquared
+                    | zr2 * zr2 + zi2 * zi2 > escapeRadiusSquared | zr3 * zr3 + zi3 * zi3 > escapeRadiusSquared
+                    | zr0 == ar0 & zi0 == ai0 | zr1 == ar1 & zi1 == ai1 | zr2 == ar2 & zi2 == ai2 | zr3 == ar3 & zi3 == ai3) {
+                break;
+            }
+        }
+
+        this.laneReal[0] = zr0;
+        this.laneReal[1] = zr1;
+        this.laneReal[2] = zr2;
+        this.laneReal[3] = zr3;
+        this.laneImaginary[0] = zi0;
+        this.laneImaginary[1] = zi1;
+        this.laneImaginary[2] = zi2;
+        this.laneImaginary[3] = zi3;
+        this.laneSavedReal[0] = ar0;
+        this.laneSavedReal[1] = ar1;
+        this.laneSavedReal[2] = ar2;
+        this.laneSavedReal[3] = ar3;
+        this.laneSavedImaginary[0] = ai0;
+        this.laneSavedImaginary[1] = ai1;
+        this.laneSavedImaginary[2] = ai2;
+        this.laneSavedImaginary[3] = ai3;
+        this.addSteps(step);
+    }
+
+    /**
+     * Checks whether a lane has finished, in the same order as iterateDouble
+     *
+     * @param lane Lane to check
+     * @return NaN if the lane should carry on, otherwise the smooth iteration count of the pixel
+     */
+    @Override
+    protected float finishLane(int lane) {
+        double zReal = this.laneReal[lane];
+        double zImaginary = this.laneImaginary[lane];
+        int iteration = this.laneIteration[lane];
+
+        // Apply period detection
+        if (zReal == this.laneSavedReal[lane] && zImaginary == this.laneSavedImaginary[lane]) {
+            return ColourPalette.INSIDE;
+        }
+        if (zReal * zReal + zImaginary * zImaginary > this.escapeRadiusSquared) {
+            return iteration < this.maxIterations ? this.getSmoothIterations(iteration, zReal, zImaginary) : ColourPalette.INSIDE;
+        }
+        if (iteration == this.maxIterations) {
+            return ColourPalette.INSIDE;
+        }
+        return Float.NaN;
+    }
+
+    /**
+     * Iterates a pixel in double precision
+     *
+     * @param real Real component of the point
+     * @param imaginary Imaginary component of the point
+     * @return Smooth iteration count of the pixel, or ColourPalette.INSIDE
+     */
+    private float iterateDouble(double real, double imaginary) {
         int currIteration = 0;
-        Complex z = new Complex(0, 0);
-        Complex prevPoint;
+        double zReal = 0;
+        double zImaginary = 0;
+        double abi;
 
-        while (z.squareReal() + z.squareImaginary() <= this.escapeRadiusSquared && currIteration < this.maxIterations) {
-            z = new Complex(Math.abs(z.getReal()), Math.abs(z.getImaginary()));
+        while (zReal * zReal + zImaginary * zImaginary <= this.escapeRadiusSquared && currIteration < this.maxIterations) {
+            // Take the absolute values before squaring, this is what makes the ship
+            zReal = Math.abs(zReal);
+            zImaginary = Math.abs(zImaginary);
 
-            prevPoint = z.clone();
-            z = z.square();
-            z.add(complex);
+            // (a + bi)^2 = (a^2 - b^2) + 2abi
+            abi = zReal * zImaginary;
+            double newReal = zReal * zReal - zImaginary * zImaginary + real;
+            double newImaginary = abi + abi + imaginary;
 
             // Apply period detection
-            if(z.equals(prevPoint)){
-                currIteration = this.maxIterations;
-                break;
+            if (newReal == zReal && newImaginary == zImaginary) {
+                this.iterationCount += currIteration + 1;
+                return ColourPalette.INSIDE;
             }
 
+            zReal = newReal;
+            zImaginary = newImaginary;
             currIteration++;
         }
 
-        Color colour;
+        this.iterationCount += currIteration;
+        if (currIteration < this.maxIterations) {
+            return this.getSmoothIterations(currIteration, zReal, zImaginary);
+        }
+        return ColourPalette.INSIDE;
+    }
+
+    /**
+     * Iterates a pixel in single precision, for shallow images
+     *
+     * @param real      Real component of the point
+     * @param imaginary Imaginary component of the point
+     * @return Smooth iteration count of the pixel, or ColourPalette.INSIDE
+     */
+    private float iterateFloat(float real, float imaginary) {
+        float escapeRadiusSquared = (float) this.escapeRadiusSquared;
+        int currIteration = 0;
+        float zReal = 0;
+        float zImaginary = 0;
+        float abi;
+
+        while (zReal * zReal + zImaginary * zImaginary <= escapeRadiusSquared && currIteration < this.maxIterations) {
+            // Take the absolute values before squaring, this is what makes the ship
+            zReal = Math.abs(zReal);
+            zImaginary = Math.abs(zImaginary);
+
+            // (a + bi)^2 = (a^2 - b^2) + 2abi
+            abi = zReal * zImaginary;
+            float newReal = zReal * zReal - zImaginary * zImaginary + real;
+            float newImaginary = abi + abi + imaginary;
+
+            // Apply period detection
+            if (newReal == zReal && newImaginary == zImaginary) {
+                this.iterationCount += currIteration + 1;
+                return ColourPalette.INSIDE;
+            }
+
+            zReal = newReal;
+            zImaginary = newImaginary;
+            currIteration++;
+        }
 
+        this.iterationCount += currIteration;
         if (currIteration < this.maxIterations) {
-            colour = this.getHSBColour(currIteration, z);
-        } else {
-            colour = Color.BLACK;
+            return this.getSmoothIterations(currIteration, zReal, zImaginary);
         }
+        return ColourPalette.INSIDE;
+    }
+
+    /**
+     * Iterates a pixel in double-double precision, for images too deep for doubles
+     *
+     * @param real      Real component of the point
+     * @param imaginary Imaginary component of the point
+     * @return Smooth iteration count of the pixel, or ColourPalette.INSIDE
+     */
+    private float iterateDoubleDouble(DoubleDouble real, DoubleDouble imaginary) {
+        int currIteration = 0;
+        DoubleDouble zReal = DoubleDouble.ZERO;
+        DoubleDouble zImaginary = DoubleDouble.ZERO;
+
+        while (zReal.square().doubleValue() + zImaginary.square().doubleValue() <= this.escapeRadiusSquared && currIteration < this.maxIterations) {
+            // Take the absolute values before squaring, this is what makes the ship
+            zReal = zReal.abs();
+            zImaginary = zImaginary.abs();
+
+            // (a + bi)^2 = (a^2 - b^2) + 2abi
+            DoubleDouble newReal = zReal.square().subtract(zImaginary.square()).add(real);
+            DoubleDouble newImaginary = zReal.multiply(zImaginary).multiplyPowerOf2(2).add(imaginary);
 
-        return new ColouredPixel(point, colour);
+            // Apply period detection
+            if (newReal.equals(zReal) && newImaginary.equals(zImaginary)) {
+                this.iterationCount += currIteration + 1;
+                return ColourPalette.INSIDE;
+            }
+
+            zReal = newReal;
+            zImaginary = newImaginary;
+            currIteration++;
+        }
+
+        this.iterationCount += currIteration;
+        if (currIteration < this.maxIterations) {
+            return this.getSmoothIterations(currIteration, zReal.doubleValue(), zImaginary.doubleValue());
+        }
+        return ColourPalette.INSIDE;
     }
 }
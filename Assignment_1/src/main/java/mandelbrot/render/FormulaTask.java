@@ -0,0 +1,70 @@
+package mandelbrot.render;
+
+import mandelbrot.formula.CompiledFormula;
+import mandelbrot.formula.Formula;
+import utils.ColourPalette;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Custom Formula Worker Task.
+ * The formula is compiled to bytecode that iterates on doubles, so every precision is rendered in doubles,
+ * and the bulb and periodicity checks aren't used as they only apply to the Mandelbrot set.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public class FormulaTask extends RenderTask {
+
+    private final CompiledFormula formula;
+
+    /**
+     * Natural log of the degree of the formula, smooth colouring divides by this instead of log 2
+     */
+    private final double logDegree;
+
+    /**
+     * Final z of the last pixel iterated
+     */
+    private final double[] z = new double[2];
+
+    public FormulaTask(RenderContext t, Rectangle2D bounds, Formula formula) {
+        super(t, bounds);
+        this.formula = formula.compile();
+        this.logDegree = formula.getDegree() <= 2 ? M_LN2_F : Math.log(formula.getDegree());
+    }
+
+    /**
+     * Worker Unit for individual pixels
+     *
+     * @param x X co-ordinate of pixel, relative to the image segment
+     * @param y Y co-ordinate of pixel, relative to the image segment
+     * @param real Real component of the point
+     * @param imaginary Imaginary component of the point
+     * @return Smooth iteration count of the pixel, or ColourPalette.INSIDE
+     */
+    @Override
+    protected float calculatePixel(int x, int y, double real, double imaginary) {
+        int iterations = this.formula.iterate(real, imaginary, this.maxIterations, this.escapeRadiusSquared, this.z);
+        this.iterationCount += iterations;
+        if (iterations < this.maxIterations) {
+            return this.getSmoothIterations(iterations, this.z[0], this.z[1]);
+        }
+        return ColourPalette.INSIDE;
+    }
+
+    /**
+     * Performs colour smoothing for the degree of the formula, |z| grows to the power of the degree each iteration
+     *
+     * @param iterations Number of iterations it took
+     * @param zReal Real component of final z
+     * @param zImaginary Imaginary component of final z
+     * @return Smooth iteration count
+     */
+    @Override
+    protected float getSmoothIterations(int iterations, double zReal, double zImaginary) {
+        double log_z = Math.log(zReal * zReal + zImaginary * zImaginary) / 2.0d;
+        double nu = Math.log( log_z / M_LN2_F ) / this.logDegree;
+        return iterations + 1 - (float)nu;
+    }
+}
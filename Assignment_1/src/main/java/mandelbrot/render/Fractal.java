@@ -0,0 +1,83 @@
+package mandelbrot.render;
+
+import utils.Complex;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Fractals that can be rendered, and the tasks that render them
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public enum Fractal {
+    MANDELBROT("Mandelbrot", true, Symmetry.CONJUGATE),
+    JULIA("Julia", false, Symmetry.POINT),
+    BURNING_SHIP("BurningShip", true, Symmetry.NONE);
+
+    private final String name;
+    private final boolean subdivide;
+    private final Symmetry symmetry;
+
+    Fractal(String name, boolean subdivide, Symmetry symmetry) {
+        this.name = name;
+        this.subdivide = subdivide;
+        this.symmetry = symmetry;
+    }
+
+    /**
+     * Creates the task that renders a segment of the fractal
+     *
+     * @param context Context of the image being rendered
+     * @param bounds  Bounds of the segment
+     * @param complex Constant for the Julia set, ignored by the other fractals
+     * @return RenderTask
+     */
+    public RenderTask createTask(RenderContext context, Rectangle2D bounds, Complex complex) {
+        switch (this) {
+            case JULIA:
+                return new JuliaTask(context, bounds, complex);
+            case BURNING_SHIP:
+                return new BurningShipTask(context, bounds);
+            default:
+                return new MandelbrotTask(context, bounds);
+        }
+    }
+
+    /**
+     * Returns whether areas of the fractal with the same iteration count are connected, so it can be rendered by
+     * subdivision
+     *
+     * @return true if the fractal can be rendered by subdivision
+     */
+    public boolean canSubdivide() {
+        return this.subdivide;
+    }
+
+    /**
+     * Gets the symmetry of the fractal, so only part of an image needs rendering
+     *
+     * @return Symmetry
+     */
+    public Symmetry getSymmetry() {
+        return this.symmetry;
+    }
+
+    /**
+     * Gets a fractal from its name
+     *
+     * @param name Name of fractal, case insensitive
+     * @return Fractal, or null if there isn't one with the name
+     */
+    public static Fractal fromName(String name) {
+        for (Fractal fractal : values()) {
+            if (fractal.name.equalsIgnoreCase(name) || fractal.name().equalsIgnoreCase(name)) return fractal;
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
@@ -1,12 +1,9 @@
 package mandelbrot.render;
 
-import mandelbrot.management.RenderManagementThread;
-import utils.ColouredPixel;
+import utils.ColourPalette;
 import utils.Complex;
-import utils.ImageProperties;
+import utils.DoubleDouble;
 
-import java.awt.*;
-import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 
 /**
@@ -15,51 +12,214 @@ import java.awt.geom.Rectangle2D;
  * @author Huw Jones
  * @since 28/02/2016
  */
-public class JuliaTask extends RenderTask {
+public class JuliaTask extends LaneRenderTask {
 
-    Complex complex;
+    private final double cReal;
+    private final double cImaginary;
 
-    public JuliaTask(RenderManagementThread t, Rectangle2D bounds, Complex complex) {
+    public JuliaTask(RenderContext t, Rectangle2D bounds, Complex complex) {
         super(t, bounds);
-        this.complex = complex;
+        this.cReal = complex.getReal();
+        this.cImaginary = complex.getImaginary();
     }
 
     /**
-     * Worker Unit for individual pixels
-     * @param point Point on worker unit
-     * @param complex Complex for point
-     * @return ColouredPixel for that pixel
+     * Worker Unit for individual pixels, iterated at the precision selected for the image
+     * @param x X co-ordinate of pixel, relative to the image segment
+     * @param y Y co-ordinate of pixel, relative to the image segment
+     * @param real Real component of the point
+     * @param imaginary Imaginary component of the point
+     * @return Smooth iteration count of the pixel, or ColourPalette.INSIDE
      */
     @Override
-    protected ColouredPixel doPixelCalculation(Point2D point, Complex complex) {
+    protected float calculatePixel(int x, int y, double real, double imaginary) {
+        switch (this.precision) {
+            case FLOAT:
+                return this.iterateFloat((float) real, (float) imaginary);
+            case DOUBLE_DOUBLE:
+                return this.iterateDoubleDouble(this.getDoubleDoubleReal(x), this.getDoubleDoubleImaginary(y));
+            default:
+                return this.iterateDouble(real, imaginary);
+        }
+    }
+
+    /**
+     * Starts iterating a pixel in a lane, z starts at the pixel and c is the fixed complex
+     *
+     * @param lane      Lane to start the pixel in
+     * @param real      Real component of the pixel
+     * @param imaginary Imaginary component of the pixel
+     * @return NaN if the pixel was started, otherwise the smooth iteration count of a pixel that didn't need iterating
+     */
+    @Override
+    protected float startLane(int lane, double real, double imaginary) {
+        if (this.maxIterations == 0) {
+            return ColourPalette.INSIDE;
+        }
+        if (real * real + imaginary * imaginary > this.escapeRadiusSquared) {
+            return this.getSmoothIterations(0, real, imaginary);
+        }
+        this.setLane(lane, real, imaginary, this.cReal, this.cImaginary);
+        return Float.NaN;
+    }
+
+    /**
+     * Iterates a pixel in double precision
+     *
+     * @param real Real component of the point
+     * @param imaginary Imaginary component of the point
+     * @return Smooth iteration count of the pixel, or ColourPalette.INSIDE
+     */
+    private float iterateDouble(double real, double imaginary) {
         int currIteration = 0;
-        Complex z = complex;
-        Complex prevPoint;
+        double zReal = real;
+        double zImaginary = imaginary;
+        double zRealSquare = zReal * zReal;
+        double zImaginarySquare = zImaginary * zImaginary;
+        double abi;
 
-        while (z.squareReal() + z.squareImaginary() <= this.escapeRadiusSquared && currIteration < this.maxIterations) {
-            prevPoint = z.clone();
-            z = z.square();
+        // Brent's cycle detection: compare against a saved point that moves on after 1, 2, 4, 8... iterations
+        double savedReal = zReal;
+        double savedImaginary = zImaginary;
+        int checkPeriod = 1;
+        int checkCount = 0;
 
-            // Add the fixed complex
-            z.add(this.complex);
+        while (zRealSquare + zImaginarySquare <= this.escapeRadiusSquared && currIteration < this.maxIterations) {
+            // (a + bi)^2 = (a^2 - b^2) + 2abi, then add the fixed complex
+            abi = zReal * zImaginary;
+            zReal = zRealSquare - zImaginarySquare + this.cReal;
+            zImaginary = abi + abi + this.cImaginary;
 
             // Apply period detection
-            if(z.equals(prevPoint)){
-                currIteration = this.maxIterations;
-                break;
+            if (this.periodicityCheck) {
+                if (Math.abs(zReal - savedReal) < this.periodicityTolerance && Math.abs(zImaginary - savedImaginary) < this.periodicityTolerance) {
+                    this.iterationCount += currIteration + 1;
+                    return ColourPalette.INSIDE;
+                }
+                if (++checkCount == checkPeriod) {
+                    checkCount = 0;
+                    checkPeriod <<= 1;
+                    savedReal = zReal;
+                    savedImaginary = zImaginary;
+                }
             }
 
+            zRealSquare = zReal * zReal;
+            zImaginarySquare = zImaginary * zImaginary;
             currIteration++;
         }
 
-        Color colour;
+        this.iterationCount += currIteration;
+        if (currIteration < this.maxIterations) {
+            return this.getSmoothIterations(currIteration, zReal, zImaginary);
+        }
+        return ColourPalette.INSIDE;
+    }
+
+    /**
+     * Iterates a pixel in single precision, for shallow images
+     *
+     * @param real Real component of the point
+     * @param imaginary Imaginary component of the point
+     * @return Smooth iteration count of the pixel, or ColourPalette.INSIDE
+     */
+    private float iterateFloat(float real, float imaginary) {
+        float escapeRadiusSquared = (float) this.escapeRadiusSquared;
+        float cReal = (float) this.cReal;
+        float cImaginary = (float) this.cImaginary;
+        int currIteration = 0;
+        float zReal = real;
+        float zImaginary = imaginary;
+        float zRealSquare = zReal * zReal;
+        float zImaginarySquare = zImaginary * zImaginary;
+        float abi;
+
+        // Brent's cycle detection: compare against a saved point that moves on after 1, 2, 4, 8... iterations
+        float savedReal = zReal;
+        float savedImaginary = zImaginary;
+        int checkPeriod = 1;
+        int checkCount = 0;
+
+        while (zRealSquare + zImaginarySquare <= escapeRadiusSquared && currIteration < this.maxIterations) {
+            // (a + bi)^2 = (a^2 - b^2) + 2abi, then add the fixed complex
+            abi = zReal * zImaginary;
+            zReal = zRealSquare - zImaginarySquare + cReal;
+            zImaginary = abi + abi + cImaginary;
 
+            // Apply period detection
+            if (this.periodicityCheck) {
+                if (Math.abs(zReal - savedReal) < this.periodicityTolerance && Math.abs(zImaginary - savedImaginary) < this.periodicityTolerance) {
+                    this.iterationCount += currIteration + 1;
+                    return ColourPalette.INSIDE;
+                }
+                if (++checkCount == checkPeriod) {
+                    checkCount = 0;
+                    checkPeriod <<= 1;
+                    savedReal = zReal;
+                    savedImaginary = zImaginary;
+                }
+            }
+
+            zRealSquare = zReal * zReal;
+            zImaginarySquare = zImaginary * zImaginary;
+            currIteration++;
+        }
+
+        this.iterationCount += currIteration;
         if (currIteration < this.maxIterations) {
-            colour = this.getHSBColour(currIteration, z);
-        } else {
-            colour = Color.BLACK;
+            return this.getSmoothIterations(currIteration, zReal, zImaginary);
         }
+        return ColourPalette.INSIDE;
+    }
+
+    /**
+     * Iterates a pixel in double-double precision, for images too deep for doubles
+     *
+     * @param real Real component of the point
+     * @param imaginary Imaginary component of the point
+     * @return Smooth iteration count of the pixel, or ColourPalette.INSIDE
+     */
+    private float iterateDoubleDouble(DoubleDouble real, DoubleDouble imaginary) {
+        int currIteration = 0;
+        DoubleDouble zReal = real;
+        DoubleDouble zImaginary = imaginary;
+        DoubleDouble zRealSquare = zReal.square();
+        DoubleDouble zImaginarySquare = zImaginary.square();
 
-        return new ColouredPixel(point, colour);
+        // Brent's cycle detection: compare against a saved point that moves on after 1, 2, 4, 8... iterations
+        DoubleDouble savedReal = zReal;
+        DoubleDouble savedImaginary = zImaginary;
+        int checkPeriod = 1;
+        int checkCount = 0;
+
+        while (zRealSquare.doubleValue() + zImaginarySquare.doubleValue() <= this.escapeRadiusSquared && currIteration < this.maxIterations) {
+            // (a + bi)^2 = (a^2 - b^2) + 2abi, then add the fixed complex
+            zImaginary = zReal.multiply(zImaginary).multiplyPowerOf2(2).add(this.cImaginary);
+            zReal = zRealSquare.subtract(zImaginarySquare).add(this.cReal);
+
+            // Apply period detection
+            if (this.periodicityCheck) {
+                if (Math.abs(zReal.subtract(savedReal).doubleValue()) < this.periodicityTolerance && Math.abs(zImaginary.subtract(savedImaginary).doubleValue()) < this.periodicityTolerance) {
+                    this.iterationCount += currIteration + 1;
+                    return ColourPalette.INSIDE;
+                }
+                if (++checkCount == checkPeriod) {
+                    checkCount = 0;
+                    checkPeriod <<= 1;
+                    savedReal = zReal;
+                    savedImaginary = zImaginary;
+                }
+            }
+
+            zRealSquare = zReal.square();
+            zImaginarySquare = zImaginary.square();
+            currIteration++;
+        }
+
+        this.iterationCount += currIteration;
+        if (currIteration < this.maxIterations) {
+            return this.getSmoothIterations(currIteration, zReal.doubleValue(), zImaginary.doubleValue());
+        }
+        return ColourPalette.INSIDE;
     }
 }
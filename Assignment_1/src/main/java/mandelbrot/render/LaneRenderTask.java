@@ -0,0 +1,323 @@
+package mandelbrot.render;
+
+import utils.ColourPalette;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Render task that can iterate several pixels at once, like the vector types in the OpenCL kernels.
+ * When one pixel is iterated at a time, every multiply waits for the one before it. The pixels don't depend on each
+ * other, so iterating LANES of them together keeps the processor busy. Each lane moves on to the next pixel in the
+ * segment as soon as it finishes, so lanes don't sit idle waiting for a slow neighbour.
+ * <p>
+ * iterateLanes keeps the lanes in local variables and iterates them until one needs attention (it escaped, reached
+ * max iterations or may be in a cycle), then finishLane deals with it.
+ * The lane kernel iterates in doubles, and gives the same results as iterating each pixel in doubles.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public abstract class LaneRenderTask extends RenderTask {
+
+    /**
+     * Number of pixels iterated together, iterateLanes is unrolled for this many
+     */
+    protected static final int LANES = 4;
+
+    protected final boolean laneKernel;
+
+    //region Lane State
+    protected final double[] laneReal = new double[LANES];
+    protected final double[] laneImaginary = new double[LANES];
+    protected final double[] laneCReal = new double[LANES];
+    protected final double[] laneCImaginary = new double[LANES];
+    protected final double[] laneSavedReal = new double[LANES];
+    protected final double[] laneSavedImaginary = new double[LANES];
+    protected final int[] laneIteration = new int[LANES];
+
+    /**
+     * Index in the raster of the pixel each lane is iterating, or -1 if the lane is idle
+     */
+    private final int[] lanePixel = new int[LANES];
+    //endregion
+
+    public LaneRenderTask(RenderContext t, Rectangle2D bounds) {
+        super(t, bounds);
+        // The lane kernel iterates in doubles, so it can't be used for double-double images
+        this.laneKernel = this.context.isLaneKernel() && this.precision != Precision.DOUBLE_DOUBLE;
+    }
+
+    /**
+     * Calculates and colours every pixel of the segment, with the lane kernel if it is enabled.
+     * The lanes work through the segment in row order, so narrow segments still fill every lane.
+     *
+     * @param width       Width of segment
+     * @param height      Height of segment
+     * @param reals       Real component of each column
+     * @param imaginaries Imaginary component of each row
+     */
+    @Override
+    protected void calculateSegment(int width, int height, double[] reals, double[] imaginaries) {
+        if (!this.laneKernel) {
+            super.calculateSegment(width, height, reals, imaginaries);
+            return;
+        }
+
+        int size = width * height;
+        int next = 0;
+        int active = 0;
+        for (int lane = 0; lane < LANES; lane++) {
+            next = this.fillLane(lane, next, size, width, reals, imaginaries);
+            if (this.lanePixel[lane] != -1) active++;
+        }
+
+        float result;
+        while (active > 0) {
+            this.iterateLanes();
+
+            for (int lane = 0; lane < LANES; lane++) {
+                if (this.lanePixel[lane] == -1) continue;
+                result = this.finishLane(lane);
+                if (Float.isNaN(result)) continue;
+
+                this.iterationCount += this.laneIteration[lane];
+                this.smoothIterations[this.lanePixel[lane]] = result;
+                next = this.fillLane(lane, next, size, width, reals, imaginaries);
+                if (this.lanePixel[lane] == -1) active--;
+            }
+        }
+
+        this.colour(width, height);
+    }
+
+    /**
+     * Starts the next pixel that needs iterating in a lane, or makes the lane idle if there aren't any left
+     *
+     * @param lane        Lane to fill
+     * @param next        Index of the next pixel
+     * @param size        Number of pixels in the segment
+     * @param width       Width of segment
+     * @param reals       Real component of each column
+     * @param imaginaries Imaginary component of each row
+     * @return int, index of the pixel after the one started
+     */
+    private int fillLane(int lane, int next, int size, int width, double[] reals, double[] imaginaries) {
+        float result;
+        while (next < size) {
+            if (next % width == 0) this.checkCancelled();
+
+            result = this.startLane(lane, reals[next % width], imaginaries[next / width]);
+            if (Float.isNaN(result)) {
+                this.lanePixel[lane] = this.getIndex(next % width, next / width);
+                return next + 1;
+            }
+            this.smoothIterations[this.getIndex(next % width, next / width)] = result;
+            next++;
+        }
+
+        // NaN never escapes, or matches a saved point, so an idle lane never stops the other lanes
+        this.lanePixel[lane] = -1;
+        this.laneReal[lane] = this.laneImaginary[lane] = Double.NaN;
+        this.laneCReal[lane] = this.laneCImaginary[lane] = Double.NaN;
+        this.laneSavedReal[lane] = this.laneSavedImaginary[lane] = Double.NaN;
+        this.laneIteration[lane] = 0;
+        return next;
+    }
+
+    /**
+     * Sets the starting point of a lane
+     *
+     * @param lane       Lane to set
+     * @param zReal      Real component of z
+     * @param zImaginary Imaginary component of z
+     * @param cReal      Real component of c
+     * @param cImaginary Imaginary component of c
+     */
+    protected final void setLane(int lane, double zReal, double zImaginary, double cReal, double cImaginary) {
+        this.laneReal[lane] = this.laneSavedReal[lane] = zReal;
+        this.laneImaginary[lane] = this.laneSavedImaginary[lane] = zImaginary;
+        this.laneCReal[lane] = cReal;
+        this.laneCImaginary[lane] = cImaginary;
+        this.laneIteration[lane] = 0;
+    }
+
+    /**
+     * Starts iterating a pixel in a lane, by calling setLane
+     *
+     * @param lane      Lane to start the pixel in
+     * @param real      Real component of the pixel
+     * @param imaginary Imaginary component of the pixel
+     * @return NaN if the pixel was started, otherwise the smooth iteration count of a pixel that didn't need iterating
+     */
+    protected abstract float startLane(int lane, double real, double imaginary);
+
+    /**
+     * Iterates z = z^2 + c in every lane until at least one lane needs finishing
+     */
+    protected void iterateLanes() {
+        double zr0 = this.laneReal[0], zr1 = this.laneReal[1], zr2 = this.laneReal[2], zr3 = this.laneReal[3];
+        double zi0 = this.laneImaginary[0], zi1 = this.laneImaginary[1], zi2 = this.laneImaginary[2], zi3 = this.laneImaginary[3];
+        double cr0 = this.laneCReal[0], cr1 = this.laneCReal[1], cr2 = this.laneCReal[2], cr3 = this.laneCReal[3];
+        double ci0 = this.laneCImaginary[0], ci1 = this.laneCImaginary[1], ci2 = this.laneCImaginary[2], ci3 = this.laneCImaginary[3];
+        double escapeRadiusSquared = this.escapeRadiusSquared;
+        double abi0, abi1, abi2, abi3;
+
+        // The lanes move together, so work out how far they can go before one reaches max iterations
+        int limit = this.getStepLimit();
+        int step = 0;
+
+        if (this.periodicityCheck) {
+            double sr0 = this.laneSavedReal[0], sr1 = this.laneSavedReal[1], sr2 = this.laneSavedReal[2], sr3 = this.laneSavedReal[3];
+            double si0 = this.laneSavedImaginary[0], si1 = this.laneSavedImaginary[1], si2 = this.laneSavedImaginary[2], si3 = this.laneSavedImaginary[3];
+            double tolerance = this.periodicityTolerance;
+            int n0 = this.laneIteration[0], n1 = this.laneIteration[1], n2 = this.laneIteration[2], n3 = this.laneIteration[3];
+
+            while (true) {
+                // (a + bi)^2 = (a^2 - b^2) + 2abi
+                abi0 = zr0 * zi0;
+                abi1 = zr1 * zi1;
+                abi2 = zr2 * zi2;
+                abi3 = zr3 * zi3;
+                zr0 = zr0 * zr0 - zi0 * zi0 + cr0;
+                zr1 = zr1 * zr1 - zi1 * zi1 + cr1;
+                zr2 = zr2 * zr2 - zi2 * zi2 + cr2;
+                zr3 = zr3 * zr3 - zi3 * zi3 + cr3;
+                zi0 = abi0 + abi0 + ci0;
+                zi1 = abi1 + abi1 + ci1;
+                zi2 = abi2 + abi2 + ci2;
+                zi3 = abi3 + abi3 + ci3;
+                step++;
+                n0++;
+                n1++;
+                n2++;
+                n3++;
+
+                // Non short circuit ors, so there's only one branch to predict.
+                // Stop before saving on the last step too, otherwise finishLane would compare z with itself
+                if (step == limit | zr0 * zr0 + zi0 * zi0 > escapeRadiusSquared | zr1 * zr1 + zi1 * zi1 > escapeRadiusSquared
+                        | zr2 * zr2 + zi2 * zi2 > escapeRadiusSquared | zr3 * zr3 + zi3 * zi3 > escapeRadiusSquared
+                        | Math.abs(zr0 - sr0) < tolerance & Math.abs(zi0 - si0) < tolerance
+                        | Math.abs(zr1 - sr1) < tolerance & Math.abs(zi1 - si1) < tolerance
+                        | Math.abs(zr2 - sr2) < tolerance & Math.abs(zi2 - si2) < tolerance
+                        | Math.abs(zr3 - sr3) < tolerance & Math.abs(zi3 - si3) < tolerance) {
+                    break;
+                }
+
+                // Brent's cycle detection saves the point after 1, 3, 7, 15... iterations
+                if ((n0 & (n0 + 1)) == 0) {
+                    sr0 = zr0;
+                    si0 = zi0;
+                }
+                if ((n1 & (n1 + 1)) == 0) {
+                    sr1 = zr1;
+                    si1 = zi1;
+                }
+                if ((n2 & (n2 + 1)) == 0) {
+                    sr2 = zr2;
+                    si2 = zi2;
+                }
+                if ((n3 & (n3 + 1)) == 0) {
+                    sr3 = zr3;
+                    si3 = zi3;
+                }
+            }
+
+            this.laneSavedReal[0] = sr0;
+            this.laneSavedReal[1] = sr1;
+            this.laneSavedReal[2] = sr2;
+            this.laneSavedReal[3] = sr3;
+            this.laneSavedImaginary[0] = si0;
+            this.laneSavedImaginary[1] = si1;
+            this.laneSavedImaginary[2] = si2;
+            this.laneSavedImaginary[3] = si3;
+        } else {
+            while (step < limit) {
+                abi0 = zr0 * zi0;
+                abi1 = zr1 * zi1;
+                abi2 = zr2 * zi2;
+                abi3 = zr3 * zi3;
+                zr0 = zr0 * zr0 - zi0 * zi0 + cr0;
+                zr1 = zr1 * zr1 - zi1 * zi1 + cr1;
+                zr2 = zr2 * zr2 - zi2 * zi2 + cr2;
+                zr3 = zr3 * zr3 - zi3 * zi3 + cr3;
+                zi0 = abi0 + abi0 + ci0;
+                zi1 = abi1 + abi1 + ci1;
+                zi2 = abi2 + abi2 + ci2;
+                zi3 = abi3 + abi3 + ci3;
+                step++;
+
+                if (zr0 * zr0 + zi0 * zi0 > escapeRadiusSquared | zr1 * zr1 + zi1 * zi1 > escapeRadiusSquared
+                        | zr2 * zr2 + zi2 * zi2 > escapeRadiusSquared | zr3 * zr3 + zi3 * zi3 > escapeRadiusSquared) {
+                    break;
+                }
+            }
+        }
+
+        this.laneReal[0] = zr0;
+        this.laneReal[1] = zr1;
+        this.laneReal[2] = zr2;
+        this.laneReal[3] = zr3;
+        this.laneImaginary[0] = zi0;
+        this.laneImaginary[1] = zi1;
+        this.laneImaginary[2] = zi2;
+        this.laneImaginary[3] = zi3;
+        this.addSteps(step);
+    }
+
+    /**
+     * Gets the number of iterations until the first lane reaches max iterations
+     *
+     * @return int, number of iterations
+     */
+    protected final int getStepLimit() {
+        int limit = Integer.MAX_VALUE;
+        for (int lane = 0; lane < LANES; lane++) {
+            if (this.lanePixel[lane] == -1) continue;
+            limit = Math.min(limit, this.maxIterations - this.laneIteration[lane]);
+        }
+        return limit;
+    }
+
+    /**
+     * Adds the number of iterations taken by iterateLanes to every lane
+     *
+     * @param steps Number of iterations
+     */
+    protected final void addSteps(int steps) {
+        for (int lane = 0; lane < LANES; lane++) {
+            this.laneIteration[lane] += steps;
+        }
+    }
+
+    /**
+     * Checks whether a lane has finished, in the same order as the pixel kernels check
+     *
+     * @param lane Lane to check
+     * @return NaN if the lane should carry on, otherwise the smooth iteration count of the pixel
+     */
+    protected float finishLane(int lane) {
+        double zReal = this.laneReal[lane];
+        double zImaginary = this.laneImaginary[lane];
+        int iteration = this.laneIteration[lane];
+
+        // Apply period detection
+        if (this.periodicityCheck) {
+            if (Math.abs(zReal - this.laneSavedReal[lane]) < this.periodicityTolerance && Math.abs(zImaginary - this.laneSavedImaginary[lane]) < this.periodicityTolerance) {
+                return ColourPalette.INSIDE;
+            }
+            // iterateLanes skips the save if it stopped on a save point
+            if ((iteration & (iteration + 1)) == 0) {
+                this.laneSavedReal[lane] = zReal;
+                this.laneSavedImaginary[lane] = zImaginary;
+            }
+        }
+
+        if (zReal * zReal + zImaginary * zImaginary > this.escapeRadiusSquared) {
+            return iteration < this.maxIterations ? this.getSmoothIterations(iteration, zReal, zImaginary) : ColourPalette.INSIDE;
+        }
+        if (iteration == this.maxIterations) {
+            return ColourPalette.INSIDE;
+        }
+        return Float.NaN;
+    }
+}
@@ -1,14 +1,9 @@
 package mandelbrot.render;
 
-import mandelbrot.management.RenderManagementThread;
-import utils.ColouredPixel;
-import utils.Complex;
+import utils.ColourPalette;
+import utils.DoubleDouble;
 
-import java.awt.*;
-import java.awt.geom.AffineTransform;
-import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
-import java.awt.image.BufferedImage;
 
 /**
  * Mandelbrot Set Worker Task
@@ -16,91 +11,237 @@ import java.awt.image.BufferedImage;
  * @author Huw Jones
  * @since 28/02/2016
  */
-public class MandelbrotTask extends RenderTask {
+public class MandelbrotTask extends LaneRenderTask {
 
-    private boolean halfHeight = true;
+    private final boolean bulbCheck;
 
-    public MandelbrotTask(RenderManagementThread t, Rectangle2D bounds) {
+    public MandelbrotTask(RenderContext t, Rectangle2D bounds) {
         super(t, bounds);
+        this.bulbCheck = this.context.isBulbCheck();
+    }
 
-        // If y shift is 0, we can effectively use half height optimisation
-        this.halfHeight = this.mgmtThread.getShiftY() == 0;
+    /**
+     * Checks whether a point is in the main cardioid or the period 2 bulb, these points never escape.
+     * See <a href="https://en.wikipedia.org/wiki/Plotting_algorithms_for_the_Mandelbrot_set#Cardioid_/_bulb_checking">Cardioid / bulb checking</a>
+     *
+     * @param real      Real component of the point
+     * @param imaginary Imaginary component of the point
+     * @return true if the point is inside the set
+     */
+    static boolean isInMainBulbs(double real, double imaginary) {
+        double x = real - 0.25d;
+        double imaginarySquare = imaginary * imaginary;
+        double q = x * x + imaginarySquare;
+        if (q * (q + x) <= 0.25d * imaginarySquare) return true;
+
+        double bulbX = real + 1d;
+        return bulbX * bulbX + imaginarySquare <= 0.0625d;
     }
 
     /**
-     * Make sure image is half height so we only calculate top half
-     * Mandelbrot set is symmetric in the x axis
-     * @return Half image height
+     * Worker Unit for individual pixels, iterated at the precision selected for the image
+     * @param x X co-ordinate of pixel, relative to the image segment
+     * @param y Y co-ordinate of pixel, relative to the image segment
+     * @param real Real component of the point
+     * @param imaginary Imaginary component of the point
+     * @return Smooth iteration count of the pixel, or ColourPalette.INSIDE
      */
     @Override
-    protected int getImageHeight() {
-        if (this.halfHeight) {
-            return super.getImageHeight() / 2 + 2;
-        } else {
-            return super.getImageHeight();
+    protected float calculatePixel(int x, int y, double real, double imaginary) {
+        switch (this.precision) {
+            case FLOAT:
+                return this.iterateFloat((float) real, (float) imaginary);
+            case DOUBLE_DOUBLE:
+                return this.iterateDoubleDouble(this.getDoubleDoubleReal(x), this.getDoubleDoubleImaginary(y));
+            default:
+                return this.iterateDouble(real, imaginary);
         }
     }
 
     /**
-     * Since image is half height, we need to flip the existing image and paint it below
+     * Starts iterating a pixel in a lane, z starts at c
+     *
+     * @param lane      Lane to start the pixel in
+     * @param real      Real component of the pixel
+     * @param imaginary Imaginary component of the pixel
+     * @return NaN if the pixel was started, otherwise the smooth iteration count of a pixel that didn't need iterating
      */
     @Override
-    protected void adjustImage(){
-        if (!this.halfHeight) return;
+    protected float startLane(int lane, double real, double imaginary) {
+        if (this.bulbCheck && isInMainBulbs(real, imaginary) || this.maxIterations == 0) {
+            return ColourPalette.INSIDE;
+        }
+        if (real * real + imaginary * imaginary > this.escapeRadiusSquared) {
+            return this.getSmoothIterations(0, real, imaginary);
+        }
+        this.setLane(lane, real, imaginary, real, imaginary);
+        return Float.NaN;
+    }
 
-        BufferedImage newImage = new BufferedImage(this.image.getWidth(), this.image.getHeight() * 2, BufferedImage.TYPE_INT_RGB);
-        Graphics2D g = newImage.createGraphics();
+    /**
+     * Iterates a pixel in double precision
+     *
+     * @param real Real component of the point
+     * @param imaginary Imaginary component of the point
+     * @return Smooth iteration count of the pixel, or ColourPalette.INSIDE
+     */
+    private float iterateDouble(double real, double imaginary) {
+        if (this.bulbCheck && isInMainBulbs(real, imaginary)) {
+            return ColourPalette.INSIDE;
+        }
 
-        // Draw original image
-        g.drawImage(this.image, 0, 0, null);
+        int currIteration = 0;
+        double zReal = real;
+        double zImaginary = imaginary;
+        double zRealSquare = zReal * zReal;
+        double zImaginarySquare = zImaginary * zImaginary;
+        double abi;
+
+        // Brent's cycle detection: compare against a saved point that moves on after 1, 2, 4, 8... iterations
+        double savedReal = zReal;
+        double savedImaginary = zImaginary;
+        int checkPeriod = 1;
+        int checkCount = 0;
+
+        while (zRealSquare + zImaginarySquare <= this.escapeRadiusSquared && currIteration < this.maxIterations) {
+            // (a + bi)^2 = (a^2 - b^2) + 2abi
+            abi = zReal * zImaginary;
+            zReal = zRealSquare - zImaginarySquare + real;
+            zImaginary = abi + abi + imaginary;
 
-        // Flip image upside down (reflect in x = 0)
-        AffineTransform at = new AffineTransform();
-        at.concatenate(AffineTransform.getScaleInstance(1 ,-1));
-        at.concatenate(AffineTransform.getTranslateInstance(0, -this.image.getHeight()));
-        g.transform(at);
+            // Apply period detection
+            if (this.periodicityCheck) {
+                if (Math.abs(zReal - savedReal) < this.periodicityTolerance && Math.abs(zImaginary - savedImaginary) < this.periodicityTolerance) {
+                    this.iterationCount += currIteration + 1;
+                    return ColourPalette.INSIDE;
+                }
+                if (++checkCount == checkPeriod) {
+                    checkCount = 0;
+                    checkPeriod <<= 1;
+                    savedReal = zReal;
+                    savedImaginary = zImaginary;
+                }
+            }
 
-        // Adjust image positioning so we don't get any black lines
-        g.drawImage(this.image, 0, 2 - this.image.getHeight(), null);
-        g.dispose();
+            zRealSquare = zReal * zReal;
+            zImaginarySquare = zImaginary * zImaginary;
+            currIteration++;
+        }
 
-        this.image = newImage;
+        this.iterationCount += currIteration;
+        if (currIteration < this.maxIterations) {
+            return this.getSmoothIterations(currIteration, zReal, zImaginary);
+        }
+        return ColourPalette.INSIDE;
     }
 
     /**
-     * Worker Unit for individual pixels
-     * @param point Point on worker unit
-     * @param complex Complex for point
-     * @return ColouredPixel for that pixel
+     * Iterates a pixel in single precision, for shallow images
+     *
+     * @param real Real component of the point
+     * @param imaginary Imaginary component of the point
+     * @return Smooth iteration count of the pixel, or ColourPalette.INSIDE
      */
-    @Override
-    protected ColouredPixel doPixelCalculation(Point2D point, Complex complex) {
-        int currIteration = 0;
-        Complex z = complex.clone();
-        Complex prevPoint;
+    private float iterateFloat(float real, float imaginary) {
+        if (this.bulbCheck && isInMainBulbs(real, imaginary)) {
+            return ColourPalette.INSIDE;
+        }
 
-        while (z.squareReal() + z.squareImaginary() <= this.escapeRadiusSquared && currIteration < this.maxIterations) {
-            prevPoint = z.clone();
-            z = z.square();
-            z.add(complex);
+        float escapeRadiusSquared = (float) this.escapeRadiusSquared;
+        int currIteration = 0;
+        float zReal = real;
+        float zImaginary = imaginary;
+        float zRealSquare = zReal * zReal;
+        float zImaginarySquare = zImaginary * zImaginary;
+        float abi;
+
+        // Brent's cycle detection: compare against a saved point that moves on after 1, 2, 4, 8... iterations
+        float savedReal = zReal;
+        float savedImaginary = zImaginary;
+        int checkPeriod = 1;
+        int checkCount = 0;
+
+        while (zRealSquare + zImaginarySquare <= escapeRadiusSquared && currIteration < this.maxIterations) {
+            // (a + bi)^2 = (a^2 - b^2) + 2abi
+            abi = zReal * zImaginary;
+            zReal = zRealSquare - zImaginarySquare + real;
+            zImaginary = abi + abi + imaginary;
 
             // Apply period detection
-            if(z.equals(prevPoint)){
-                currIteration = this.maxIterations;
-                break;
+            if (this.periodicityCheck) {
+                if (Math.abs(zReal - savedReal) < this.periodicityTolerance && Math.abs(zImaginary - savedImaginary) < this.periodicityTolerance) {
+                    this.iterationCount += currIteration + 1;
+                    return ColourPalette.INSIDE;
+                }
+                if (++checkCount == checkPeriod) {
+                    checkCount = 0;
+                    checkPeriod <<= 1;
+                    savedReal = zReal;
+                    savedImaginary = zImaginary;
+                }
             }
 
+            zRealSquare = zReal * zReal;
+            zImaginarySquare = zImaginary * zImaginary;
             currIteration++;
         }
 
-        Color colour;
-
+        this.iterationCount += currIteration;
         if (currIteration < this.maxIterations) {
-            colour = this.getHSBColour(currIteration, z);
-        } else {
-            colour = Color.BLACK;
+            return this.getSmoothIterations(currIteration, zReal, zImaginary);
         }
+        return ColourPalette.INSIDE;
+    }
+
+    /**
+     * Iterates a pixel in double-double precision, for images too deep for doubles.
+     * The bulb check is skipped, as it can't be done accurately in doubles this close to the edge of a bulb.
+     *
+     * @param real Real component of the point
+     * @param imaginary Imaginary component of the point
+     * @return Smooth iteration count of the pixel, or ColourPalette.INSIDE
+     */
+    private float iterateDoubleDouble(DoubleDouble real, DoubleDouble imaginary) {
+        int currIteration = 0;
+        DoubleDouble zReal = real;
+        DoubleDouble zImaginary = imaginary;
+        DoubleDouble zRealSquare = zReal.square();
+        DoubleDouble zImaginarySquare = zImaginary.square();
+
+        // Brent's cycle detection: compare against a saved point that moves on after 1, 2, 4, 8... iterations
+        DoubleDouble savedReal = zReal;
+        DoubleDouble savedImaginary = zImaginary;
+        int checkPeriod = 1;
+        int checkCount = 0;
+
+        while (zRealSquare.doubleValue() + zImaginarySquare.doubleValue() <= this.escapeRadiusSquared && currIteration < this.maxIterations) {
+            // (a + bi)^2 = (a^2 - b^2) + 2abi
+            zImaginary = zReal.multiply(zImaginary).multiplyPowerOf2(2).add(imaginary);
+            zReal = zRealSquare.subtract(zImaginarySquare).add(real);
 
-        return new ColouredPixel(point, colour);
+            // Apply period detection
+            if (this.periodicityCheck) {
+                if (Math.abs(zReal.subtract(savedReal).doubleValue()) < this.periodicityTolerance && Math.abs(zImaginary.subtract(savedImaginary).doubleValue()) < this.periodicityTolerance) {
+                    this.iterationCount += currIteration + 1;
+                    return ColourPalette.INSIDE;
+                }
+                if (++checkCount == checkPeriod) {
+                    checkCount = 0;
+                    checkPeriod <<= 1;
+                    savedReal = zReal;
+                    savedImaginary = zImaginary;
+                }
+            }
+
+            zRealSquare = zReal.square();
+            zImaginarySquare = zImaginary.square();
+            currIteration++;
+        }
+
+        this.iterationCount += currIteration;
+        if (currIteration < this.maxIterations) {
+            return this.getSmoothIterations(currIteration, zReal.doubleValue(), zImaginary.doubleValue());
+        }
+        return ColourPalette.INSIDE;
     }
 }
@@ -0,0 +1,122 @@
+package mandelbrot.render;
+
+import mandelbrot.management.PerturbationEngine;
+import utils.ColourPalette;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Mandelbrot Set Worker Task for deep zooms.
+ * Each pixel is iterated as a difference from a high precision reference orbit, so only doubles are needed.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public class PerturbationTask extends RenderTask {
+
+    private final double[] referenceReal;
+    private final double[] referenceImaginary;
+    private final int referenceLength;
+    private final double referenceOffsetReal;
+    private final double referenceOffsetImaginary;
+
+    private final boolean[] glitched;
+    private final float[] glitchSize;
+    private final float[] previous;
+    private final int imageWidth;
+    private final int offsetX;
+    private final int offsetY;
+
+    /**
+     * Creates a perturbation task
+     *
+     * @param t         Render context
+     * @param bounds    Bounds of segment to render
+     * @param reference Reference orbit to iterate against
+     * @param engine    Engine to record glitches in
+     * @param previous  Smooth iteration counts of the last pass, only glitched pixels are re-rendered.
+     *                  Null to render every pixel.
+     */
+    public PerturbationTask(RenderContext t, Rectangle2D bounds, PerturbationEngine.ReferenceOrbit reference, PerturbationEngine engine, float[] previous) {
+        super(t, bounds);
+        this.referenceReal = reference.getReal();
+        this.referenceImaginary = reference.getImaginary();
+        this.referenceLength = reference.getLength();
+        this.referenceOffsetReal = reference.getOffsetReal();
+        this.referenceOffsetImaginary = reference.getOffsetImaginary();
+        this.glitched = engine.getGlitched();
+        this.glitchSize = engine.getGlitchSize();
+        this.previous = previous;
+        this.imageWidth = t.getImageWidth();
+        this.offsetX = (int) bounds.getX();
+        this.offsetY = (int) bounds.getY();
+    }
+
+    /**
+     * Worker Unit for individual pixels.
+     * Iterates dz' = 2Zdz + dz^2 + dc, where Z is the reference orbit and dc is the offset of the pixel from the reference.
+     *
+     * @param x X co-ordinate of pixel, relative to the image segment
+     * @param y Y co-ordinate of pixel, relative to the image segment
+     * @param real Real component of the point (not precise enough to use)
+     * @param imaginary Imaginary component of the point (not precise enough to use)
+     * @return Smooth iteration count of the pixel, or ColourPalette.INSIDE
+     */
+    @Override
+    protected float calculatePixel(int x, int y, double real, double imaginary) {
+        int index = (y + this.offsetY) * this.imageWidth + x + this.offsetX;
+        if (this.previous != null && !this.glitched[index]) {
+            return this.previous[index];
+        }
+        this.glitched[index] = false;
+
+        double dcReal = this.context.getOffsetReal(x + this.offsetX) - this.referenceOffsetReal;
+        double dcImaginary = this.context.getOffsetImaginary(y + this.offsetY) - this.referenceOffsetImaginary;
+
+        double dzReal = dcReal;
+        double dzImaginary = dcImaginary;
+        double zReal = this.referenceReal[0] + dzReal;
+        double zImaginary = this.referenceImaginary[0] + dzImaginary;
+        double referenceReal, referenceImaginary, twoZReal, twoZImaginary, dzRealTemp, zSquared, referenceSquared;
+        int iterationNumber = 0;
+
+        while (zReal * zReal + zImaginary * zImaginary <= this.escapeRadiusSquared && iterationNumber < this.maxIterations) {
+            // The reference escaped before this pixel, so there's nothing left to iterate against
+            if (iterationNumber + 1 >= this.referenceLength) {
+                this.glitched[index] = true;
+                this.glitchSize[index] = 1f;
+                this.iterationCount += iterationNumber;
+                return ColourPalette.INSIDE;
+            }
+
+            // dz' = (2Z + dz)dz + dc
+            twoZReal = 2 * this.referenceReal[iterationNumber] + dzReal;
+            twoZImaginary = 2 * this.referenceImaginary[iterationNumber] + dzImaginary;
+            dzRealTemp = twoZReal * dzReal - twoZImaginary * dzImaginary + dcReal;
+            dzImaginary = twoZReal * dzImaginary + twoZImaginary * dzReal + dcImaginary;
+            dzReal = dzRealTemp;
+            iterationNumber++;
+
+            referenceReal = this.referenceReal[iterationNumber];
+            referenceImaginary = this.referenceImaginary[iterationNumber];
+            zReal = referenceReal + dzReal;
+            zImaginary = referenceImaginary + dzImaginary;
+
+            // When z is much smaller than Z, dz has lost its precision to cancellation
+            zSquared = zReal * zReal + zImaginary * zImaginary;
+            referenceSquared = referenceReal * referenceReal + referenceImaginary * referenceImaginary;
+            if (zSquared < PerturbationEngine.GLITCH_TOLERANCE * referenceSquared) {
+                this.glitched[index] = true;
+                this.glitchSize[index] = (float) (zSquared / referenceSquared);
+                this.iterationCount += iterationNumber;
+                return ColourPalette.INSIDE;
+            }
+        }
+
+        this.iterationCount += iterationNumber;
+        if (iterationNumber == this.maxIterations) {
+            return ColourPalette.INSIDE;
+        }
+        return this.getSmoothIterations(iterationNumber, zReal, zImaginary);
+    }
+}
@@ -0,0 +1,72 @@
+package mandelbrot.render;
+
+/**
+ * Precision that render kernels iterate at.
+ * Lower precision is faster, so the lowest precision that can still tell neighbouring pixels apart is used.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public enum Precision {
+    FLOAT("Float", Math.ulp(1f)),
+    DOUBLE("Double", Math.ulp(1d)),
+    DOUBLE_DOUBLE("Double-Double", Math.ulp(1d) * Math.ulp(1d));
+
+    /**
+     * Rounding errors build up over the iterations, so pixels must be this many epsilons apart
+     */
+    private static final double HEADROOM = 1024;
+
+    private final String name;
+    private final double epsilon;
+
+    Precision(String name, double epsilon) {
+        this.name = name;
+        this.epsilon = epsilon;
+    }
+
+    /**
+     * Gets the relative precision of the tier
+     *
+     * @return double, machine epsilon
+     */
+    public double getEpsilon() {
+        return this.epsilon;
+    }
+
+    /**
+     * Selects the lowest precision that can render an image
+     *
+     * @param pixelSize Size of a pixel in the complex plane
+     * @param magnitude Largest magnitude of the co-ordinates in the image
+     * @return Precision, DOUBLE_DOUBLE if even that isn't precise enough
+     */
+    public static Precision select(double pixelSize, double magnitude) {
+        // z gets up to the escape radius whatever the co-ordinates are
+        double scale = Math.max(magnitude, 2);
+        for (Precision precision : values()) {
+            if (pixelSize >= scale * precision.epsilon * HEADROOM) {
+                return precision;
+            }
+        }
+        return DOUBLE_DOUBLE;
+    }
+
+    /**
+     * Gets a precision from its name
+     *
+     * @param name Name of precision
+     * @return Precision, or null if there isn't one with the name
+     */
+    public static Precision fromName(String name) {
+        for (Precision precision : values()) {
+            if (precision.name.equals(name)) return precision;
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
@@ -1,11 +1,5 @@
 package mandelbrot.render;
 
-import mandelbrot.management.RenderManagementThread;
-import utils.ColouredPixel;
-import utils.Complex;
-
-import java.awt.*;
-import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 
 /**
@@ -16,46 +10,39 @@ import java.awt.geom.Rectangle2D;
  */
 public class RecolourTask extends RenderTask {
 
-    private float originalHue;
-    private float originalSaturation;
-    private float originalBrightness;
+    private final float[] source;
+    private final int sourceWidth;
+    private final int offsetX;
+    private final int offsetY;
 
-    public RecolourTask(RenderManagementThread t, Rectangle2D bounds) {
-        super(t, bounds);
-        // Get original values
-        this.originalHue = t.getImage().getColourProperties().getHue();
-        this.originalSaturation = t.getImage().getColourProperties().getSaturation();
-        this.originalBrightness = t.getImage().getColourProperties().getBrightness();
+    /**
+     * Creates a recolour task.
+     * Recolours never subdivide, filling a rectangle from its border would lose the detail inside it.
+     *
+     * @param t      Render context
+     * @param bounds Bounds of segment to recolour
+     * @param source Smooth iteration counts of the image being recoloured
+     */
+    public RecolourTask(RenderContext t, Rectangle2D bounds, float[] source) {
+        super(t, bounds, false);
+        this.source = source;
+        this.sourceWidth = t.getImageWidth();
+        this.offsetX = (int) bounds.getX();
+        this.offsetY = (int) bounds.getY();
     }
 
     /**
-     * Worker Unit for individual pixels
-     * @param point Point on worker unit
-     * @param complex Complex for point
-     * @return ColouredPixel for that pixel
+     * Worker Unit for individual pixels, the smooth iteration count has already been calculated
+     * so we just look it up and let it be coloured with the new palette
+     *
+     * @param x X co-ordinate of pixel, relative to the image segment
+     * @param y Y co-ordinate of pixel, relative to the image segment
+     * @param real Real component of the point
+     * @param imaginary Imaginary component of the point
+     * @return Smooth iteration count of the pixel, or ColourPalette.INSIDE
      */
     @Override
-    protected ColouredPixel doPixelCalculation (Point2D point, Complex complex) {
-        float[] hsb = new float[3];
-        // Get current RGB Colour
-        int rgb = this.mgmtThread.getImage().getRGB((int) this.absolutePoint.getX(), (int) this.absolutePoint.getY());
-
-        // Convert RGB to HSB
-        hsb = Color.RGBtoHSB(rgb >> 16 & 0x000000FF, rgb >>8 & 0x000000FF, rgb & 0x000000FF, hsb);
-
-        // Add new values and subtract old ones
-        hsb[0] += this.mgmtThread.getHue() - this.originalHue;
-
-        // Maintain black
-        if(rgb == Color.black.getRGB()) {
-            hsb[1] = 0;
-            hsb[2] = 0;
-        } else {
-            hsb[1] += this.mgmtThread.getSaturation() - this.originalSaturation;
-            hsb[2] += this.mgmtThread.getBrightness() - this.originalBrightness;
-        }
-
-        // Return new pixel, but with adjusted colours
-        return new ColouredPixel(point, Color.getHSBColor(hsb[0], hsb[1], hsb[2]));
+    protected float calculatePixel(int x, int y, double real, double imaginary) {
+        return this.source[(y + this.offsetY) * this.sourceWidth + x + this.offsetX];
     }
 }
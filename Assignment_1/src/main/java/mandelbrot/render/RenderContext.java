@@ -0,0 +1,183 @@
+package mandelbrot.render;
+
+import utils.ColourPalette;
+import utils.DoubleDouble;
+import utils.FractalImage;
+
+/**
+ * Everything a RenderTask needs to know about the image it is rendering.
+ * RenderManagementThread implements this for the GUI, but anything can, so tasks can be run without a window.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public interface RenderContext {
+
+    /**
+     * Gets the width of the whole image being rendered
+     *
+     * @return int, width in pixels
+     */
+    int getImageWidth();
+
+    /**
+     * Gets the height of the whole image being rendered
+     *
+     * @return int, height in pixels
+     */
+    int getImageHeight();
+
+    /**
+     * Gets escape radius squared
+     *
+     * @return double escape radius squared
+     */
+    double getEscapeRadiusSquared();
+
+    /**
+     * Gets max iteration number
+     *
+     * @return int max iteration count
+     */
+    int getIterations();
+
+    /**
+     * Gets Y axis shift
+     *
+     * @return double Y axis shift
+     */
+    double getShiftY();
+
+    /**
+     * Gets the palette used to colour the image
+     *
+     * @return ColourPalette
+     */
+    ColourPalette getPalette();
+
+    /**
+     * Gets the real component represented by x co-ordinate, x.
+     *
+     * @param x X co-ordinate
+     * @return double, real component
+     */
+    double getReal(double x);
+
+    /**
+     * Gets the imaginary component represented by y co-ordinate, y.
+     *
+     * @param y Y co-ordinate
+     * @return double, imaginary component
+     */
+    double getImaginary(double y);
+
+    /**
+     * Gets the real distance of x co-ordinate, x, from the centre of the image.
+     *
+     * @param x X co-ordinate
+     * @return double, real offset
+     */
+    double getOffsetReal(double x);
+
+    /**
+     * Gets the imaginary distance of y co-ordinate, y, from the centre of the image.
+     *
+     * @param y Y co-ordinate
+     * @return double, imaginary offset
+     */
+    double getOffsetImaginary(double y);
+
+    /**
+     * Gets the real component represented by x co-ordinate, x, in double-double precision.
+     *
+     * @param x X co-ordinate
+     * @return DoubleDouble, real component
+     */
+    DoubleDouble getDoubleDoubleReal(double x);
+
+    /**
+     * Gets the imaginary component represented by y co-ordinate, y, in double-double precision.
+     *
+     * @param y Y co-ordinate
+     * @return DoubleDouble, imaginary component
+     */
+    DoubleDouble getDoubleDoubleImaginary(double y);
+
+    /**
+     * Returns whether points in the main cardioid and period 2 bulb should be skipped
+     *
+     * @return true if the bulb check is enabled
+     */
+    boolean isBulbCheck();
+
+    /**
+     * Returns whether orbits should be checked for cycles
+     *
+     * @return true if periodicity checking is enabled
+     */
+    boolean isPeriodicityCheck();
+
+    /**
+     * Returns whether tiles should be rendered by subdividing them
+     *
+     * @return true if subdivision is enabled, and the fractal supports it
+     */
+    boolean isSubdivision();
+
+    /**
+     * Returns whether segments should be rendered with the lane kernel, which iterates several pixels at once
+     *
+     * @return true if the lane kernel is enabled
+     */
+    boolean isLaneKernel();
+
+    /**
+     * Gets how close an orbit has to come to a previous point to be treated as a cycle.
+     *
+     * @return double, tolerance
+     */
+    double getPeriodicityTolerance();
+
+    /**
+     * Gets the precision the image is rendered at
+     *
+     * @return Precision
+     */
+    Precision getPrecision();
+
+    /**
+     * Gets the spacing of pixels calculated in the current pass, 1 if every pixel is calculated
+     *
+     * @return int pass step
+     */
+    int getPassStep();
+
+    /**
+     * Gets the spacing of pixels calculated in the previous pass, 0 if there wasn't a previous pass
+     *
+     * @return int previous pass step
+     */
+    int getPreviousPassStep();
+
+    /**
+     * Gets the smooth iteration counts of pixels calculated in the passes so far
+     *
+     * @return float[] samples, in image order
+     */
+    float[] getPassSamples();
+
+    /**
+     * Returns whether the render in progress has been superseded by a newer request
+     *
+     * @return true if the render should be abandoned
+     */
+    boolean isRenderCancelled();
+
+    /**
+     * Gets the image tasks write their pixels straight into.
+     * Tiles of a render never overlap, so tasks write to it without locking.
+     *
+     * @return FractalImage, or null for each task to return its pixels in its own segment
+     */
+    FractalImage getTarget();
+}
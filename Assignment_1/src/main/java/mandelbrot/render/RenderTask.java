@@ -1,15 +1,17 @@
 package mandelbrot.render;
 
-import mandelbrot.management.RenderManagementThread;
-import utils.ColouredPixel;
-import utils.Complex;
+import mandelbrot.metrics.RenderRecorder;
+import utils.ColourPalette;
+import utils.DoubleDouble;
+import utils.FractalImage;
 import utils.ImageSegment;
 
-import java.awt.*;
-import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 
 /**
  * Processes Render for Image segment
@@ -21,110 +23,371 @@ public abstract class RenderTask implements Callable<ImageSegment> {
 
     public static final float M_LN2_F = (float)Math.log(2);
 
-    protected final RenderManagementThread mgmtThread;
+    /**
+     * Rectangles smaller than this are calculated pixel by pixel, rather than split again
+     */
+    private static final int MIN_SUBDIVISION = 4;
+
+    protected final RenderContext context;
     protected final Rectangle2D bounds;
     protected final int maxIterations;
     protected final double escapeRadiusSquared;
-    protected BufferedImage image;
+    protected final ColourPalette palette;
+    protected final Precision precision;
+    protected final boolean periodicityCheck;
+    protected final double periodicityTolerance;
+    protected final boolean subdivision;
+    protected final int step;
+    protected final int previousStep;
+
+    /**
+     * Pixels and smooth iteration counts are written to index origin + y * stride + x,
+     * either in the target image, or in the segment's own arrays if there isn't one
+     */
+    protected int[] raster;
+    protected float[] smoothIterations;
+    protected int origin;
+    protected int stride;
 
-    protected Point2D absolutePoint;
-    protected Point2D relativePoint;
+    /**
+     * Number of iterations calculated by the kernels, for the render statistics
+     */
+    protected long iterationCount;
+
+    public RenderTask(RenderContext t, Rectangle2D bounds) {
+        this(t, bounds, t.isSubdivision());
+    }
 
-    public RenderTask(RenderManagementThread t, Rectangle2D bounds) {
-        this.mgmtThread = t;
+    /**
+     * Creates a task, choosing whether it renders by subdivision rather than taking it from the context
+     *
+     * @param t           Render context
+     * @param bounds      Bounds of segment to render
+     * @param subdivision true to render by subdivision, false to calculate every pixel
+     */
+    protected RenderTask(RenderContext t, Rectangle2D bounds, boolean subdivision) {
+        this.context = t;
         this.bounds = bounds;
-        this.maxIterations = this.mgmtThread.getIterations();
-        this.escapeRadiusSquared = this.mgmtThread.getEscapeRadiusSquared();
+        this.maxIterations = this.context.getIterations();
+        this.escapeRadiusSquared = this.context.getEscapeRadiusSquared();
+        this.palette = this.context.getPalette();
+        this.precision = this.context.getPrecision();
+        this.periodicityCheck = this.context.isPeriodicityCheck();
+        this.periodicityTolerance = this.context.getPeriodicityTolerance();
+        this.subdivision = subdivision;
+        this.step = this.context.getPassStep();
+        this.previousStep = this.context.getPreviousPassStep();
     }
 
     /**
      * Computes a result, or throws an exception if unable to do so.
      *
      * @return computed result
+     * @throws CancellationException if the render was superseded whilst computing
      * @throws Exception if unable to compute a result
      */
     @Override
     public ImageSegment call() throws Exception {
-        // Create image segment
-        this.image = new BufferedImage(this.getImageWidth(), this.getImageHeight(), BufferedImage.TYPE_INT_RGB);
-        ColouredPixel pixel;
-        // Loop through row by row
-        for (int y = 0; y < this.getImageHeight(); y++) {
-            for (int x = 0; x < this.getImageWidth(); x++) {
-                // Get points (relative to image segment, for painting and absolute for Image Panel)
-                this.absolutePoint = new Point2D.Double(x + this.bounds.getX(), y + this.bounds.getY());
-                this.relativePoint = new Point2D.Double(x, y);
-
-                Complex c = this.mgmtThread.getComplexFromPoint(this.absolutePoint);
-
-                // Perform calculation
-                pixel = this.doPixelCalculation(this.relativePoint, c);
-
-                this.paintPixel(pixel);
+        long startTime = System.nanoTime();
+        int width = (int) this.bounds.getWidth();
+        int height = (int) this.bounds.getHeight();
+        int offsetX = (int) this.bounds.getX();
+        int offsetY = (int) this.bounds.getY();
+
+        // Write straight into the target if there is one, otherwise create an image segment and write into that
+        FractalImage target = this.context.getTarget();
+        BufferedImage image = null;
+        if (target != null) {
+            this.raster = target.getPixels();
+            this.smoothIterations = target.getSmoothIterations();
+            this.stride = target.getWidth();
+            this.origin = offsetY * this.stride + offsetX;
+        } else {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            this.raster = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            this.smoothIterations = new float[width * height];
+            this.stride = width;
+            this.origin = 0;
+        }
+
+        if (this.step != 1 || this.previousStep != 0) {
+            this.renderPass(width, height, offsetX, offsetY);
+        } else {
+            this.renderSegment(width, height, offsetX, offsetY);
+        }
+
+        long computeTime = System.nanoTime() - startTime;
+        RenderRecorder.recordTile(this.bounds, computeTime, this.iterationCount);
+
+        ImageSegment segment = target != null ? new ImageSegment(this.bounds) : new ImageSegment(image, this.smoothIterations, this.bounds);
+        segment.setStatistics(computeTime, this.iterationCount);
+        return segment;
+    }
+
+    /**
+     * Calculates and colours every pixel of the segment
+     *
+     * @param width   Width of segment
+     * @param height  Height of segment
+     * @param offsetX X co-ordinate of segment in the image
+     * @param offsetY Y co-ordinate of segment in the image
+     */
+    private void renderSegment(int width, int height, int offsetX, int offsetY) {
+        // The real component only depends on the column, and the imaginary on the row, so calculate them once each
+        double[] reals = new double[width];
+        for (int x = 0; x < width; x++) {
+            reals[x] = this.context.getReal(x + offsetX);
+        }
+        double[] imaginaries = new double[height];
+        for (int y = 0; y < height; y++) {
+            imaginaries[y] = this.context.getImaginary(y + offsetY);
+        }
+
+        if (this.subdivision) {
+            // NaN marks pixels that haven't been calculated yet
+            for (int y = 0; y < height; y++) {
+                Arrays.fill(this.smoothIterations, this.getIndex(0, y), this.getIndex(width, y), Float.NaN);
+            }
+            this.subdivide(0, 0, width - 1, height - 1, reals, imaginaries);
+            this.colour(width, height);
+        } else {
+            this.calculateSegment(width, height, reals, imaginaries);
+        }
+    }
+
+    /**
+     * Calculates and colours every pixel of the segment, row by row
+     *
+     * @param width       Width of segment
+     * @param height      Height of segment
+     * @param reals       Real component of each column
+     * @param imaginaries Imaginary component of each row
+     */
+    protected void calculateSegment(int width, int height, double[] reals, double[] imaginaries) {
+        int row;
+        for (int y = 0; y < height; y++) {
+            this.checkCancelled();
+            row = this.getIndex(0, y);
+            for (int x = 0; x < width; x++) {
+                this.smoothIterations[row + x] = this.calculatePixel(x, y, reals[x], imaginaries[y]);
             }
+            this.palette.colour(this.smoothIterations, this.raster, row, width);
         }
+    }
+
+    /**
+     * Renders one pass of a progressive render.
+     * Only pixels on a grid of the current step are calculated, and each one is painted as a step x step block.
+     * Pixels that were on the grid of the previous pass are taken from the pass samples rather than recalculated.
+     * Each sample belongs to the segment that contains it. Tiles are aligned to the grid so they don't share any, but if
+     * a block overlaps from a neighbouring segment, its sample is calculated again without writing it back.
+     *
+     * @param width   Width of segment
+     * @param height  Height of segment
+     * @param offsetX X co-ordinate of segment in the image
+     * @param offsetY Y co-ordinate of segment in the image
+     */
+    private void renderPass(int width, int height, int offsetX, int offsetY) {
+        float[] samples = this.context.getPassSamples();
+        int imageWidth = this.context.getImageWidth();
+        int endX = offsetX + width;
+        int endY = offsetY + height;
+
+        double imaginary;
+        float sample;
+        int colour, index, row;
+        int blockStartX, blockEndX, blockStartY, blockEndY;
 
-        // Perform final image adjustment
-        this.adjustImage();
+        // Start on the grid point whose block overlaps the segment, it may be in the neighbouring segment
+        for (int sampleY = offsetY - offsetY % this.step; sampleY < endY; sampleY += this.step) {
+            this.checkCancelled();
+            imaginary = this.context.getImaginary(sampleY);
+            blockStartY = Math.max(sampleY, offsetY) - offsetY;
+            blockEndY = Math.min(sampleY + this.step, endY) - offsetY;
 
-        return new ImageSegment(this.image, this.bounds);
+            for (int sampleX = offsetX - offsetX % this.step; sampleX < endX; sampleX += this.step) {
+                index = sampleY * imageWidth + sampleX;
+
+                if (this.previousStep != 0 && sampleX % this.previousStep == 0 && sampleY % this.previousStep == 0) {
+                    // Calculated in the last pass
+                    sample = samples[index];
+                } else {
+                    sample = this.calculatePixel(sampleX - offsetX, sampleY - offsetY, this.context.getReal(sampleX), imaginary);
+                    if (sampleX >= offsetX && sampleY >= offsetY) {
+                        samples[index] = sample;
+                    }
+                }
+                colour = this.palette.getRGB(sample);
+
+                // Paint the sample as a block
+                blockStartX = Math.max(sampleX, offsetX) - offsetX;
+                blockEndX = Math.min(sampleX + this.step, endX) - offsetX;
+                for (int y = blockStartY; y < blockEndY; y++) {
+                    row = this.getIndex(0, y);
+                    for (int x = blockStartX; x < blockEndX; x++) {
+                        this.raster[row + x] = colour;
+                        this.smoothIterations[row + x] = sample;
+                    }
+                }
+            }
+        }
     }
 
-    protected int getImageHeight(){
-        return (int)this.bounds.getHeight();
+    /**
+     * Renders a rectangle of the segment by Mariani-Silver subdivision.
+     * The border is calculated first, if every pixel on it has the same smooth iteration count, the inside is filled
+     * with it. Otherwise the rectangle is split into quarters, which share their borders with each other.
+     * See <a href="https://mrob.com/pub/muency/marianisilveralgorithm.html">Mariani-Silver Algorithm</a>
+     *
+     * @param x1          Left column, inclusive
+     * @param y1          Top row, inclusive
+     * @param x2          Right column, inclusive
+     * @param y2          Bottom row, inclusive
+     * @param reals       Real component of each column
+     * @param imaginaries Imaginary component of each row
+     */
+    private void subdivide(int x1, int y1, int x2, int y2, double[] reals, double[] imaginaries) {
+        this.checkCancelled();
+
+        float border = this.getPixel(x1, y1, reals, imaginaries);
+        boolean uniform = true;
+        for (int x = x1; x <= x2; x++) {
+            uniform &= Float.compare(this.getPixel(x, y1, reals, imaginaries), border) == 0;
+            uniform &= Float.compare(this.getPixel(x, y2, reals, imaginaries), border) == 0;
+        }
+        for (int y = y1 + 1; y < y2; y++) {
+            uniform &= Float.compare(this.getPixel(x1, y, reals, imaginaries), border) == 0;
+            uniform &= Float.compare(this.getPixel(x2, y, reals, imaginaries), border) == 0;
+        }
+
+        int row;
+        if (uniform) {
+            if (x2 - x1 < 2) return;
+            for (int y = y1 + 1; y < y2; y++) {
+                row = this.getIndex(0, y);
+                Arrays.fill(this.smoothIterations, row + x1 + 1, row + x2, border);
+            }
+            return;
+        }
+
+        if (x2 - x1 < MIN_SUBDIVISION || y2 - y1 < MIN_SUBDIVISION) {
+            for (int y = y1 + 1; y < y2; y++) {
+                for (int x = x1 + 1; x < x2; x++) {
+                    this.getPixel(x, y, reals, imaginaries);
+                }
+            }
+            return;
+        }
+
+        int midX = (x1 + x2) >>> 1;
+        int midY = (y1 + y2) >>> 1;
+        this.subdivide(x1, y1, midX, midY, reals, imaginaries);
+        this.subdivide(midX, y1, x2, midY, reals, imaginaries);
+        this.subdivide(x1, midY, midX, y2, reals, imaginaries);
+        this.subdivide(midX, midY, x2, y2, reals, imaginaries);
     }
-    protected int getImageWidth(){
-        return (int)this.bounds.getWidth();
+
+    /**
+     * Gets the smooth iteration count of a pixel, calculating it if it hasn't been already
+     *
+     * @param x           X co-ordinate of pixel, relative to the image segment
+     * @param y           Y co-ordinate of pixel, relative to the image segment
+     * @param reals       Real component of each column
+     * @param imaginaries Imaginary component of each row
+     * @return Smooth iteration count of the pixel, or ColourPalette.INSIDE
+     */
+    private float getPixel(int x, int y, double[] reals, double[] imaginaries) {
+        int index = this.getIndex(x, y);
+        float value = this.smoothIterations[index];
+        if (Float.isNaN(value)) {
+            value = this.calculatePixel(x, y, reals[x], imaginaries[y]);
+            this.smoothIterations[index] = value;
+        }
+        return value;
     }
 
     /**
-     * If the image segment needs adjusting (e.g.: half height optimisation), override this method
-     * and perform it here.
+     * Abandons the task if a newer render has been requested
+     *
+     * @throws CancellationException if the render was superseded
      */
-    protected void adjustImage(){
+    protected final void checkCancelled() {
+        if (this.context.isRenderCancelled()) {
+            throw new CancellationException();
+        }
     }
 
     /**
-     * Gets HSB colour from iterations and a Complex, z.
-     * @param iterations Number of iterations it took
-     * @param z Final complex, z
-     * @return Color of complex
+     * Gets the real component of a pixel in double-double precision
+     *
+     * @param x X co-ordinate of pixel, relative to the image segment
+     * @return DoubleDouble, real component
      */
-    protected Color getHSBColour(int iterations, Complex z){
-        return Color.getHSBColor(this.getHue(iterations, z), this.mgmtThread.getSaturation(), this.mgmtThread.getBrightness());
+    protected final DoubleDouble getDoubleDoubleReal(int x) {
+        return this.context.getDoubleDoubleReal(x + (int) this.bounds.getX());
     }
 
     /**
-     * Performs colour smoothing
-     * See <a href="https://en.wikipedia.org/wiki/Mandelbrot_set#Continuous_.28smooth.29_coloring">Continuous Smooth Colouring</a>
-     * @param iterations Number of iterations it took
-     * @param z Final complex, z
-     * @return Hue for complex
+     * Gets the imaginary component of a pixel in double-double precision
+     *
+     * @param y Y co-ordinate of pixel, relative to the image segment
+     * @return DoubleDouble, imaginary component
      */
-    protected float getHue(int iterations, Complex z){
-        // sqrt of inner term removed using log simplification rules. log(x^(1/2)) = (1/2)*log(x) = log(x) / 2
-        double log_z = Math.log(z.getReal() * z.getReal() + z.getImaginary() * z.getImaginary()) / 2.0d;
-        double nu = Math.log( log_z / M_LN2_F ) / M_LN2_F;
-        return this.mgmtThread.getHue() + (iterations + 1 - (float)nu ) / 110f;
+    protected final DoubleDouble getDoubleDoubleImaginary(int y) {
+        return this.context.getDoubleDoubleImaginary(y + (int) this.bounds.getY());
     }
 
     /**
-     * Worker Unit for individual pixels
-     * @param point Point on worker unit
-     * @param complex Complex for point
-     * @return ColouredPixel for that pixel
+     * Gets the index of a pixel in the raster and smooth iteration counts
+     *
+     * @param x X co-ordinate of pixel, relative to the image segment
+     * @param y Y co-ordinate of pixel, relative to the image segment
+     * @return int, index
      */
-    protected abstract ColouredPixel doPixelCalculation(Point2D point, Complex complex);
+    protected final int getIndex(int x, int y) {
+        return this.origin + y * this.stride + x;
+    }
 
     /**
-     * Paints a coloured pixel on the image segment
-     * @param p Pixel to paint
+     * Colours every pixel of the segment from its smooth iteration count
+     *
+     * @param width  Width of segment
+     * @param height Height of segment
      */
-    private void paintPixel(ColouredPixel p) {
-        // Get x/y values
-        int x = Double.valueOf(p.getPoint().getX()).intValue();
-        int y = Double.valueOf(p.getPoint().getY()).intValue();
+    protected final void colour(int width, int height) {
+        if (this.stride == width) {
+            this.palette.colour(this.smoothIterations, this.raster, this.origin, width * height);
+            return;
+        }
+        for (int y = 0; y < height; y++) {
+            this.palette.colour(this.smoothIterations, this.raster, this.getIndex(0, y), width);
+        }
+    }
 
-        this.image.setRGB(x, y, p.getColour().getRGB());
+    /**
+     * Performs colour smoothing
+     * See <a href="https://en.wikipedia.org/wiki/Mandelbrot_set#Continuous_.28smooth.29_coloring">Continuous Smooth Colouring</a>
+     * @param iterations Number of iterations it took
+     * @param zReal Real component of final z
+     * @param zImaginary Imaginary component of final z
+     * @return Smooth iteration count
+     */
+    protected float getSmoothIterations(int iterations, double zReal, double zImaginary){
+        // sqrt of inner term removed using log simplification rules. log(x^(1/2)) = (1/2)*log(x) = log(x) / 2
+        double log_z = Math.log(zReal * zReal + zImaginary * zImaginary) / 2.0d;
+        double nu = Math.log( log_z / M_LN2_F ) / M_LN2_F;
+        return iterations + 1 - (float)nu;
     }
+
+    /**
+     * Worker unit for individual pixels.
+     * Kernels iterate on primitives and return the smooth iteration count, the pixel is coloured from the palette.
+     *
+     * @param x X co-ordinate of pixel, relative to the image segment (may be outside the segment in progressive passes)
+     * @param y Y co-ordinate of pixel, relative to the image segment (may be outside the segment in progressive passes)
+     * @param real Real component of the point
+     * @param imaginary Imaginary component of the point
+     * @return Smooth iteration count of the pixel, or ColourPalette.INSIDE
+     */
+    protected abstract float calculatePixel(int x, int y, double real, double imaginary);
 }
@@ -0,0 +1,350 @@
+package mandelbrot.render;
+
+import mandelbrot.management.TileScheduler;
+import utils.Complex;
+import utils.ImageColourProperties;
+import utils.ImageProperties;
+
+import java.math.BigDecimal;
+
+/**
+ * Describes an image to render: the fractal, where it is, its size, iterations and colours.
+ * Views can't be changed, the with methods return a copy with one thing changed.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public final class RenderView implements Cloneable {
+
+    private Fractal fractal;
+    private int width;
+    private int height;
+    private int iterations;
+    private double scale;
+    private BigDecimal shiftX;
+    private BigDecimal shiftY;
+    private double complexReal = 0;
+    private double complexImaginary = 0;
+    private float hue = 0;
+    private float saturation = 1.0f;
+    private float brightness = 1.0f;
+    private double escapeRadiusSquared = 9;
+    private double rangeX = 4.0;
+    private double rangeY = 4.0;
+    private Precision precision = null;
+    private boolean bulbCheck = true;
+    private boolean periodicityCheck = true;
+    private boolean laneKernel = false;
+    private boolean subdivision = false;
+    private int tileSize = TileScheduler.AUTO;
+
+    /**
+     * Creates a view, with the default colours and options
+     *
+     * @param fractal    Fractal to render
+     * @param width      Width of the image
+     * @param height     Height of the image
+     * @param iterations Max iterations
+     * @param scale      Scale factor
+     * @param shiftX     X axis shift, the real component of the centre of the image
+     * @param shiftY     Y axis shift, the imaginary component of the centre of the image
+     */
+    public RenderView(Fractal fractal, int width, int height, int iterations, double scale, BigDecimal shiftX, BigDecimal shiftY) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Image must be at least 1x1, not " + width + "x" + height + ".");
+        }
+        this.fractal = fractal;
+        this.width = width;
+        this.height = height;
+        this.iterations = iterations;
+        this.scale = scale;
+        this.shiftX = shiftX;
+        this.shiftY = shiftY;
+    }
+
+    /**
+     * Creates a view, with the default colours and options
+     *
+     * @param fractal    Fractal to render
+     * @param width      Width of the image
+     * @param height     Height of the image
+     * @param iterations Max iterations
+     * @param scale      Scale factor
+     * @param shiftX     X axis shift
+     * @param shiftY     Y axis shift
+     */
+    public RenderView(Fractal fractal, int width, int height, int iterations, double scale, double shiftX, double shiftY) {
+        this(fractal, width, height, iterations, scale, new BigDecimal(shiftX), new BigDecimal(shiftY));
+    }
+
+    private RenderView copy() {
+        try {
+            return (RenderView) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    //region Get Methods
+    public Fractal getFractal() {
+        return this.fractal;
+    }
+
+    public int getWidth() {
+        return this.width;
+    }
+
+    public int getHeight() {
+        return this.height;
+    }
+
+    public int getIterations() {
+        return this.iterations;
+    }
+
+    public double getScale() {
+        return this.scale;
+    }
+
+    public BigDecimal getShiftX() {
+        return this.shiftX;
+    }
+
+    public BigDecimal getShiftY() {
+        return this.shiftY;
+    }
+
+    /**
+     * Gets the constant used for the Julia set
+     *
+     * @return Complex, a new copy each time
+     */
+    public Complex getComplex() {
+        return new Complex(this.complexReal, this.complexImaginary);
+    }
+
+    public float getHue() {
+        return this.hue;
+    }
+
+    public float getSaturation() {
+        return this.saturation;
+    }
+
+    public float getBrightness() {
+        return this.brightness;
+    }
+
+    public double getEscapeRadiusSquared() {
+        return this.escapeRadiusSquared;
+    }
+
+    public double getRangeX() {
+        return this.rangeX;
+    }
+
+    public double getRangeY() {
+        return this.rangeY;
+    }
+
+    /**
+     * Gets the precision to render at
+     *
+     * @return Precision, or null to select it from the zoom depth
+     */
+    public Precision getPrecision() {
+        return this.precision;
+    }
+
+    public boolean isBulbCheck() {
+        return this.bulbCheck;
+    }
+
+    public boolean isPeriodicityCheck() {
+        return this.periodicityCheck;
+    }
+
+    public boolean isLaneKernel() {
+        return this.laneKernel;
+    }
+
+    /**
+     * Returns whether the view should be rendered by subdivision
+     *
+     * @return true if subdivision was asked for, and the fractal supports it
+     */
+    public boolean isSubdivision() {
+        return this.subdivision && this.fractal.canSubdivide();
+    }
+
+    /**
+     * Gets the size of tiles to render the image in
+     *
+     * @return int, tile size, or TileScheduler.AUTO
+     */
+    public int getTileSize() {
+        return this.tileSize;
+    }
+
+    /**
+     * Gets the properties of the image, as used by the caches
+     *
+     * @return ImageProperties
+     */
+    public ImageProperties getImageProperties() {
+        ImageProperties properties = new ImageProperties(this.width, this.height, this.iterations, this.scale,
+                this.shiftX.doubleValue(), this.shiftY.doubleValue(), this.fractal == Fractal.JULIA ? this.getComplex() : null);
+        properties.setPreciseShift(this.shiftX, this.shiftY);
+        return properties;
+    }
+
+    /**
+     * Gets the colours of the image
+     *
+     * @return ImageColourProperties
+     */
+    public ImageColourProperties getColourProperties() {
+        return new ImageColourProperties(this.hue, this.saturation, this.brightness);
+    }
+    //endregion
+
+    //region With Methods
+    public RenderView withSize(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Image must be at least 1x1, not " + width + "x" + height + ".");
+        }
+        RenderView view = this.copy();
+        view.width = width;
+        view.height = height;
+        return view;
+    }
+
+    public RenderView withIterations(int iterations) {
+        RenderView view = this.copy();
+        view.iterations = iterations;
+        return view;
+    }
+
+    public RenderView withScale(double scale) {
+        RenderView view = this.copy();
+        view.scale = scale;
+        return view;
+    }
+
+    public RenderView withShift(BigDecimal shiftX, BigDecimal shiftY) {
+        RenderView view = this.copy();
+        view.shiftX = shiftX;
+        view.shiftY = shiftY;
+        return view;
+    }
+
+    public RenderView withComplex(Complex complex) {
+        RenderView view = this.copy();
+        view.complexReal = complex.getReal();
+        view.complexImaginary = complex.getImaginary();
+        return view;
+    }
+
+    public RenderView withColour(float hue, float saturation, float brightness) {
+        RenderView view = this.copy();
+        view.hue = hue;
+        view.saturation = saturation;
+        view.brightness = brightness;
+        return view;
+    }
+
+    public RenderView withEscapeRadiusSquared(double escapeRadiusSquared) {
+        RenderView view = this.copy();
+        view.escapeRadiusSquared = escapeRadiusSquared;
+        return view;
+    }
+
+    public RenderView withRange(double rangeX, double rangeY) {
+        RenderView view = this.copy();
+        view.rangeX = rangeX;
+        view.rangeY = rangeY;
+        return view;
+    }
+
+    public RenderView withPrecision(Precision precision) {
+        RenderView view = this.copy();
+        view.precision = precision;
+        return view;
+    }
+
+    public RenderView withBulbCheck(boolean bulbCheck) {
+        RenderView view = this.copy();
+        view.bulbCheck = bulbCheck;
+        return view;
+    }
+
+    public RenderView withPeriodicityCheck(boolean periodicityCheck) {
+        RenderView view = this.copy();
+        view.periodicityCheck = periodicityCheck;
+        return view;
+    }
+
+    public RenderView withLaneKernel(boolean laneKernel) {
+        RenderView view = this.copy();
+        view.laneKernel = laneKernel;
+        return view;
+    }
+
+    public RenderView withSubdivision(boolean subdivision) {
+        RenderView view = this.copy();
+        view.subdivision = subdivision;
+        return view;
+    }
+
+    public RenderView withTileSize(int tileSize) {
+        RenderView view = this.copy();
+        view.tileSize = tileSize;
+        return view;
+    }
+    //endregion
+
+    @Override
+    public int hashCode() {
+        int code = this.fractal.hashCode();
+        code = code * 487 + this.width;
+        code = code * 491 + this.height;
+        code = code * 499 + this.iterations;
+        code = code * 503 + Double.hashCode(this.scale);
+        code = code * 509 + this.shiftX.stripTrailingZeros().hashCode();
+        code = code * 521 + this.shiftY.stripTrailingZeros().hashCode();
+        return code;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof RenderView)) return false;
+        RenderView v = (RenderView) obj;
+        return this.fractal == v.fractal &&
+                this.width == v.width &&
+                this.height == v.height &&
+                this.iterations == v.iterations &&
+                this.scale == v.scale &&
+                this.shiftX.compareTo(v.shiftX) == 0 &&
+                this.shiftY.compareTo(v.shiftY) == 0 &&
+                this.complexReal == v.complexReal &&
+                this.complexImaginary == v.complexImaginary &&
+                this.hue == v.hue &&
+                this.saturation == v.saturation &&
+                this.brightness == v.brightness &&
+                this.escapeRadiusSquared == v.escapeRadiusSquared &&
+                this.rangeX == v.rangeX &&
+                this.rangeY == v.rangeY &&
+                this.precision == v.precision &&
+                this.bulbCheck == v.bulbCheck &&
+                this.periodicityCheck == v.periodicityCheck &&
+                this.laneKernel == v.laneKernel &&
+                this.subdivision == v.subdivision &&
+                this.tileSize == v.tileSize;
+    }
+
+    @Override
+    public String toString() {
+        return this.fractal + " " + this.width + "x" + this.height + " @ " + this.scale + "x (" + this.shiftX + ", "
+                + this.shiftY + "), " + this.iterations + " iterations";
+    }
+}
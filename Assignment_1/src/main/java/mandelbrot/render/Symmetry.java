@@ -0,0 +1,153 @@
+package mandelbrot.render;
+
+import utils.FractalImage;
+
+import java.awt.*;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Symmetries of fractals, used to render part of an image and fill in the rest from it.
+ * Render the regions from getRegions, then call fill to fill in the rest of the image.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public enum Symmetry {
+    /**
+     * No symmetry, the whole image is rendered.
+     * The Burning Ship takes the absolute value of z each iteration, so it isn't symmetric in the real axis.
+     */
+    NONE,
+
+    /**
+     * Symmetric under z to -z, like every Julia set. Pixel (x, y) of an image centred on the origin is the
+     * same as pixel (width - x, height - y), so only the top half of the image is rendered.
+     */
+    POINT,
+
+    /**
+     * Symmetric in the real axis, like the Mandelbrot set. When the image crosses the real axis, and its centre
+     * is on a half pixel, row y is the same as row (height - 2 * shiftY / pixel) - y. Only the rows on one side of
+     * the axis, and the rows whose reflection is off the image, are rendered.
+     */
+    CONJUGATE;
+
+    /**
+     * Reflections closer than this fraction of a pixel are treated as exact
+     */
+    private static final double ALIGNMENT_TOLERANCE = 1e-6;
+
+    /**
+     * Gets the regions of the image that need rendering, the rest of the image is filled in by fill
+     *
+     * @param context Context of the image being rendered
+     * @return List of regions to render
+     */
+    public List<Rectangle> getRegions(RenderContext context) {
+        int width = context.getImageWidth();
+        int height = context.getImageHeight();
+        if (this == POINT && isCentred(context)) {
+            // Column 0 reflects onto column width, which is off the image, so the bottom of it is rendered too
+            int half = height / 2 + 1;
+            return Arrays.asList(new Rectangle(0, 0, width, half), new Rectangle(0, half, 1, height - half));
+        }
+
+        int sum = this == CONJUGATE ? getReflectionSum(context) : -1;
+        if (sum != -1) {
+            // Render down to the axis, and the rows below the reflection of the top row
+            List<Rectangle> regions = new ArrayList<>();
+            regions.add(new Rectangle(0, 0, width, sum / 2 + 1));
+            if (sum + 1 < height) regions.add(new Rectangle(0, sum + 1, width, height - sum - 1));
+            return regions;
+        }
+        return Collections.singletonList(new Rectangle(0, 0, width, height));
+    }
+
+    /**
+     * Fills in the parts of the image that weren't rendered, by reflecting the parts that were.
+     * Pixels are written straight into the image's raster.
+     *
+     * @param context Context of the image being rendered
+     * @param image   Image with the regions from getRegions rendered onto it
+     */
+    public void fill(RenderContext context, FractalImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] raster = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        float[] smoothIterations = image.getSmoothIterations();
+
+        if (this == POINT && isCentred(context)) {
+            int row, sourceRow;
+            for (int y = height / 2 + 1; y < height; y++) {
+                row = y * width;
+                sourceRow = (height - y) * width + width;
+                for (int x = 1; x < width; x++) {
+                    raster[row + x] = raster[sourceRow - x];
+                    smoothIterations[row + x] = smoothIterations[sourceRow - x];
+                }
+            }
+            return;
+        }
+
+        int sum = this == CONJUGATE ? getReflectionSum(context) : -1;
+        if (sum != -1) {
+            for (int y = sum / 2 + 1, end = Math.min(sum, height - 1); y <= end; y++) {
+                System.arraycopy(raster, (sum - y) * width, raster, y * width, width);
+                System.arraycopy(smoothIterations, (sum - y) * width, smoothIterations, y * width, width);
+            }
+        }
+    }
+
+    /**
+     * Moves the centre of an image that crosses the real axis by less than half a pixel, onto a half pixel,
+     * so its rows pair up with their reflections and CONJUGATE symmetry can be used
+     *
+     * @param shiftY    Imaginary component of the centre of the image
+     * @param pixelSize Height of a pixel
+     * @param height    Height of the image
+     * @return double, the shift to render at
+     */
+    public double snapShiftY(double shiftY, double pixelSize, int height) {
+        if (this != CONJUGATE || Math.abs(shiftY) >= height * pixelSize / 2) return shiftY;
+        double halfPixel = pixelSize / 2;
+        return Math.rint(shiftY / halfPixel) * halfPixel;
+    }
+
+    /**
+     * Returns whether an image is centred on the origin, so POINT symmetry can be used.
+     * Progressive passes are always rendered in full.
+     *
+     * @param context Context of the image being rendered
+     * @return true if the image is centred on the origin
+     */
+    private static boolean isCentred(RenderContext context) {
+        if (context.getPassStep() != 1 || context.getImageHeight() < 2) return false;
+        return context.getReal(context.getImageWidth() / 2d) == 0 && context.getImaginary(context.getImageHeight() / 2d) == 0;
+    }
+
+    /**
+     * Gets the sum of the rows that are reflections of each other in the real axis, row y is the same as row sum - y.
+     * Progressive passes are always rendered in full.
+     *
+     * @param context Context of the image being rendered
+     * @return int, sum of reflected rows, or -1 if no rows of the image are reflections of each other
+     */
+    private static int getReflectionSum(RenderContext context) {
+        if (context.getPassStep() != 1) return -1;
+
+        int height = context.getImageHeight();
+        double pixelSize = context.getOffsetImaginary(height / 2d + 1);
+        double halfPixels = 2 * context.getImaginary(height / 2d) / pixelSize;
+        double rounded = Math.rint(halfPixels);
+        if (Math.abs(halfPixels - rounded) > ALIGNMENT_TOLERANCE || Math.abs(rounded) >= 2 * height) return -1;
+
+        // At least row 0 and row 1 have to be reflected onto the image
+        int sum = height - (int) rounded;
+        if (sum < 1 || sum / 2 + 1 > height - 1) return -1;
+        return sum;
+    }
+}
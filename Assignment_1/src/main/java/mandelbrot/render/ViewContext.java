@@ -0,0 +1,250 @@
+package mandelbrot.render;
+
+import utils.ColourPalette;
+import utils.DoubleDouble;
+import utils.FractalImage;
+
+/**
+ * Renders a RenderView, and maps its pixels to the complex plane.
+ * RenderManagementThread maps its images through one of these too, so there is only one mapping.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public class ViewContext implements RenderContext {
+
+    private static final double PERIODICITY_TOLERANCE = 1e-3;
+
+    private final RenderView view;
+    private final FractalImage target;
+    private final ColourPalette palette;
+    private final Precision precision;
+
+    private final double imgWidth;
+    private final double imgHeight;
+    private final double xScale;
+    private final double yScale;
+    private final double scaleFactor;
+    private final double xShift;
+    private final double yShift;
+    private final DoubleDouble doubleDoubleShiftX;
+    private final DoubleDouble doubleDoubleShiftY;
+
+    private volatile boolean cancelled = false;
+
+    /**
+     * Creates a context, each task returns its pixels in its own segment
+     *
+     * @param view View to render
+     */
+    public ViewContext(RenderView view) {
+        this(view, null);
+    }
+
+    /**
+     * Creates a context that renders straight into an image
+     *
+     * @param view   View to render
+     * @param target Image the same size as the view to write pixels into, or null
+     */
+    public ViewContext(RenderView view, FractalImage target) {
+        this(view, target, new ColourPalette(view.getColourProperties()));
+    }
+
+    /**
+     * Creates a context that renders straight into an image, with a palette that has already been built
+     *
+     * @param view    View to render
+     * @param target  Image the same size as the view to write pixels into, or null
+     * @param palette Palette of the view's colours
+     */
+    public ViewContext(RenderView view, FractalImage target, ColourPalette palette) {
+        this.view = view;
+        this.target = target;
+        this.palette = palette;
+
+        this.imgWidth = view.getWidth();
+        this.imgHeight = view.getHeight();
+        this.scaleFactor = view.getScale();
+        this.xShift = view.getShiftX().doubleValue();
+        this.yShift = view.getShiftY().doubleValue();
+        this.doubleDoubleShiftX = DoubleDouble.valueOf(view.getShiftX());
+        this.doubleDoubleShiftY = DoubleDouble.valueOf(view.getShiftY());
+
+        double aspectRatio = this.imgWidth / this.imgHeight;
+        double xRange = view.getRangeX();
+        double yRange = view.getRangeY();
+
+        if (aspectRatio * yRange < 4) {
+            yRange = xRange / aspectRatio;
+        } else {
+            xRange = yRange * aspectRatio;
+        }
+
+        this.xScale = xRange / this.imgWidth;
+        this.yScale = yRange / this.imgHeight;
+
+        // Use the lowest precision that can still tell the pixels apart, unless one has been chosen
+        double magnitude = Math.max(Math.abs(this.xShift), Math.abs(this.yShift))
+                + Math.max(xRange, yRange) / (2 * this.scaleFactor);
+        this.precision = view.getPrecision() != null ? view.getPrecision() : Precision.select(this.getPixelSize(), magnitude);
+    }
+
+    /**
+     * Gets the view being rendered
+     *
+     * @return RenderView
+     */
+    public RenderView getView() {
+        return this.view;
+    }
+
+    /**
+     * Stops the render, tasks throw a CancellationException when they next check
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Gets the width of the complex plane shown by each pixel, before the image is scaled
+     *
+     * @return double, x scale
+     */
+    public double getXScale() {
+        return this.xScale;
+    }
+
+    /**
+     * Gets the height of the complex plane shown by each pixel, before the image is scaled
+     *
+     * @return double, y scale
+     */
+    public double getYScale() {
+        return this.yScale;
+    }
+
+    /**
+     * Gets the size of a pixel in the complex plane
+     *
+     * @return double, pixel size
+     */
+    public double getPixelSize() {
+        return Math.min(this.xScale, this.yScale) / this.scaleFactor;
+    }
+
+    @Override
+    public int getImageWidth() {
+        return this.view.getWidth();
+    }
+
+    @Override
+    public int getImageHeight() {
+        return this.view.getHeight();
+    }
+
+    @Override
+    public double getEscapeRadiusSquared() {
+        return this.view.getEscapeRadiusSquared();
+    }
+
+    @Override
+    public int getIterations() {
+        return this.view.getIterations();
+    }
+
+    @Override
+    public double getShiftY() {
+        return this.yShift;
+    }
+
+    @Override
+    public ColourPalette getPalette() {
+        return this.palette;
+    }
+
+    @Override
+    public double getReal(double x) {
+        return this.getOffsetReal(x) + this.xShift;
+    }
+
+    @Override
+    public double getImaginary(double y) {
+        return this.getOffsetImaginary(y) + this.yShift;
+    }
+
+    @Override
+    public double getOffsetReal(double x) {
+        return (x - this.imgWidth / 2d) * this.xScale / this.scaleFactor;
+    }
+
+    @Override
+    public double getOffsetImaginary(double y) {
+        return (y - this.imgHeight / 2d) * this.yScale / this.scaleFactor;
+    }
+
+    @Override
+    public DoubleDouble getDoubleDoubleReal(double x) {
+        return this.doubleDoubleShiftX.add(this.getOffsetReal(x));
+    }
+
+    @Override
+    public DoubleDouble getDoubleDoubleImaginary(double y) {
+        return this.doubleDoubleShiftY.add(this.getOffsetImaginary(y));
+    }
+
+    @Override
+    public boolean isBulbCheck() {
+        return this.view.isBulbCheck();
+    }
+
+    @Override
+    public boolean isPeriodicityCheck() {
+        return this.view.isPeriodicityCheck();
+    }
+
+    @Override
+    public boolean isSubdivision() {
+        return this.view.isSubdivision();
+    }
+
+    @Override
+    public boolean isLaneKernel() {
+        return this.view.isLaneKernel();
+    }
+
+    @Override
+    public double getPeriodicityTolerance() {
+        return this.getPixelSize() * PERIODICITY_TOLERANCE;
+    }
+
+    @Override
+    public Precision getPrecision() {
+        return this.precision;
+    }
+
+    @Override
+    public int getPassStep() {
+        return 1;
+    }
+
+    @Override
+    public int getPreviousPassStep() {
+        return 0;
+    }
+
+    @Override
+    public float[] getPassSamples() {
+        return null;
+    }
+
+    @Override
+    public boolean isRenderCancelled() {
+        return this.cancelled;
+    }
+
+    @Override
+    public FractalImage getTarget() {
+        return this.target;
+    }
+}
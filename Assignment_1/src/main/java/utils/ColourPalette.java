@@ -0,0 +1,97 @@
+package utils;
+
+import java.awt.*;
+
+/**
+ * Lookup table mapping smooth iteration counts to colours
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public class ColourPalette {
+
+    /**
+     * Smooth iteration value of pixels inside the set
+     */
+    public static final float INSIDE = Float.POSITIVE_INFINITY;
+
+    /**
+     * Packed ARGB value for black (pixels inside the set)
+     */
+    public static final int BLACK = 0xFF000000;
+
+    /**
+     * Number of iterations for the hue to go all the way round the colour wheel
+     */
+    public static final float ITERATIONS_PER_CYCLE = 110f;
+
+    /**
+     * Number of entries in the table, must be a power of 2
+     */
+    public static final int SIZE = 4096;
+
+    private final ImageColourProperties colourProperties;
+    private final int[] table;
+
+    /**
+     * Creates a colour palette
+     *
+     * @param colourProperties Hue offset, saturation and brightness of the palette
+     */
+    public ColourPalette(ImageColourProperties colourProperties) {
+        this.colourProperties = colourProperties;
+        this.table = new int[SIZE];
+
+        // The hue offset is applied when looking up, so the table is the colour wheel at this saturation/brightness
+        for (int i = 0; i < SIZE; i++) {
+            this.table[i] = Color.HSBtoRGB((float) i / SIZE, colourProperties.getSaturation(), colourProperties.getBrightness());
+        }
+    }
+
+    /**
+     * Gets the colour properties this palette was made from
+     *
+     * @return ImageColourProperties
+     */
+    public ImageColourProperties getColourProperties() {
+        return this.colourProperties;
+    }
+
+    /**
+     * Gets the lookup table
+     *
+     * @return int[] ARGB colours around the colour wheel
+     */
+    public int[] getTable() {
+        return this.table;
+    }
+
+    /**
+     * Gets the colour of a pixel
+     *
+     * @param smoothIterations Smooth iteration count of pixel, or INSIDE
+     * @return ARGB colour of the pixel
+     */
+    public int getRGB(float smoothIterations) {
+        if (smoothIterations == INSIDE) {
+            return BLACK;
+        }
+        float hue = this.colourProperties.getHue() + smoothIterations / ITERATIONS_PER_CYCLE;
+        hue -= (float) Math.floor(hue);
+        return this.table[(int) (hue * SIZE + 0.5f) & (SIZE - 1)];
+    }
+
+    /**
+     * Colours an area of smooth iteration counts
+     *
+     * @param smoothIterations Smooth iteration counts
+     * @param pixels           Array to put ARGB colours into
+     * @param offset           Index to start at
+     * @param length           Number of pixels to colour
+     */
+    public void colour(float[] smoothIterations, int[] pixels, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            pixels[i] = this.getRGB(smoothIterations[i]);
+        }
+    }
+}
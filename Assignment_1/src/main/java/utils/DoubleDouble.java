@@ -0,0 +1,225 @@
+package utils;
+
+import java.math.BigDecimal;
+
+/**
+ * Represents a number as the unevaluated sum of two doubles, giving about 106 bits of precision.
+ * See <a href="https://www.davidhbailey.com/dhbsoftware/">Bailey's QD library</a> for the algorithms.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public final class DoubleDouble {
+
+    public static final DoubleDouble ZERO = new DoubleDouble(0, 0);
+
+    /**
+     * 2^27 + 1, used to split a double into two halves that can be multiplied exactly
+     */
+    private static final double SPLITTER = 134217729.0d;
+
+    private final double high;
+    private final double low;
+
+    private DoubleDouble(double high, double low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    /**
+     * Creates a double-double from a double
+     *
+     * @param value Value
+     * @return DoubleDouble
+     */
+    public static DoubleDouble valueOf(double value) {
+        return new DoubleDouble(value, 0);
+    }
+
+    /**
+     * Creates a double-double from a BigDecimal, rounding it to 106 bits
+     *
+     * @param value Value
+     * @return DoubleDouble
+     */
+    public static DoubleDouble valueOf(BigDecimal value) {
+        double high = value.doubleValue();
+        if (Double.isInfinite(high)) return new DoubleDouble(high, 0);
+        double low = value.subtract(new BigDecimal(high)).doubleValue();
+        return fastTwoSum(high, low);
+    }
+
+    /**
+     * Adds two doubles, keeping the rounding error. Requires |a| >= |b|.
+     */
+    private static DoubleDouble fastTwoSum(double a, double b) {
+        double sum = a + b;
+        return new DoubleDouble(sum, b - (sum - a));
+    }
+
+    /**
+     * Gets the high part, this is the closest double to the value
+     *
+     * @return double
+     */
+    public double doubleValue() {
+        return this.high;
+    }
+
+    /**
+     * Gets the low part, the rounding error of the high part
+     *
+     * @return double
+     */
+    public double getLow() {
+        return this.low;
+    }
+
+    /**
+     * Adds a double-double
+     *
+     * @param b Value to add
+     * @return this + b
+     */
+    public DoubleDouble add(DoubleDouble b) {
+        // Two sum of the high parts, then the low parts
+        double s = this.high + b.high;
+        double v = s - this.high;
+        double e = (this.high - (s - v)) + (b.high - v);
+
+        double t = this.low + b.low;
+        double w = t - this.low;
+        double f = (this.low - (t - w)) + (b.low - w);
+
+        e += t;
+        double high = s + e;
+        e = e - (high - s);
+        e += f;
+        double sum = high + e;
+        return new DoubleDouble(sum, e - (sum - high));
+    }
+
+    /**
+     * Adds a double
+     *
+     * @param b Value to add
+     * @return this + b
+     */
+    public DoubleDouble add(double b) {
+        double s = this.high + b;
+        double v = s - this.high;
+        double e = (this.high - (s - v)) + (b - v) + this.low;
+        double sum = s + e;
+        return new DoubleDouble(sum, e - (sum - s));
+    }
+
+    /**
+     * Subtracts a double-double
+     *
+     * @param b Value to subtract
+     * @return this - b
+     */
+    public DoubleDouble subtract(DoubleDouble b) {
+        return this.add(b.negate());
+    }
+
+    /**
+     * Negates the value
+     *
+     * @return -this
+     */
+    public DoubleDouble negate() {
+        return new DoubleDouble(-this.high, -this.low);
+    }
+
+    /**
+     * Gets the absolute value
+     *
+     * @return |this|
+     */
+    public DoubleDouble abs() {
+        return this.high < 0 ? this.negate() : this;
+    }
+
+    /**
+     * Multiplies by a double-double
+     *
+     * @param b Value to multiply by
+     * @return this * b
+     */
+    public DoubleDouble multiply(DoubleDouble b) {
+        // Exact product of the high parts (Dekker), then add the cross terms
+        double p = this.high * b.high;
+        double e = twoProductError(this.high, b.high, p);
+        e += this.high * b.low + this.low * b.high;
+        double product = p + e;
+        return new DoubleDouble(product, e - (product - p));
+    }
+
+    /**
+     * Squares the value
+     *
+     * @return this * this
+     */
+    public DoubleDouble square() {
+        double p = this.high * this.high;
+        double e = twoProductError(this.high, this.high, p);
+        e += 2 * this.high * this.low;
+        double product = p + e;
+        return new DoubleDouble(product, e - (product - p));
+    }
+
+    /**
+     * Multiplies by a power of 2, which is exact
+     *
+     * @param b Power of 2 to multiply by
+     * @return this * b
+     */
+    public DoubleDouble multiplyPowerOf2(double b) {
+        return new DoubleDouble(this.high * b, this.low * b);
+    }
+
+    /**
+     * Gets the rounding error of a * b, using Dekker's split (Math.fma isn't in Java 8)
+     *
+     * @param a       First factor
+     * @param b       Second factor
+     * @param product a * b, rounded
+     * @return error, so that a * b = product + error exactly
+     */
+    private static double twoProductError(double a, double b, double product) {
+        double t = SPLITTER * a;
+        double aHigh = t - (t - a);
+        double aLow = a - aHigh;
+        t = SPLITTER * b;
+        double bHigh = t - (t - b);
+        double bLow = b - bHigh;
+        return ((aHigh * bHigh - product) + aHigh * bLow + aLow * bHigh) + aLow * bLow;
+    }
+
+    /**
+     * Converts to a BigDecimal, exactly
+     *
+     * @return BigDecimal
+     */
+    public BigDecimal toBigDecimal() {
+        return new BigDecimal(this.high).add(new BigDecimal(this.low));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof DoubleDouble)) return false;
+        DoubleDouble d = (DoubleDouble) obj;
+        return this.high == d.high && this.low == d.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return Double.hashCode(this.high) * 31 + Double.hashCode(this.low);
+    }
+
+    @Override
+    public String toString() {
+        return this.toBigDecimal().toString();
+    }
+}
@@ -2,6 +2,8 @@ package utils;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.List;
 
 /**
  * BufferedImage but for Fractals
@@ -13,6 +15,7 @@ public class FractalImage extends BufferedImage {
 
     private ImageColourProperties colourProperties;
     private ImageProperties properties;
+    private final float[] smoothIterations;
 
     /**
      * Constructs a <code>FractalImage</code> of one of the predefined
@@ -38,6 +41,7 @@ public class FractalImage extends BufferedImage {
      */
     public FractalImage(int width, int height, int imageType) {
         super(width, height, imageType);
+        this.smoothIterations = new float[width * height];
         this.properties = new ImageProperties(width, height);
         this.colourProperties = new ImageColourProperties();
     }
@@ -55,6 +59,58 @@ public class FractalImage extends BufferedImage {
         return img;
     }
 
+    /**
+     * Gets the smooth iteration count of each pixel, row by row.
+     * The image can be recoloured from these without rendering it again.
+     *
+     * @return float[] smooth iteration counts, ColourPalette.INSIDE for pixels inside the set
+     */
+    public float[] getSmoothIterations() {
+        return this.smoothIterations;
+    }
+
+    /**
+     * Gets the pixels of the image, row by row.
+     * Writing to these marks the image as unmanaged, so Java2D won't cache it on the graphics card.
+     *
+     * @return int[] RGB pixels
+     */
+    public int[] getPixels() {
+        return ((DataBufferInt) this.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * Copies rendered segments onto the image, with their smooth iteration counts.
+     * Segments that were rendered straight into the image don't have any pixels, so are skipped.
+     *
+     * @param segments Segments to draw
+     */
+    public void drawSegments(List<ImageSegment> segments) {
+        int[] pixels = this.getPixels();
+        int imageWidth = this.getWidth();
+        int imageHeight = this.getHeight();
+
+        for (ImageSegment imgSeg : segments) {
+            BufferedImage image = imgSeg.getImage();
+            if (image == null) continue;
+            int x = (int) imgSeg.getBounds().getX();
+            int y = (int) imgSeg.getBounds().getY();
+            int width = image.getWidth();
+            int rows = Math.min(image.getHeight(), imageHeight - y);
+            int columns = Math.min(width, imageWidth - x);
+
+            // Copy row by row, clipped to the image
+            int[] segmentPixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            float[] segmentIterations = imgSeg.getSmoothIterations();
+            for (int row = 0; row < rows; row++) {
+                System.arraycopy(segmentPixels, row * width, pixels, (y + row) * imageWidth + x, columns);
+                if (segmentIterations != null) {
+                    System.arraycopy(segmentIterations, row * width, this.smoothIterations, (y + row) * imageWidth + x, columns);
+                }
+            }
+        }
+    }
+
     /**
      * Gets the colour properties of this image
      * @return ImageColourProperties
@@ -0,0 +1,71 @@
+package utils;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.function.Predicate;
+
+/**
+ * Pool of frame buffers, so each render doesn't allocate a new image the size of the panel.
+ * A render takes a back buffer, and gives back the front buffer it replaces once it is displayed.
+ * Buffers are only handed out again once nothing else holds them, they are reallocated when the size changes.
+ * Only used by the render thread, so it isn't thread safe.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public class FrameBufferPool {
+
+    /**
+     * Buffers kept for reuse, one is enough to double buffer, the other covers a buffer that is still held
+     */
+    private static final int MAX_SPARE = 2;
+
+    private final ArrayDeque<FractalImage> spare = new ArrayDeque<>(MAX_SPARE);
+    private final Predicate<FractalImage> pinned;
+
+    /**
+     * Creates a frame buffer pool
+     *
+     * @param pinned Returns true if a buffer is still held by something else, such as the panel or a cache
+     */
+    public FrameBufferPool(Predicate<FractalImage> pinned) {
+        this.pinned = pinned;
+    }
+
+    /**
+     * Gets a buffer to render into, its pixels and properties are left over from whatever it held before
+     *
+     * @param width  Width of buffer
+     * @param height Height of buffer
+     * @return FractalImage
+     */
+    public FractalImage acquire(int width, int height) {
+        Iterator<FractalImage> iterator = this.spare.iterator();
+        while (iterator.hasNext()) {
+            FractalImage image = iterator.next();
+            if (image.getWidth() != width || image.getHeight() != height) {
+                // Panel has been resized, so it'll never fit again
+                iterator.remove();
+            } else if (!this.pinned.test(image)) {
+                iterator.remove();
+                return image;
+            }
+        }
+        return new FractalImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * Gives back a buffer that is no longer needed, such as a front buffer that has been replaced,
+     * or the back buffer of a cancelled render
+     *
+     * @param image Buffer to give back, may be null
+     */
+    public void release(FractalImage image) {
+        if (image == null || this.spare.contains(image)) return;
+        if (this.spare.size() == MAX_SPARE) {
+            this.spare.removeFirst();
+        }
+        this.spare.addLast(image);
+    }
+}
@@ -1,5 +1,7 @@
 package utils;
 
+import mandelbrot.metrics.RenderRecorder;
+
 import javax.swing.*;
 import javax.swing.border.StrokeBorder;
 import java.awt.*;
@@ -14,15 +16,38 @@ import java.awt.image.BufferedImage;
  */
 public class ImagePanel extends JPanel {
 
-    private BufferedImage image;
+    /**
+     * Set by render threads once the image is complete and painted on the event dispatch thread,
+     * volatile so the painter sees every pixel written before it was set
+     */
+    private volatile BufferedImage image;
     private Rectangle2D zoomBox;
 
+    /**
+     * Lines of text drawn over the top left of the image, or null for none
+     */
+    private volatile String[] overlay;
+
+    /**
+     * Nanoseconds the last paint took, only used on the event dispatch thread
+     */
+    private long paintTime;
+
     public ImagePanel() {
     }
     public ImagePanel(BufferedImage image){
         this.image = image;
     }
 
+    /**
+     * Gets the image being displayed
+     *
+     * @return BufferedImage, or null if there isn't one
+     */
+    public BufferedImage getImage() {
+        return this.image;
+    }
+
     public void setImage(BufferedImage image){
         this.setImage(image, false);
     }
@@ -32,17 +57,58 @@ public class ImagePanel extends JPanel {
     }
     @Override
     protected void paintComponent(Graphics g){
+        long startTime = System.nanoTime();
         super.paintComponent(g);
         Graphics2D g2d = (Graphics2D)g;
-        g.drawImage(this.image, 0, 0, null);
+        BufferedImage image = this.image;
+        g.drawImage(image, 0, 0, null);
+
+        if(this.zoomBox != null) {
+            g2d.setColor(new Color(0, 0, 255, 96));
+            g2d.fill(this.zoomBox);
+
+            g2d.setColor(new Color(0, 0, 255, 48));
+            g2d.draw(this.zoomBox);
+        }
 
-        if(this.zoomBox == null) return;
+        String[] overlay = this.overlay;
+        if (overlay != null) {
+            this.drawOverlay(g2d, overlay);
+        }
 
-        g2d.setColor(new Color(0, 0, 255, 96));
-        g2d.fill(this.zoomBox);
+        if (image == null) return;
+        this.paintTime = System.nanoTime() - startTime;
+        RenderRecorder.recordPaint(image.getWidth(), image.getHeight(), this.paintTime);
+    }
+
+    /**
+     * Draws lines of text in a translucent box over the top left of the image, with the time the last paint took
+     *
+     * @param g2d   Graphics to draw with
+     * @param lines Lines of text
+     */
+    private void drawOverlay(Graphics2D g2d, String[] lines) {
+        g2d.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        FontMetrics metrics = g2d.getFontMetrics();
+        String paint = String.format("Paint %.1fms", this.paintTime / 1e6);
+
+        int width = metrics.stringWidth(paint);
+        for (String line : lines) {
+            width = Math.max(width, metrics.stringWidth(line));
+        }
+        int lineHeight = metrics.getHeight();
+        int padding = 4;
+
+        g2d.setColor(new Color(0, 0, 0, 160));
+        g2d.fillRect(0, 0, width + 2 * padding, (lines.length + 1) * lineHeight + 2 * padding);
 
-        g2d.setColor(new Color(0, 0, 255, 48));
-        g2d.draw(this.zoomBox);
+        g2d.setColor(Color.WHITE);
+        int y = padding + metrics.getAscent();
+        for (String line : lines) {
+            g2d.drawString(line, padding, y);
+            y += lineHeight;
+        }
+        g2d.drawString(paint, padding, y);
     }
 
     public BufferedImage createImage() {
@@ -53,4 +119,14 @@ public class ImagePanel extends JPanel {
         this.zoomBox = box;
         this.repaint();
     }
+
+    /**
+     * Sets the lines of text drawn over the image
+     *
+     * @param overlay Lines of text, or null to remove the overlay
+     */
+    public void setOverlay(String[] overlay) {
+        this.overlay = overlay;
+        this.repaint();
+    }
 }
@@ -3,6 +3,7 @@ package utils;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Objects;
 
 /**
  * Creates a unique key for an image's settings
@@ -19,8 +20,16 @@ public class ImageProperties {
     private double xShift;
     private double yShift;
 
+    private BigDecimal preciseXShift;
+    private BigDecimal preciseYShift;
+
     private Complex complex;
 
+    /**
+     * Custom formula the image was rendered with, null for the built in fractals
+     */
+    private String formula;
+
     public ImageProperties(int width, int height) {
         this.width = width;
         this.height = height;
@@ -79,6 +88,35 @@ public class ImageProperties {
         this.yShift = yShift;
     }
 
+    /**
+     * Gets the exact x shift, for images that are too deep for doubles
+     *
+     * @return BigDecimal x shift, or null if the image only has a double shift
+     */
+    public BigDecimal getPreciseXShift() {
+        return this.preciseXShift;
+    }
+
+    /**
+     * Gets the exact y shift, for images that are too deep for doubles
+     *
+     * @return BigDecimal y shift, or null if the image only has a double shift
+     */
+    public BigDecimal getPreciseYShift() {
+        return this.preciseYShift;
+    }
+
+    /**
+     * Sets the exact shift of the image
+     *
+     * @param preciseXShift Exact x shift
+     * @param preciseYShift Exact y shift
+     */
+    public void setPreciseShift(BigDecimal preciseXShift, BigDecimal preciseYShift) {
+        this.preciseXShift = preciseXShift;
+        this.preciseYShift = preciseYShift;
+    }
+
     public Complex getComplex() {
         return this.complex;
     }
@@ -87,18 +125,27 @@ public class ImageProperties {
         this.complex = complex;
     }
 
+    public String getFormula() {
+        return this.formula;
+    }
+
+    public void setFormula(String formula) {
+        this.formula = formula;
+    }
+
     @Override
     public int hashCode() {
         // Create a unique hashcode using prime numbers
-        int h_width = this.width * 487;
-        int h_height = this.height * 491;
-        int h_iteration = this.iterations * 499;
-        int h_scale = (int)(this.scale * 503);
-        int h_xShift = (int)(this.xShift * 509);
-        int h_yShift = (int)(this.xShift * 521);
+        // Use the bits of the doubles, casting to int throws away the small differences between deep zooms
+        int code = this.width;
+        code = code * 487 + this.height;
+        code = code * 491 + this.iterations;
+        code = code * 499 + Double.hashCode(this.scale);
+        code = code * 503 + Double.hashCode(this.xShift);
+        code = code * 509 + Double.hashCode(this.yShift);
+        code = code * 521 + Objects.hashCode(this.formula);
 
-        int code = h_width ^ h_height ^ h_iteration ^ h_scale ^ h_xShift ^ h_yShift;
-        if(this.complex != null) code ^= this.complex.hashCode();
+        // Complex is ignored when the other image doesn't have one (see equals), so it can't be part of the hash
 
         return code;
     }
@@ -121,6 +168,11 @@ public class ImageProperties {
         if (p.getComplex() == null && this.complex != null) return false;
 
         boolean complex = this.complex == null || this.complex.equals(p.getComplex());
+        boolean formula = Objects.equals(this.formula, p.getFormula());
+
+        // Deep images can have the same double shift, so compare the exact shift if both have one
+        boolean preciseShift = this.preciseXShift == null || p.getPreciseXShift() == null
+                || (this.preciseXShift.compareTo(p.getPreciseXShift()) == 0 && this.preciseYShift.compareTo(p.getPreciseYShift()) == 0);
         return
                 this.width == p.getWidth() &&
                         this.height == p.getHeight() &&
@@ -128,7 +180,9 @@ public class ImageProperties {
                         this.scale == p.getScale() &&
                         this.xShift == p.getxShift() &&
                         this.yShift == p.getyShift() &&
-                complex;
+                        preciseShift &&
+                complex &&
+                formula;
     }
 
     public int getWidth() {
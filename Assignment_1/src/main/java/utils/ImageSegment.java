@@ -11,11 +11,27 @@ import java.awt.image.BufferedImage;
  */
 public class ImageSegment {
     private BufferedImage image;
+    private float[] smoothIterations;
     private Rectangle2D bounds;
+    private long computeTime;
+    private long iterations;
 
+    /**
+     * Creates a segment that was rendered straight into the image, so has no pixels of its own
+     *
+     * @param bounds Bounds of the segment in the image
+     */
+    public ImageSegment(Rectangle2D bounds) {
+        this(null, null, bounds);
+    }
 
     public ImageSegment(BufferedImage image, Rectangle2D bounds) {
+        this(image, null, bounds);
+    }
+
+    public ImageSegment(BufferedImage image, float[] smoothIterations, Rectangle2D bounds) {
         this.image = image;
+        this.smoothIterations = smoothIterations;
         this.bounds = bounds;
     }
 
@@ -23,7 +39,50 @@ public class ImageSegment {
         return this.bounds;
     }
 
+    /**
+     * Gets the pixels of the segment
+     *
+     * @return BufferedImage, or null if the segment was rendered straight into the image
+     */
     public BufferedImage getImage() {
         return this.image;
     }
+
+    /**
+     * Gets the smooth iteration counts of the segment, in the same layout as the image
+     *
+     * @return float[] smooth iteration counts, or null if the segment doesn't have any
+     */
+    public float[] getSmoothIterations() {
+        return this.smoothIterations;
+    }
+
+    /**
+     * Gets how long the segment took to render
+     *
+     * @return long, nanoseconds
+     */
+    public long getComputeTime() {
+        return this.computeTime;
+    }
+
+    /**
+     * Gets the number of iterations calculated to render the segment
+     *
+     * @return long, iterations
+     */
+    public long getIterations() {
+        return this.iterations;
+    }
+
+    /**
+     * Sets the statistics of the segment's render
+     *
+     * @param computeTime Nanoseconds the segment took to render
+     * @param iterations  Number of iterations calculated
+     */
+    public void setStatistics(long computeTime, long iterations) {
+        this.computeTime = computeTime;
+        this.iterations = iterations;
+    }
 }
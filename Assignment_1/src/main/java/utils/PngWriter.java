@@ -0,0 +1,196 @@
+package utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes 8 bit RGB PNGs a band of rows at a time, so the whole image never has to be in memory.
+ * <p>
+ * Each band is compressed on its own with compressBand, which ends with a full flush so the bands can be joined into
+ * one deflate stream. The bands can be compressed in any order (or stored, and written after a crash), then written
+ * in order with writeBand.
+ * See <a href="https://www.w3.org/TR/png/">the PNG specification</a> for the format.
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public class PngWriter {
+
+    private static final byte[] SIGNATURE = new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    /**
+     * zlib header for deflate with a 32K window, and default compression
+     */
+    private static final byte[] ZLIB_HEADER = new byte[]{0x78, (byte) 0x9C};
+
+    /**
+     * A final, empty, fixed Huffman block. Ends the deflate stream after the last full flush.
+     */
+    private static final byte[] DEFLATE_END = new byte[]{0x03, 0x00};
+
+    /**
+     * Largest IDAT chunk to write
+     */
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    /**
+     * Sub filter, stores each byte as the difference from the byte one pixel to the left
+     */
+    private static final int FILTER_SUB = 1;
+
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream chunk = new ByteArrayOutputStream(CHUNK_SIZE);
+    private long adler = 1;
+
+    /**
+     * Starts a PNG, writing its header
+     *
+     * @param out    Stream to write to
+     * @param width  Width of the image
+     * @param height Height of the image
+     * @throws IOException if the stream couldn't be written to
+     */
+    public PngWriter(OutputStream out, int width, int height) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.out.write(SIGNATURE);
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream(13);
+        DataOutputStream data = new DataOutputStream(header);
+        data.writeInt(width);
+        data.writeInt(height);
+        data.writeByte(8);  // Bit depth
+        data.writeByte(2);  // Colour type, RGB
+        data.writeByte(0);  // Compression, deflate
+        data.writeByte(0);  // Filter, adaptive
+        data.writeByte(0);  // Interlace, none
+        this.writeChunk("IHDR", header.toByteArray(), header.size());
+
+        this.chunk.write(ZLIB_HEADER);
+    }
+
+    /**
+     * Compresses a band of rows
+     *
+     * @param pixels RGB pixels of the band, row by row
+     * @param width  Width of the image
+     * @param rows   Number of rows in the band
+     * @param out    Stream to write the compressed band to
+     * @return long, Adler-32 checksum of the uncompressed band, needed to write it
+     * @throws IOException if the stream couldn't be written to
+     */
+    public static long compressBand(int[] pixels, int width, int rows, OutputStream out) throws IOException {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        Adler32 adler = new Adler32();
+        byte[] row = new byte[width * 3 + 1];
+        byte[] buffer = new byte[CHUNK_SIZE];
+        int rgb, previous;
+
+        try {
+            for (int y = 0; y < rows; y++) {
+                row[0] = FILTER_SUB;
+                previous = 0;
+                for (int x = 0, i = y * width, b = 1; x < width; x++, i++, b += 3) {
+                    rgb = pixels[i];
+                    row[b] = (byte) ((rgb >> 16) - (previous >> 16));
+                    row[b + 1] = (byte) ((rgb >> 8) - (previous >> 8));
+                    row[b + 2] = (byte) (rgb - previous);
+                    previous = rgb;
+                }
+                adler.update(row, 0, row.length);
+                deflater.setInput(row);
+                while (!deflater.needsInput()) {
+                    out.write(buffer, 0, deflater.deflate(buffer, 0, buffer.length, Deflater.NO_FLUSH));
+                }
+            }
+
+            // Flush to a byte boundary, so the next band can carry straight on
+            int length;
+            do {
+                length = deflater.deflate(buffer, 0, buffer.length, Deflater.FULL_FLUSH);
+                out.write(buffer, 0, length);
+            } while (length == buffer.length);
+        } finally {
+            deflater.end();
+        }
+        return adler.getValue();
+    }
+
+    /**
+     * Writes a band compressed by compressBand, bands must be written in order
+     *
+     * @param band   Compressed band
+     * @param adler  Adler-32 checksum returned by compressBand
+     * @param length Length of the uncompressed band, rows * (width * 3 + 1)
+     * @throws IOException if the band couldn't be read, or the stream couldn't be written to
+     */
+    public void writeBand(InputStream band, long adler, long length) throws IOException {
+        byte[] buffer = new byte[CHUNK_SIZE];
+        int read;
+        while ((read = band.read(buffer, 0, CHUNK_SIZE - this.chunk.size())) != -1) {
+            this.chunk.write(buffer, 0, read);
+            if (this.chunk.size() == CHUNK_SIZE) {
+                this.flushChunk();
+            }
+        }
+        this.adler = combineAdler(this.adler, adler, length);
+    }
+
+    /**
+     * Ends the image data, and the PNG
+     *
+     * @throws IOException if the stream couldn't be written to
+     */
+    public void finish() throws IOException {
+        this.chunk.write(DEFLATE_END);
+        new DataOutputStream(this.chunk).writeInt((int) this.adler);
+        this.flushChunk();
+        this.writeChunk("IEND", new byte[0], 0);
+        this.out.flush();
+    }
+
+    private void flushChunk() throws IOException {
+        this.writeChunk("IDAT", this.chunk.toByteArray(), this.chunk.size());
+        this.chunk.reset();
+    }
+
+    private void writeChunk(String type, byte[] data, int length) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+
+        this.out.writeInt(length);
+        this.out.write(typeBytes);
+        this.out.write(data, 0, length);
+        this.out.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Works out the Adler-32 checksum of two blocks of data joined together, from their checksums (zlib's adler32_combine)
+     *
+     * @param adler1  Checksum of the first block
+     * @param adler2  Checksum of the second block
+     * @param length2 Length of the second block
+     * @return long, checksum of both blocks
+     */
+    static long combineAdler(long adler1, long adler2, long length2) {
+        final long base = 65521;
+        long remainder = length2 % base;
+        long sum1 = adler1 & 0xFFFF;
+        long sum2 = (remainder * sum1) % base;
+        sum1 += (adler2 & 0xFFFF) + base - 1;
+        sum2 += ((adler1 >> 16) & 0xFFFF) + ((adler2 >> 16) & 0xFFFF) + base - remainder;
+        if (sum1 >= base) sum1 -= base;
+        if (sum1 >= base) sum1 -= base;
+        if (sum2 >= (base << 1)) sum2 -= (base << 1);
+        if (sum2 >= base) sum2 -= base;
+        return sum1 | (sum2 << 16);
+    }
+}
@@ -10,7 +10,10 @@ const float huePrev,
 const float hueAdj,
 float saturation,
 float brightness,
-__global int* outputi
+const int periodicityCheck,
+const float periodicityTolerance,
+__global int* outputi,
+__global float* smoothIterations
 ) {
     // int2/float2 allow us to execute commands simultaneously on vectors
     float2 coords = convert_float2((int2)(get_global_id(0), get_global_id(1)));
@@ -22,6 +25,11 @@ __global int* outputi
 
     int iterationNum = 0;
 
+    // Brent's cycle detection: compare against a saved point that moves on after 1, 2, 4, 8... iterations
+    float2 saved = z;
+    int checkPeriod = 1;
+    int checkCount = 0;
+
     while ( (z_square.x + z_square.y <= escapeRadiusSquared) && (iterationNum < maxIterations)) {
         // (a + bi)^2 = (a^2 - b^2) + 2 ab i
 
@@ -38,17 +46,35 @@ __global int* outputi
 
         z_square = z * z;
         iterationNum++;
+
+        if (periodicityCheck) {
+            float2 delta = fabs(z - saved);
+            if (delta.x < periodicityTolerance && delta.y < periodicityTolerance) {
+                iterationNum = maxIterations;
+                break;
+            }
+            if (++checkCount == checkPeriod) {
+                checkCount = 0;
+                checkPeriod <<= 1;
+                saved = z;
+            }
+        }
     }
 
     float hue = INFINITY;
+    float smooth = INFINITY;
 
     if(iterationNum < maxIterations ) {
         // sqrt of inner term removed using log simplification rules. log(x^(1/2)) = (1/2)*log(x) = log(x) / 2
         float log_z = log((z.x * z.x) + (z.y * z.y)) / (float)2.0;
         float nu = log( log_z / M_LN2_F ) / M_LN2_F;
         hue = (iterationNum + 1 - nu) /   (float)110.0;
+        smooth = convert_float(iterationNum + 1 - nu);
     }
 
+    // Keep the smooth iteration count so the image can be recoloured without rendering it again
+    smoothIterations[pixelID] = smooth;
+
     if(hue == INFINITY){
         saturation = 0;
         brightness = 0;
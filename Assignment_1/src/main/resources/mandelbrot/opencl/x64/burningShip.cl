@@ -9,7 +9,8 @@ const double huePrev,
 const double hueAdj,
 double saturation,
 double brightness,
-__global int* outputi
+__global int* outputi,
+__global float* smoothIterations
 ) {
     // int2/double2 allow us to execute commands simultaneously on vectors
     double2 coords = convert_double2((int2)(get_global_id(0), get_global_id(1)));
@@ -43,14 +44,19 @@ __global int* outputi
     }
 
     double hue = INFINITY;
+    float smooth = INFINITY;
 
     if(iterationNum < maxIterations ) {
         // sqrt of inner term removed using log simplification rules. log(x^(1/2)) = (1/2)*log(x) = log(x) / 2
         double log_z = log((z.x * z.x) + (z.y * z.y)) / 2.0;
         double nu = log( log_z / M_LN2_F ) / M_LN2_F;
         hue = (iterationNum + 1 - nu) /   110.0;
+        smooth = convert_float(iterationNum + 1 - nu);
     }
 
+    // Keep the smooth iteration count so the image can be recoloured without rendering it again
+    smoothIterations[pixelID] = smooth;
+
     if(hue == INFINITY){
         saturation = 0;
         brightness = 0;
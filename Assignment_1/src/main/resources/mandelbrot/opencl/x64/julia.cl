@@ -10,7 +10,10 @@ const double huePrev,
 const double hueAdj,
 double saturation,
 double brightness,
-__global int* outputi
+const int periodicityCheck,
+const double periodicityTolerance,
+__global int* outputi,
+__global float* smoothIterations
 ) {
     // int2/double2 allow us to execute commands simultaneously on vectors
     double2 coords = convert_double2((int2)(get_global_id(0), get_global_id(1)));
@@ -22,6 +25,11 @@ __global int* outputi
 
     int iterationNum = 0;
 
+    // Brent's cycle detection: compare against a saved point that moves on after 1, 2, 4, 8... iterations
+    double2 saved = z;
+    int checkPeriod = 1;
+    int checkCount = 0;
+
     while ( (z_square.x + z_square.y <= escapeRadiusSquared) && (iterationNum < maxIterations)) {
         // (a + bi)^2 = (a^2 - b^2) + 2 ab i
 
@@ -38,17 +46,35 @@ __global int* outputi
 
         z_square = z * z;
         iterationNum++;
+
+        if (periodicityCheck) {
+            double2 delta = fabs(z - saved);
+            if (delta.x < periodicityTolerance && delta.y < periodicityTolerance) {
+                iterationNum = maxIterations;
+                break;
+            }
+            if (++checkCount == checkPeriod) {
+                checkCount = 0;
+                checkPeriod <<= 1;
+                saved = z;
+            }
+        }
     }
 
     double hue = INFINITY;
+    float smooth = INFINITY;
 
     if(iterationNum < maxIterations ) {
         // sqrt of inner term removed using log simplification rules. log(x^(1/2)) = (1/2)*log(x) = log(x) / 2
         double log_z = log((z.x * z.x) + (z.y * z.y)) / 2.0;
         double nu = log( log_z / M_LN2_F ) / M_LN2_F;
         hue = (iterationNum + 1 - nu) /   110.0;
+        smooth = convert_float(iterationNum + 1 - nu);
     }
 
+    // Keep the smooth iteration count so the image can be recoloured without rendering it again
+    smoothIterations[pixelID] = smooth;
+
     if(hue == INFINITY){
         saturation = 0;
         brightness = 0;
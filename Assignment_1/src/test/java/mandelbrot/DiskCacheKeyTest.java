@@ -0,0 +1,44 @@
+package mandelbrot;
+
+import mandelbrot.render.Precision;
+import utils.Complex;
+import utils.ImageProperties;
+
+import java.math.BigDecimal;
+
+/**
+ * Checks the disk cache keys of images, every property that changes how an image renders should change its key.
+ * Prints: case, key, whether it differs from the plain Mandelbrot key
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public class DiskCacheKeyTest {
+
+    public static void main(String[] args) {
+        ImageProperties mandelbrot = new ImageProperties(1024, 768, 500, 1, -0.5, 0);
+        String reference = DiskCacheManager.getKey("Mandelbrot", mandelbrot, 9, Precision.DOUBLE);
+        print("Mandelbrot", reference, reference);
+
+        // Julia images have the constant in the key as well
+        ImageProperties julia = new ImageProperties(1024, 768, 500, 1, 0, 0, new Complex(-0.123, 0.745));
+        print("Julia", DiskCacheManager.getKey("Julia", julia, 9, Precision.DOUBLE_DOUBLE), reference);
+        ImageProperties otherJulia = new ImageProperties(1024, 768, 500, 1, 0, 0, new Complex(-0.8, 0.156));
+        print("Julia (other constant)", DiskCacheManager.getKey("Julia", otherJulia, 9, Precision.DOUBLE_DOUBLE), reference);
+
+        print("Precision", DiskCacheManager.getKey("Mandelbrot", mandelbrot, 9, Precision.FLOAT), reference);
+        print("Escape radius", DiskCacheManager.getKey("Mandelbrot", mandelbrot, 4, Precision.DOUBLE), reference);
+
+        ImageProperties deep = new ImageProperties(1024, 768, 500, 1, -0.5, 0);
+        deep.setPreciseShift(new BigDecimal("-0.50000000000000000001"), BigDecimal.ZERO);
+        print("Precise shift", DiskCacheManager.getKey("Mandelbrot", deep, 9, Precision.DOUBLE), reference);
+
+        ImageProperties formula = new ImageProperties(1024, 768, 500, 1, -0.5, 0);
+        formula.setFormula("z^3 + c");
+        print("Formula", DiskCacheManager.getKey("Custom Formula", formula, 9, Precision.DOUBLE), reference);
+    }
+
+    private static void print(String name, String key, String reference) {
+        System.out.println(name + "," + key + "," + !key.equals(reference));
+    }
+}
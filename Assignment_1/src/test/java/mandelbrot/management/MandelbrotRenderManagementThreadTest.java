@@ -3,7 +3,7 @@ package mandelbrot.management;
 import junit.framework.TestCase;
 import mandelbrot.ConfigManager;
 import mandelbrot.Main;
-import mandelbrot.events.RenderListener;
+import mandelbrot.events.RenderAdapter;
 
 /**
  * {DESCRIPTION}
@@ -34,9 +34,10 @@ public class MandelbrotRenderManagementThreadTest{
         }
 
         long startTime;
-        for(int i = 1; i < t.imgWidth; i ++) {
-            t.numberStrips = i;
-            System.out.print(t.numberStrips);
+        int[] tileSizes = new int[]{TileScheduler.AUTO, 8, 16, 32, 64, 128, 256, 512};
+        for(int tileSize : tileSizes) {
+            config.setTileSize(tileSize);
+            System.out.print(tileSize == TileScheduler.AUTO ? "auto" : String.valueOf(tileSize));
             for(int j = 0; j < 50; j++){
                 startTime = System.nanoTime();
                 t.render();
@@ -55,7 +56,7 @@ public class MandelbrotRenderManagementThreadTest{
         main.dispose();
     }
 
-    private static class renderHandler implements RenderListener {
+    private static class renderHandler extends RenderAdapter {
 
         @Override
         public void renderComplete() {
@@ -0,0 +1,53 @@
+package mandelbrot.management;
+
+import mandelbrot.render.Fractal;
+import mandelbrot.render.RenderView;
+import utils.Complex;
+import utils.FractalImage;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+
+/**
+ * Renders each fractal with the RenderEngine, without a window.
+ * Run with -Djava.awt.headless=true to check nothing needs a display.
+ * Prints: fractal, render time (ns), % of pixels inside the set
+ *
+ * @author Huw Jones
+ * @since 18/10/2026
+ */
+public class RenderEngineTest {
+
+    public static void main(String[] args) throws Exception {
+        RenderEngine engine = new RenderEngine();
+
+        for (Fractal fractal : Fractal.values()) {
+            RenderView view = new RenderView(fractal, 1024, 768, 500, 1, 0, 0)
+                    .withComplex(new Complex(-0.123, 0.745))
+                    .withColour(0.3f, 0.8f, 0.9f);
+
+            long startTime = System.nanoTime();
+            FractalImage image = engine.render(view).get();
+            long time = System.nanoTime() - startTime;
+
+            int inside = 0;
+            for (float smoothIterations : image.getSmoothIterations()) {
+                if (Float.isInfinite(smoothIterations)) inside++;
+            }
+            System.out.println(fractal + "," + time + "," + (100d * inside / image.getSmoothIterations().length));
+        }
+
+        // Cancelling a render should stop it
+        Future<FractalImage> future = engine.render(new RenderView(Fractal.MANDELBROT, 4096, 4096, 100000, 1, -0.5, 0));
+        Thread.sleep(100);
+        future.cancel(true);
+        try {
+            future.get();
+            System.out.println("Cancelled render completed!");
+        } catch (CancellationException e) {
+            System.out.println("Cancelled render stopped.");
+        }
+
+        engine.shutdown();
+    }
+}